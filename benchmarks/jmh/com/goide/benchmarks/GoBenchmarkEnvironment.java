@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.GoFileType;
+import com.goide.GoLanguage;
+import com.goide.GoParserDefinition;
+import com.goide.psi.GoFile;
+import com.intellij.core.CoreApplicationEnvironment;
+import com.intellij.core.CoreProjectEnvironment;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Minimal headless environment: enough for lexing, parsing and building stubs of Go files without starting the IDE
+ */
+public class GoBenchmarkEnvironment {
+  private static final String TEST_DATA_PROPERTY = "go.benchmarks.testData";
+
+  @NotNull private final Disposable myDisposable = Disposer.newDisposable();
+  @NotNull private final PsiFileFactory myFileFactory;
+
+  public GoBenchmarkEnvironment() {
+    CoreApplicationEnvironment applicationEnvironment = new CoreApplicationEnvironment(myDisposable);
+    applicationEnvironment.registerFileType(GoFileType.INSTANCE, "go");
+    applicationEnvironment.registerParserDefinition(new GoParserDefinition());
+    CoreProjectEnvironment projectEnvironment = new CoreProjectEnvironment(myDisposable, applicationEnvironment);
+    myFileFactory = PsiFileFactory.getInstance(projectEnvironment.getProject());
+  }
+
+  @NotNull
+  public GoFile createFile(@NotNull String name, @NotNull CharSequence text) {
+    PsiFile file = myFileFactory.createFileFromText(name, GoLanguage.INSTANCE, text);
+    if (!(file instanceof GoFile)) throw new IllegalStateException("Cannot create Go file for " + name);
+    return (GoFile)file;
+  }
+
+  public void dispose() {
+    Disposer.dispose(myDisposable);
+  }
+
+  @NotNull
+  public static String loadTestFile(@NotNull String name) throws IOException {
+    String testData = System.getProperty(TEST_DATA_PROPERTY, "testData/performance");
+    return FileUtil.loadFile(new File(testData, name), "UTF-8", true);
+  }
+}
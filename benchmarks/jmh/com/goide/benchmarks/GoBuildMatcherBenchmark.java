@@ -0,0 +1,48 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.util.GoBuildConstraint;
+import com.goide.util.GoBuildMatcher;
+import com.goide.util.GoTargetSystem;
+import com.intellij.util.ThreeState;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+public class GoBuildMatcherBenchmark {
+  @Param({"linux", "linux darwin freebsd|amd64,!cgo", "!windows,!plan9 go1.5|ignore foo,bar,baz"})
+  public String buildFlags;
+
+  private GoBuildMatcher myMatcher;
+  private GoBuildConstraint myConstraint;
+
+  @Setup
+  public void setUp() {
+    myMatcher = new GoBuildMatcher(new GoTargetSystem("linux", "amd64", "1.5.1", null, ThreeState.YES, "foo"));
+    myConstraint = GoBuildConstraint.parse(buildFlags);
+  }
+
+  @Benchmark
+  public boolean match() {
+    return myMatcher.match("file_linux_amd64.go", buildFlags, true);
+  }
+
+  @Benchmark
+  public boolean matchParsed() {
+    return myConstraint.matches(myMatcher);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.lexer.GoLexer;
+import com.goide.lexer._GoLexer;
+import com.intellij.lexer.FlexAdapter;
+import com.intellij.lexer.Lexer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+
+@State(Scope.Thread)
+public class GoLexerBenchmark {
+  @Param({"performanceA.go", "performanceA2.go"})
+  public String fileName;
+
+  private String myText;
+
+  @Setup
+  public void setUp() throws IOException {
+    myText = GoBenchmarkEnvironment.loadTestFile(fileName);
+  }
+
+  @Benchmark
+  public int flexLexer() {
+    return countTokens(new FlexAdapter(new _GoLexer()));
+  }
+
+  @Benchmark
+  public int mergingLexer() {
+    return countTokens(new GoLexer());
+  }
+
+  private int countTokens(Lexer lexer) {
+    int count = 0;
+    lexer.start(myText);
+    while (lexer.getTokenType() != null) {
+      count++;
+      lexer.advance();
+    }
+    return count;
+  }
+}
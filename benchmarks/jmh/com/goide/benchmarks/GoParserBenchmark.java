@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.intellij.lang.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+
+@State(Scope.Thread)
+public class GoParserBenchmark {
+  @Param({"performanceA.go", "performanceA2.go"})
+  public String fileName;
+
+  private GoBenchmarkEnvironment myEnvironment;
+  private String myText;
+
+  @Setup
+  public void setUp() throws IOException {
+    myEnvironment = new GoBenchmarkEnvironment();
+    myText = GoBenchmarkEnvironment.loadTestFile(fileName);
+  }
+
+  @TearDown
+  public void tearDown() {
+    myEnvironment.dispose();
+  }
+
+  @Benchmark
+  public int parse() {
+    return countNodes(myEnvironment.createFile(fileName, myText).getNode());
+  }
+
+  /**
+   * Function bodies are lazy blocks which are parsed on the first access to their children,
+   * so the whole tree is walked to parse them too
+   */
+  private static int countNodes(ASTNode node) {
+    int count = 1;
+    for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+      count += countNodes(child);
+    }
+    return count;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.GoFileElementType;
+import com.goide.psi.GoFile;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.stubs.ObjectStubSerializer;
+import com.intellij.psi.stubs.Stub;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubOutputStream;
+import com.intellij.util.io.PersistentStringEnumerator;
+import com.intellij.util.io.UnsyncByteArrayOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+
+@State(Scope.Thread)
+public class GoStubBenchmark {
+  @Param({"performanceA.go", "performanceA2.go"})
+  public String fileName;
+
+  private GoBenchmarkEnvironment myEnvironment;
+  private File myEnumeratorFile;
+  private PersistentStringEnumerator myEnumerator;
+  private GoFile myFile;
+  private StubElement myStub;
+
+  @Setup
+  public void setUp() throws IOException {
+    myEnvironment = new GoBenchmarkEnvironment();
+    myFile = myEnvironment.createFile(fileName, GoBenchmarkEnvironment.loadTestFile(fileName));
+    myStub = buildStubs();
+    myEnumeratorFile = FileUtil.createTempFile("go-stub-benchmark", ".names");
+    myEnumerator = new PersistentStringEnumerator(myEnumeratorFile);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    myEnumerator.close();
+    FileUtil.delete(myEnumeratorFile);
+    myEnvironment.dispose();
+  }
+
+  @Benchmark
+  public StubElement buildStubs() {
+    return GoFileElementType.INSTANCE.getBuilder().buildStubTree(myFile);
+  }
+
+  @Benchmark
+  public int serializeStubs() throws IOException {
+    UnsyncByteArrayOutputStream bytes = new UnsyncByteArrayOutputStream();
+    StubOutputStream stream = new StubOutputStream(bytes, myEnumerator);
+    serialize(myStub, stream);
+    return bytes.size();
+  }
+
+  private static void serialize(Stub stub, StubOutputStream stream) throws IOException {
+    //noinspection unchecked
+    ((ObjectStubSerializer)stub.getStubType()).serialize(stub, stream);
+    for (Stub child : stub.getChildrenStubs()) {
+      serialize(child, stream);
+    }
+  }
+}
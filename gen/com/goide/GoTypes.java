@@ -4,6 +4,7 @@ package com.goide;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.PsiElement;
 import com.intellij.lang.ASTNode;
+import com.goide.psi.GoBlockElementType;
 import com.goide.psi.GoCompositeElementType;
 import com.goide.stubs.GoStubElementTypeFactory;
 import com.goide.psi.GoTokenType;
@@ -18,7 +19,7 @@ public interface GoTypes {
   IElementType ARRAY_OR_SLICE_TYPE = GoStubElementTypeFactory.factory("ARRAY_OR_SLICE_TYPE");
   IElementType ASSIGNMENT_STATEMENT = new GoCompositeElementType("ASSIGNMENT_STATEMENT");
   IElementType ASSIGN_OP = new GoCompositeElementType("ASSIGN_OP");
-  IElementType BLOCK = new GoCompositeElementType("BLOCK");
+  IElementType BLOCK = new GoBlockElementType("BLOCK");
   IElementType BREAK_STATEMENT = new GoCompositeElementType("BREAK_STATEMENT");
   IElementType BUILTIN_ARGUMENT_LIST = new GoCompositeElementType("BUILTIN_ARGUMENT_LIST");
   IElementType BUILTIN_CALL_EXPR = new GoCompositeElementType("BUILTIN_CALL_EXPR");
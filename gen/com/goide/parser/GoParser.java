@@ -557,6 +557,18 @@ public class GoParser implements PsiParser, LightPsiParser {
     return true;
   }
 
+  /* ********************************************************** */
+  // <<lazyBlock>> | Block
+  static boolean BodyBlock(PsiBuilder b, int l) {
+    if (!recursion_guard_(b, l, "BodyBlock")) return false;
+    boolean r;
+    Marker m = enter_section_(b);
+    r = lazyBlock(b, l + 1);
+    if (!r) r = Block(b, l + 1);
+    exit_section_(b, m, null, r);
+    return r;
+  }
+
   /* ********************************************************** */
   // break LabelRef?
   public static boolean BreakStatement(PsiBuilder b, int l) {
@@ -1988,7 +2000,7 @@ public class GoParser implements PsiParser, LightPsiParser {
   }
 
   /* ********************************************************** */
-  // func identifier Signature Block?
+  // func identifier Signature BodyBlock?
   public static boolean FunctionDeclaration(PsiBuilder b, int l) {
     if (!recursion_guard_(b, l, "FunctionDeclaration")) return false;
     if (!nextTokenIs(b, FUNC)) return false;
@@ -2002,10 +2014,10 @@ public class GoParser implements PsiParser, LightPsiParser {
     return r || p;
   }
 
-  // Block?
+  // BodyBlock?
   private static boolean FunctionDeclaration_3(PsiBuilder b, int l) {
     if (!recursion_guard_(b, l, "FunctionDeclaration_3")) return false;
-    Block(b, l + 1);
+    BodyBlock(b, l + 1);
     return true;
   }
 
@@ -2485,7 +2497,7 @@ public class GoParser implements PsiParser, LightPsiParser {
   }
 
   /* ********************************************************** */
-  // func Receiver identifier Signature Block?
+  // func Receiver identifier Signature BodyBlock?
   public static boolean MethodDeclaration(PsiBuilder b, int l) {
     if (!recursion_guard_(b, l, "MethodDeclaration")) return false;
     if (!nextTokenIs(b, FUNC)) return false;
@@ -2501,10 +2513,10 @@ public class GoParser implements PsiParser, LightPsiParser {
     return r || p;
   }
 
-  // Block?
+  // BodyBlock?
   private static boolean MethodDeclaration_4(PsiBuilder b, int l) {
     if (!recursion_guard_(b, l, "MethodDeclaration_4")) return false;
-    Block(b, l + 1);
+    BodyBlock(b, l + 1);
     return true;
   }
 
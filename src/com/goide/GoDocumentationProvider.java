@@ -16,10 +16,12 @@
 
 package com.goide;
 
-import com.goide.editor.GoParameterInfoHandler;
 import com.goide.psi.*;
+import com.goide.psi.impl.GoDocumentationUtil;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.sdk.GoSdkUtil;
+import com.goide.stubs.GoDocumentedStub;
+import com.goide.stubs.GoFileStub;
 import com.goide.stubs.index.GoAllPrivateNamesIndex;
 import com.goide.stubs.index.GoAllPublicNamesIndex;
 import com.goide.util.GoUtil;
@@ -36,8 +38,8 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubIndex;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.Function;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.xml.util.XmlStringUtil;
@@ -66,44 +68,21 @@ public class GoDocumentationProvider extends AbstractDocumentationProvider {
     return withHtml ? COMMENTS_CONVERTER.toHtml(comments) : COMMENTS_CONVERTER.toText(comments);
   }
 
+  @Nullable
+  private static GoDocumentedStub getDocumentedStub(@Nullable PsiElement element) {
+    StubElement stub = element instanceof StubBasedPsiElement ? ((StubBasedPsiElement)element).getStub() : null;
+    return stub instanceof GoDocumentedStub ? (GoDocumentedStub)stub : null;
+  }
+
   @NotNull
-  public static List<PsiComment> getCommentsForElement(@Nullable PsiElement element) {
-    List<PsiComment> comments = getCommentsInner(element);
-    if (comments.isEmpty()) {
-      if (element instanceof GoVarDefinition || element instanceof GoConstDefinition) {
-        PsiElement parent = element.getParent(); // spec
-        comments = getCommentsInner(parent);
-        if (comments.isEmpty() && parent != null) {
-          return getCommentsInner(parent.getParent()); // declaration
-        }
-      }
-      else if (element instanceof GoTypeSpec) {
-        return getCommentsInner(element.getParent()); // type declaration
-      }
-    }
-    return comments;
+  private static String getCommentHtml(@NotNull PsiElement element) {
+    GoDocumentedStub stub = getDocumentedStub(element);
+    return stub != null ? stubCommentToHtml(stub.getDocComment()) : getCommentText(GoDocumentationUtil.getCommentsForElement(element), true);
   }
 
   @NotNull
-  private static List<PsiComment> getCommentsInner(@Nullable PsiElement element) {
-    if (element == null) {
-      return ContainerUtil.emptyList();
-    }
-    List<PsiComment> result = ContainerUtil.newArrayList();
-    PsiElement e;
-    for (e = element.getPrevSibling(); e != null; e = e.getPrevSibling()) {
-      if (e instanceof PsiWhiteSpace) {
-        if (e.getText().contains("\n\n")) return result;
-        continue;
-      }
-      if (e instanceof PsiComment) {
-        result.add(0, (PsiComment)e);
-      }
-      else {
-        return result;
-      }
-    }
-    return result;
+  private static String stubCommentToHtml(@Nullable String text) {
+    return text != null ? COMMENTS_CONVERTER.textToHtml(StringUtil.split(text, "\n", true, false)) : "";
   }
 
   @Nullable
@@ -119,11 +98,13 @@ public class GoDocumentationProvider extends AbstractDocumentationProvider {
   @Nullable
   private static String getPackageComment(@Nullable GoFile file) {
     if (file != null) {
-      // todo: remove after correct stubbing (comments needed in stubs)
-      GoPackageClause pack = PsiTreeUtil.findChildOfType(file, GoPackageClause.class);
+      GoFileStub stub = file.getStub();
+      String comment = stub != null
+                       ? stubCommentToHtml(stub.getPackageDocComment())
+                       : getCommentText(GoDocumentationUtil.getCommentsForElement(file.getPackage()), true);
       String title = "<b>Package " + GoUtil.suggestPackageForDirectory(file.getParent()) + "</b>\n";
       String importPath = "<p><code>import \"" + StringUtil.notNullize(file.getImportPath()) + "\"</code></p>\n";
-      return title + importPath + getCommentText(getCommentsForElement(pack), true);
+      return title + importPath + comment;
     }
     return null;
   }
@@ -157,47 +138,13 @@ public class GoDocumentationProvider extends AbstractDocumentationProvider {
     }
 
     if (!(element instanceof GoSignatureOwner)) return "";
-    PsiElement identifier = null;
-    if (element instanceof GoNamedSignatureOwner) {
-      identifier = ((GoNamedSignatureOwner)element).getIdentifier();
-    }
-    GoSignature signature = ((GoSignatureOwner)element).getSignature();
-
-    if (identifier == null && signature == null) {
-      return "";
-    }
-
-    StringBuilder builder = new StringBuilder("func ").append(identifier != null ? identifier.getText() : "").append('(');
-    if (signature != null) {
-      builder.append(getParametersAsString(signature.getParameters()));
-    }
-    builder.append(')');
-
-    GoResult result = signature != null ? signature.getResult() : null;
-    GoParameters parameters = result != null ? result.getParameters() : null;
-    GoType type = result != null ? result.getType() : null;
-
-    if (parameters != null) {
-      String signatureParameters = getParametersAsString(parameters);
-      if (!signatureParameters.isEmpty()) {
-        builder.append(" (").append(signatureParameters).append(')');
-      }
-    }
-    else if (type != null) {
-      builder.append(' ').append(getTypePresentation(type, getImportPathForElement(element)));
-    }
-    return builder.toString();
-  }
-
-  @NotNull
-  private static String getParametersAsString(@NotNull GoParameters parameters) {
-    final String contextImportPath = getImportPathForElement(parameters);
-    return StringUtil.join(GoParameterInfoHandler.getParameterPresentations(parameters, new Function<PsiElement, String>() {
+    final String contextImportPath = getImportPathForElement(element);
+    return GoDocumentationUtil.getFunctionSignature((GoSignatureOwner)element, new Function<PsiElement, String>() {
       @Override
-      public String fun(PsiElement element) {
-        return getTypePresentation(element, contextImportPath);
+      public String fun(PsiElement o) {
+        return getTypePresentation(o, contextImportPath);
       }
-    }), ", ");
+    });
   }
 
   @Nullable
@@ -350,9 +297,10 @@ public class GoDocumentationProvider extends AbstractDocumentationProvider {
   public String generateDoc(PsiElement element, PsiElement originalElement) {
     element = adjustDocElement(element);
     if (element instanceof GoNamedElement) {
+      String comment = getCommentHtml(element);
       String signature = getSignature(element);
       signature = StringUtil.isNotEmpty(signature) ? "<b>" + signature + "</b>\n" : signature;
-      return StringUtil.nullize(signature + getCommentText(getCommentsForElement(element), true));
+      return StringUtil.nullize(signature + comment);
     }
     else if (element instanceof PsiDirectory) {
       return getPackageComment(findDocFileForDirectory(((PsiDirectory)element)));
@@ -373,7 +321,9 @@ public class GoDocumentationProvider extends AbstractDocumentationProvider {
   @Override
   public String getQuickNavigateInfo(PsiElement element, PsiElement originalElement) {
     if (element instanceof GoNamedElement) {
-      String result = getSignature(element);
+      GoDocumentedStub stub = getDocumentedStub(element);
+      String stubSignature = stub != null ? stub.getSignatureText() : null;
+      String result = stubSignature != null ? XmlStringUtil.escapeString(stubSignature) : getSignature(element);
       if (StringUtil.isNotEmpty(result)) return result;
     }
     return super.getQuickNavigateInfo(element, originalElement);
@@ -18,7 +18,9 @@ package com.goide;
 
 import com.goide.psi.GoFile;
 import com.goide.stubs.GoFileStub;
+import com.goide.stubs.GoSdkStubSnapshot;
 import com.goide.stubs.index.GoPackagesIndex;
+import com.intellij.lang.ASTNode;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.StubBuilder;
@@ -31,7 +33,7 @@ import java.io.IOException;
 
 public class GoFileElementType extends IStubFileElementType<GoFileStub> {
   public static final IStubFileElementType INSTANCE = new GoFileElementType();
-  public static final int VERSION = 16;
+  public static final int VERSION = 20;
 
   private GoFileElementType() {
     super("GO_FILE", GoLanguage.INSTANCE);
@@ -46,6 +48,13 @@ public class GoFileElementType extends IStubFileElementType<GoFileStub> {
   @Override
   public StubBuilder getBuilder() {
     return new DefaultStubBuilder() {
+      @NotNull
+      @Override
+      public StubElement buildStubTree(@NotNull PsiFile file) {
+        StubElement snapshot = GoSdkStubSnapshot.getInstance().findStub(file);
+        return snapshot != null ? snapshot : super.buildStubTree(file);
+      }
+
       @NotNull
       @Override
       protected StubElement createStubForFile(@NotNull PsiFile file) {
@@ -54,6 +63,11 @@ public class GoFileElementType extends IStubFileElementType<GoFileStub> {
         }
         return super.createStubForFile(file);
       }
+
+      @Override
+      public boolean skipChildProcessingWhenBuildingStubs(@NotNull ASTNode parent, @NotNull ASTNode node) {
+        return node.getElementType() == GoTypes.BLOCK;
+      }
     };
   }
 
@@ -70,12 +84,14 @@ public class GoFileElementType extends IStubFileElementType<GoFileStub> {
   public void serialize(@NotNull GoFileStub stub, @NotNull StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getPackageName());
     dataStream.writeUTF(StringUtil.notNullize(stub.getBuildFlags()));
+    dataStream.writeUTFFast(StringUtil.notNullize(stub.getPackageDocComment()));
   }
 
   @NotNull
   @Override
   public GoFileStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoFileStub(null, dataStream.readName(), StringRef.fromNullableString(StringUtil.nullize(dataStream.readUTF())));
+    return new GoFileStub(null, dataStream.readName(), StringRef.fromNullableString(StringUtil.nullize(dataStream.readUTF())),
+                          StringRef.fromNullableString(StringUtil.nullize(dataStream.readUTFFast())));
   }
 
   @NotNull
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.actions.internal;
+
+import com.goide.GoConstants;
+import com.goide.util.GoResolveMetrics;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes {@link GoResolveMetrics} snapshot as JSON into the log directory and shows the most expensive packages
+ */
+public class GoDumpResolveMetricsInternalAction extends DumbAwareAction {
+  private static final Logger LOG = Logger.getInstance(GoDumpResolveMetricsInternalAction.class);
+  private static final int PACKAGES_TO_SHOW = 5;
+
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    e.getPresentation().setEnabled(GoResolveMetrics.isEnabled());
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    GoResolveMetrics.Snapshot snapshot = GoResolveMetrics.snapshot();
+    File file = new File(PathManager.getLogPath(), "go-resolve-metrics-" + snapshot.timestamp + ".json");
+    try {
+      FileUtil.writeToFile(file, GoResolveMetrics.toJson(snapshot));
+    }
+    catch (IOException ex) {
+      LOG.warn(ex);
+      Notifications.Bus.notify(GoConstants.GO_NOTIFICATION_GROUP.createNotification("Cannot write resolve metrics: " + ex.getMessage(),
+                                                                                    NotificationType.ERROR), e.getProject());
+      return;
+    }
+
+    StringBuilder message = new StringBuilder("Saved to ").append(file.getPath());
+    List<GoResolveMetrics.PackageEntry> packages = snapshot.packages;
+    for (GoResolveMetrics.PackageEntry entry : packages.subList(0, Math.min(PACKAGES_TO_SHOW, packages.size()))) {
+      message.append("<br/>").append(StringUtil.escapeXml(entry.path)).append(": ").append(Math.round(entry.totalMillis)).append(" ms");
+    }
+    Notifications.Bus.notify(GoConstants.GO_NOTIFICATION_GROUP.createNotification("Go resolve metrics", message.toString(),
+                                                                                  NotificationType.INFORMATION, null), e.getProject());
+  }
+}
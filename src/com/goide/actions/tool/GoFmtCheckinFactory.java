@@ -17,11 +17,15 @@
 package com.goide.actions.tool;
 
 import com.goide.psi.GoFile;
+import com.goide.util.GoExecutor;
+import com.goide.util.GoExecutorPool;
 import com.intellij.CommonBundle;
 import com.intellij.ide.util.PropertiesComponent;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vcs.CheckinProjectPanel;
@@ -35,6 +39,8 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.util.Consumer;
 import com.intellij.util.PairConsumer;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
 import com.intellij.util.ui.UIUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -44,6 +50,7 @@ import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class GoFmtCheckinFactory extends CheckinHandlerFactory {
   private static final String GO_FMT = "GO_FMT";
@@ -80,16 +87,29 @@ public class GoFmtCheckinFactory extends CheckinHandlerFactory {
         if (enabled(panel)) {
           final Ref<Boolean> success = new Ref<Boolean>(true);
           FileDocumentManager.getInstance().saveAllDocuments();
+          List<GoExecutor> executors = ContainerUtil.newArrayList();
+          List<VirtualFile> files = ContainerUtil.newArrayList();
+          MultiMap<Pair<Module, VirtualFile>, String> groups = MultiMap.createSet();
           for (PsiFile file : getPsiFiles()) {
             VirtualFile virtualFile = file.getVirtualFile();
-            new GoFmtFileAction().doSomething(virtualFile, ModuleUtilCore.findModuleForPsiElement(file), file.getProject(), "Go fmt", true,
-                                              new Consumer<Boolean>() {
-                                                @Override
-                                                public void consume(Boolean result) {
-                                                  if (!result) success.set(false);
-                                                }
-                                              });
+            VirtualFile directory = virtualFile != null ? virtualFile.getParent() : null;
+            if (directory != null) {
+              groups.putValue(Pair.create(ModuleUtilCore.findModuleForPsiElement(file), directory), virtualFile.getPath());
+              files.add(virtualFile);
+            }
           }
+          // go fmt accepts several files only from the same directory
+          for (Map.Entry<Pair<Module, VirtualFile>, Collection<String>> entry : groups.entrySet()) {
+            for (List<String> paths : GoExecutorPool.partition(entry.getValue())) {
+              executors.add(GoFmtFileAction.createExecutor(panel.getProject(), entry.getKey().first, "Go fmt", paths));
+            }
+          }
+          GoExecutorPool.executeWithProgress(panel.getProject(), "Go fmt", executors, files, true, new Consumer<Boolean>() {
+            @Override
+            public void consume(Boolean result) {
+              if (!result) success.set(false);
+            }
+          });
           if (!success.get()) {
             return showErrorMessage(executor);
           }
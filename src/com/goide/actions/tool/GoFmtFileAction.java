@@ -19,12 +19,23 @@ package com.goide.actions.tool;
 import com.goide.util.GoExecutor;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.ArrayUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.List;
+
 public class GoFmtFileAction extends GoExternalToolsAction {
   @NotNull
   protected GoExecutor createExecutor(@NotNull Project project, @Nullable Module module, @NotNull String title, @NotNull String filePath) {
-    return GoExecutor.in(project, module).withPresentableName(title).withParameters("fmt", filePath).showOutputOnError();
+    return createExecutor(project, module, title, Collections.singletonList(filePath));
+  }
+
+  @NotNull
+  static GoExecutor createExecutor(@NotNull Project project, @Nullable Module module, @NotNull String title,
+                                   @NotNull List<String> filePaths) {
+    return GoExecutor.in(project, module).withPresentableName(title).withParameters("fmt")
+      .withParameters(ArrayUtil.toStringArray(filePaths)).showOutputOnError();
   }
 }
@@ -19,17 +19,19 @@ package com.goide.actions.tool;
 import com.goide.sdk.GoSdkService;
 import com.goide.sdk.GoSdkUtil;
 import com.goide.util.GoExecutor;
+import com.goide.util.GoExecutorPool;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.DumbAwareAction;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ModuleRootManager;
-import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.Consumer;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
 
 public class GoFmtProjectAction extends DumbAwareAction {
   @Override
@@ -44,20 +46,16 @@ public class GoFmtProjectAction extends DumbAwareAction {
     assert project != null;
 
     FileDocumentManager.getInstance().saveAllDocuments();
+    List<GoExecutor> executors = ContainerUtil.newArrayList();
+    List<VirtualFile> roots = ContainerUtil.newArrayList();
     for (Module module : GoSdkUtil.getGoModules(project)) {
       for (VirtualFile file : ModuleRootManager.getInstance(module).getContentRoots()) {
-        fmt(project, module, "go fmt " + file.getPath(), file);
+        executors.add(GoExecutor.in(project, module).withPresentableName("go fmt " + file.getPath()).withWorkDirectory(file.getPath())
+                        .withParameters("fmt", "./...").showOutputOnError());
+        roots.add(file);
       }
     }
-  }
-
-  private static void fmt(@NotNull Project project, @Nullable Module module, @NotNull String presentation, @NotNull final VirtualFile dir) {
-    GoExecutor.in(project, module).withPresentableName(presentation).withWorkDirectory(dir.getPath())
-      .withParameters("fmt", "./...").showOutputOnError().executeWithProgress(false, new Consumer<Boolean>() {
-      @Override
-      public void consume(Boolean result) {
-        VfsUtil.markDirtyAndRefresh(true, true, true, dir);
-      }
-    });
+    //noinspection unchecked
+    GoExecutorPool.executeWithProgress(project, "go fmt", executors, roots, false, Consumer.EMPTY_CONSUMER);
   }
 }
@@ -21,6 +21,7 @@ import com.goide.psi.*;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.psi.impl.GoTypeReference;
 import com.goide.runconfig.testing.GoTestFinder;
+import com.goide.stubs.index.GoNamesTable;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.completion.*;
 import com.intellij.openapi.progress.ProgressManager;
@@ -90,7 +91,7 @@ public class GoAutoImportCompletionContributor extends CompletionContributor {
         if (containingDirectory != null) {
           scope = new GoUtil.ExceptChildOfDirectory(containingDirectory, scope, GoTestFinder.getTestTargetPackage(file));
         }
-        Set<String> sortedKeys = sortMatching(matcher, StubIndex.getInstance().getAllKeys(ALL_PUBLIC_NAMES, project), file);
+        Set<String> sortedKeys = sortMatching(matcher, GoNamesTable.getInstance(project), file);
         for (String name : sortedKeys) {
           processor.setName(name);
           for (GoNamedElement element : StubIndex.getElements(ALL_PUBLIC_NAMES, name, project, scope, GoNamedElement.class)) {
@@ -112,10 +113,10 @@ public class GoAutoImportCompletionContributor extends CompletionContributor {
   }
 
   @NotNull
-  private static Set<String> sortMatching(@NotNull PrefixMatcher matcher, @NotNull Collection<String> names, @NotNull GoFile file) {
+  private static Set<String> sortMatching(@NotNull PrefixMatcher matcher, @NotNull GoNamesTable table, @NotNull GoFile file) {
     ProgressManager.checkCanceled();
     String prefix = matcher.getPrefix();
-    if (prefix.isEmpty()) return ContainerUtil.newLinkedHashSet(names);
+    if (prefix.isEmpty()) return ContainerUtil.newLinkedHashSet(table.getAllNames(ALL_PUBLIC_NAMES));
 
     Set<String> packagesWithAliases = ContainerUtil.newHashSet();
     for (Map.Entry<String, Collection<GoImportSpec>> entry : file.getImportMap().entrySet()) {
@@ -128,7 +129,8 @@ public class GoAutoImportCompletionContributor extends CompletionContributor {
       }
     }
 
-  List<String> sorted = ContainerUtil.newArrayList();
+    Collection<String> names = table.getCandidates(ALL_PUBLIC_NAMES, prefix, packagesWithAliases);
+    List<String> sorted = ContainerUtil.newArrayList();
     for (String name : names) {
       if (matcher.prefixMatches(name) || packagesWithAliases.contains(substringBefore(name, '.'))) {
         sorted.add(name);
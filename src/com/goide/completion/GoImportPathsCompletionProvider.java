@@ -21,15 +21,19 @@ import com.goide.project.GoExcludedPathsSettings;
 import com.goide.psi.GoImportString;
 import com.goide.runconfig.testing.GoTestFinder;
 import com.goide.sdk.GoSdkUtil;
+import com.goide.stubs.index.GoImportPathIndex;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionProvider;
 import com.intellij.codeInsight.completion.CompletionResultSet;
+import com.intellij.codeInsight.completion.PrefixMatcher;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Condition;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
@@ -37,11 +41,17 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+import java.util.Set;
+
 public class GoImportPathsCompletionProvider extends CompletionProvider<CompletionParameters> {
   @Override
   protected void addCompletions(@NotNull CompletionParameters parameters, ProcessingContext context, @NotNull CompletionResultSet result) {
@@ -68,16 +78,57 @@ public class GoImportPathsCompletionProvider extends CompletionProvider<Completi
       GlobalSearchScope scope = withLibraries ? GoUtil.moduleScope(module) : GoUtil.moduleScopeWithoutLibraries(module);
       PsiFile contextFile = context != null ? context.getContainingFile() : null;
       boolean testFileWithTestPackage = GoTestFinder.isTestFileWithTestPackage(contextFile);
-      for (VirtualFile file : FileTypeIndex.getFiles(GoFileType.INSTANCE, scope)) {
-        VirtualFile parent = file.getParent();
-        if (parent == null) continue;
-        String importPath = GoSdkUtil.getPathRelativeToSdkAndLibraries(parent, project, module);
+
+      Set<VirtualFile> directories = ContainerUtil.newLinkedHashSet();
+      for (String importPath : getMatchingImportPaths(result.getPrefixMatcher(), scope)) {
+        directories.addAll(GoImportPathIndex.getDirectories(importPath, scope));
+      }
+      List<VirtualFile> rootsOutsideSrc = ContainerUtil.filter(GoSdkUtil.getSourcesPathsToLookup(project, module),
+                                                               new Condition<VirtualFile>() {
+                                                                 @Override
+                                                                 public boolean value(VirtualFile root) {
+                                                                   return !isSrcLayoutRoot(root);
+                                                                 }
+                                                               });
+      if (!rootsOutsideSrc.isEmpty()) {
+        GlobalSearchScope rootsScope = GlobalSearchScopesCore.directoriesScope(project, true, VfsUtilCore.toVirtualFileArray(rootsOutsideSrc));
+        for (VirtualFile file : FileTypeIndex.getFiles(GoFileType.INSTANCE, scope.intersectWith(rootsScope))) {
+          ContainerUtil.addIfNotNull(directories, file.getParent());
+        }
+      }
+
+      for (VirtualFile directory : directories) {
+        String importPath = GoSdkUtil.getPathRelativeToSdkAndLibraries(directory, project, module);
         if (!StringUtil.isEmpty(importPath) && !excludedSettings.isExcluded(importPath) &&
             (testFileWithTestPackage || !importPath.equals(contextImportPath))) {
-          PsiDirectory directory = PsiManager.getInstance(project).findDirectory(parent);
-          result.addElement(GoCompletionUtil.createPackageLookupElement(importPath, contextImportPath, directory, false));
+          PsiDirectory psiDirectory = PsiManager.getInstance(project).findDirectory(directory);
+          result.addElement(GoCompletionUtil.createPackageLookupElement(importPath, contextImportPath, psiDirectory, false));
         }
       }
     }
   }
+
+  @NotNull
+  private static List<String> getMatchingImportPaths(@NotNull final PrefixMatcher matcher, @NotNull GlobalSearchScope scope) {
+    final List<String> result = ContainerUtil.newArrayList();
+    GoImportPathIndex.processImportPaths(new Processor<String>() {
+      @Override
+      public boolean process(String importPath) {
+        if (matcher.prefixMatches(importPath)) {
+          result.add(importPath);
+        }
+        return true;
+      }
+    }, scope);
+    return result;
+  }
+
+  /**
+   * Directories under such roots are indexed by {@link GoImportPathIndex} with their import paths
+   */
+  private static boolean isSrcLayoutRoot(@NotNull VirtualFile root) {
+    if ("src".equals(root.getName())) return true;
+    VirtualFile parent = root.getParent();
+    return "pkg".equals(root.getName()) && parent != null && "src".equals(parent.getName());
+  }
 }
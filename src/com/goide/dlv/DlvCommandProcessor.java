@@ -18,6 +18,7 @@ package com.goide.dlv;
 
 import com.goide.dlv.protocol.DlvRequest;
 import com.goide.dlv.protocol.DlvResponse;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.stream.JsonReader;
 import com.intellij.openapi.util.text.StringUtil;
@@ -29,11 +30,17 @@ import org.jetbrains.rpc.CommandProcessor;
 import org.jetbrains.rpc.CommandProcessorKt;
 import org.jetbrains.rpc.RequestCallback;
 
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Map;
 
 public abstract class DlvCommandProcessor extends CommandProcessor<JsonReaderEx, DlvResponse, DlvResponse> {
+  private static final String RPC_SERVER_PREFIX = "RPCServer.";
+  private static final Gson GSON = new GsonBuilder().create();
+  private static final Map<String, Type> RESULT_TYPES = collectResultTypes();
+
   @Nullable
   @Override
   public DlvResponse readIfHasSequence(@NotNull JsonReaderEx message) {
@@ -81,23 +88,30 @@ public abstract class DlvCommandProcessor extends CommandProcessor<JsonReaderEx,
     JsonReaderEx result = successResponse.result();
     assert result != null : "success result should be not null";
     JsonReader reader = result.asGson();
-    Object o = new GsonBuilder().create().fromJson(reader, getResultType(method.replaceFirst("RPCServer\\.", "")));
+    Object o = GSON.fromJson(reader, getResultType(StringUtil.trimStart(method, RPC_SERVER_PREFIX)));
     //noinspection unchecked
     return (RESULT)o;
   }
 
   @NotNull
   private static Type getResultType(@NotNull String method) {
-    for (Class<?> c : DlvRequest.class.getDeclaredClasses()) {
-      if (method.equals(c.getSimpleName())) {
-        Type s = c.getGenericSuperclass();
-        assert s instanceof ParameterizedType : c.getCanonicalName() + " should have a generic parameter for correct callback processing";
-        Type[] arguments = ((ParameterizedType)s).getActualTypeArguments();
-        assert arguments.length == 1 : c.getCanonicalName() + " should have only one generic argument for correct callback processing";
-        return arguments[0];
-      }
-    }
+    Type type = RESULT_TYPES.get(method);
+    if (type != null) return type;
     CommandProcessorKt.getLOG().error("Unknown response " + method + ", please register an appropriate request into com.goide.dlv.protocol.DlvRequest");
     return Object.class;
   }
+
+  @NotNull
+  private static Map<String, Type> collectResultTypes() {
+    Map<String, Type> result = ContainerUtil.newHashMap();
+    for (Class<?> c : DlvRequest.class.getDeclaredClasses()) {
+      if (Modifier.isAbstract(c.getModifiers())) continue;
+      Type s = c.getGenericSuperclass();
+      assert s instanceof ParameterizedType : c.getCanonicalName() + " should have a generic parameter for correct callback processing";
+      Type[] arguments = ((ParameterizedType)s).getActualTypeArguments();
+      assert arguments.length == 1 : c.getCanonicalName() + " should have only one generic argument for correct callback processing";
+      result.put(c.getSimpleName(), arguments[0]);
+    }
+    return result;
+  }
 }
\ No newline at end of file
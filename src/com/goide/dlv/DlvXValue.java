@@ -39,7 +39,9 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.SyntaxTraverser;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.Consumer;
+import com.intellij.util.SystemProperties;
 import com.intellij.util.ThreeState;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.xdebugger.XDebugSession;
@@ -60,55 +62,162 @@ import java.util.List;
 import java.util.regex.Pattern;
 
 class DlvXValue extends XNamedValue {
+  /**
+   * Number of children added to the tree at once, the rest is available through the "load more" node.
+   */
+  private static final int CHILDREN_PAGE_SIZE = XCompositeNode.MAX_CHILDREN_TO_SHOW;
+  /**
+   * Nesting level after which children that delve didn't send are no longer requested on expansion.
+   */
+  private static final int MAX_LOAD_DEPTH = Math.max(1, SystemProperties.getIntProperty("go.dlv.max.load.depth", 16));
+
   @NotNull
   private final DlvApi.Variable myVariable;
   private final Icon myIcon;
   private final DlvDebugProcess myProcess;
   private final DlvCommandProcessor myProcessor;
   private final int myFrameId;
+  @Nullable
+  private final String myExpression;
+  private final int myDepth;
+  @Nullable
+  private DlvApi.Variable[] myChildren;
+  private int myChildrenOffset;
 
   public DlvXValue(@NotNull DlvDebugProcess process,
                    @NotNull DlvApi.Variable variable,
                    @NotNull DlvCommandProcessor processor, 
                    int frameId, 
                    @Nullable Icon icon) {
+    this(process, variable, processor, frameId, icon, variable.name, 0);
+  }
+
+  private DlvXValue(@NotNull DlvDebugProcess process,
+                    @NotNull DlvApi.Variable variable,
+                    @NotNull DlvCommandProcessor processor,
+                    int frameId,
+                    @Nullable Icon icon,
+                    @Nullable String expression,
+                    int depth) {
     super(variable.name);
     myProcess = process;
     myVariable = variable;
     myIcon = icon;
     myProcessor = processor;
     myFrameId = frameId;
+    myExpression = StringUtil.nullize(expression);
+    myDepth = depth;
   }
 
   @Override
   public void computePresentation(@NotNull XValueNode node, @NotNull XValuePlace place) {
     XValuePresentation presentation = getPresentation();
-    boolean hasChildren = myVariable.children.length > 0;
+    boolean hasChildren = myVariable.children.length > 0 || canLoadChildren();
     node.setPresentation(myIcon, presentation, hasChildren);
   }
 
   @Override
-  public void computeChildren(@NotNull XCompositeNode node) {
-    DlvApi.Variable[] children = myVariable.children;
-    if (children.length == 0) {
+  public void computeChildren(@NotNull final XCompositeNode node) {
+    if (myChildren == null) {
+      if (myVariable.children.length == 0 && canLoadChildren()) {
+        assert myExpression != null;
+        loadChildren(node, myExpression);
+        return;
+      }
+      myChildren = myVariable.children;
+    }
+    if (myChildrenOffset >= myChildren.length && isTruncatedSequence()) {
+      assert myExpression != null;
+      loadChildren(node, myExpression + "[" + myChildren.length + ":" + myVariable.len + "]");
+      return;
+    }
+    addNextChildren(node);
+  }
+
+  /**
+   * Requests children which weren't sent by delve because of its recursion or array length limits.
+   * The result is appended to the already known children, so {@code expression} for sequences should be a reslice
+   * starting right after the last loaded element.
+   */
+  private void loadChildren(@NotNull final XCompositeNode node, @NotNull String expression) {
+    myProcessor.send(new DlvRequest.EvalSymbol(expression, myFrameId))
+      .done(new Consumer<DlvApi.Variable>() {
+        @Override
+        public void consume(@NotNull DlvApi.Variable variable) {
+          DlvApi.Variable[] loaded = variable.children;
+          myChildren = myChildren == null ? loaded : ArrayUtil.mergeArrays(myChildren, loaded);
+          if (loaded.length == 0 && myChildrenOffset > 0) {
+            node.addChildren(XValueChildrenList.EMPTY, true);
+            return;
+          }
+          addNextChildren(node);
+        }
+      })
+      .rejected(new Consumer<Throwable>() {
+        @Override
+        public void consume(@NotNull Throwable throwable) {
+          node.setErrorMessage(throwable.getMessage());
+        }
+      });
+  }
+
+  private void addNextChildren(@NotNull XCompositeNode node) {
+    DlvApi.Variable[] children = myChildren;
+    if (children == null || children.length == 0) {
       super.computeChildren(node);
+      return;
+    }
+    int end = Math.min(children.length, myChildrenOffset + CHILDREN_PAGE_SIZE);
+    XValueChildrenList list = new XValueChildrenList(end - myChildrenOffset);
+    for (int i = myChildrenOffset; i < end; i++) {
+      DlvApi.Variable child = children[i];
+      String childExpression = getChildExpression(child, i);
+      String name = myVariable.isSlice() || myVariable.isArray() ? "[" + i + "]" : child.name;
+      list.add(name, new DlvXValue(myProcess, child, myProcessor, myFrameId, AllIcons.Nodes.Field, childExpression, myDepth + 1));
+    }
+    myChildrenOffset = end;
+
+    long remaining = isTruncatedSequence() ? myVariable.len - end : children.length - end;
+    if (remaining > 0) {
+      node.addChildren(list, false);
+      node.tooManyChildren((int)Math.min(remaining, Integer.MAX_VALUE));
     }
     else {
-      XValueChildrenList list = new XValueChildrenList();
-      for (DlvApi.Variable child : children) {
-        list.add(child.name, new DlvXValue(myProcess, child, myProcessor, myFrameId, AllIcons.Nodes.Field));
-      }
       node.addChildren(list, true);
     }
   }
 
+  @Nullable
+  private String getChildExpression(@NotNull DlvApi.Variable child, int index) {
+    if (myExpression == null) return null;
+    if (myVariable.isSlice() || myVariable.isArray()) return myExpression + "[" + index + "]";
+    if (myVariable.isStructure()) return StringUtil.isEmpty(child.name) ? null : myExpression + "." + child.name;
+    if (myVariable.isPtr()) return "(*" + myExpression + ")";
+    return null;
+  }
+
+  private boolean canLoadChildren() {
+    if (myExpression == null || myDepth >= MAX_LOAD_DEPTH || myVariable.unreadable != null) return false;
+    if (myVariable.isStructure() || myVariable.isSlice() || myVariable.isArray()) {
+      return myVariable.children.length < myVariable.len;
+    }
+    return myVariable.isPtr() && myVariable.children.length == 0;
+  }
+
+  private boolean isTruncatedSequence() {
+    return myExpression != null &&
+           (myVariable.isSlice() || myVariable.isArray()) &&
+           myChildren != null &&
+           myChildren.length < myVariable.len;
+  }
+
   @Nullable
   @Override
   public XValueModifier getModifier() {
     return new XValueModifier() {
       @Override
       public void setValue(@NotNull String newValue, @NotNull final XModificationCallback callback) {
-        myProcessor.send(new DlvRequest.SetSymbol(myVariable.name, newValue, myFrameId))
+        myProcessor.send(new DlvRequest.SetSymbol(myExpression != null ? myExpression : myVariable.name, newValue, myFrameId))
           .processed(new Consumer<Object>() {
             @Override
             public void consume(@Nullable Object o) {
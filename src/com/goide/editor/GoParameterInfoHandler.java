@@ -205,7 +205,7 @@ public class GoParameterInfoHandler implements ParameterInfoHandlerWithTabAction
       List<GoParamDefinition> paramDefinitionList = paramDeclaration.getParamDefinitionList();
       for (GoParamDefinition paramDefinition : paramDefinitionList) {
         String separator = isVariadic ? " ..." : " ";
-        paramPresentations.add(paramDefinition.getText() + separator + typePresentationFunction.fun(paramDeclaration.getType()));
+        paramPresentations.add(paramDefinition.getName() + separator + typePresentationFunction.fun(paramDeclaration.getType()));
       }
       if (paramDefinitionList.isEmpty()) {
         String separator = isVariadic ? "..." : "";
@@ -16,21 +16,34 @@
 
 package com.goide.go;
 
+import com.goide.psi.GoFile;
 import com.goide.psi.GoNamedElement;
+import com.goide.stubs.index.GoNamesTable;
 import com.intellij.navigation.ChooseByNameContributorEx;
 import com.intellij.navigation.GotoClassContributor;
 import com.intellij.navigation.NavigationItem;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Comparing;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.stubs.StubIndexKey;
 import com.intellij.util.ArrayUtil;
+import com.intellij.util.CommonProcessors;
 import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.indexing.FindSymbolParameters;
 import com.intellij.util.indexing.IdFilter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
 public class GoGotoContributorBase<T extends GoNamedElement> implements GotoClassContributor, ChooseByNameContributorEx {
   protected final StubIndexKey<String, T>[] myIndexKeys;
   @NotNull private final Class<T> myClazz;
@@ -54,21 +67,53 @@ public class GoGotoContributorBase<T extends GoNamedElement> implements GotoClas
 
   @Override
   public void processNames(@NotNull Processor<String> processor, @NotNull GlobalSearchScope scope, IdFilter filter) {
-    for (StubIndexKey<String, T> key : myIndexKeys) {
-      StubIndex.getInstance().processAllKeys(key, processor, scope, filter);
+    Project project = scope.getProject();
+    if (project == null) {
+      for (StubIndexKey<String, T> key : myIndexKeys) {
+        StubIndex.getInstance().processAllKeys(key, processor, scope, filter);
+      }
+      return;
     }
+    GoNamesTable.getInstance(project).processNames(myIndexKeys, scope, filter, processor);
   }
 
+  /**
+   * Elements of a name are passed in the order of {@link #getRank}, the platform keeps it for elements equally close to the current file.
+   */
   @Override
   public void processElementsWithName(@NotNull String s,
                                       @NotNull Processor<NavigationItem> processor,
                                       @NotNull FindSymbolParameters parameters) {
+    Project project = parameters.getProject();
+    CommonProcessors.CollectProcessor<T> collector = new CommonProcessors.CollectProcessor<T>();
     for (StubIndexKey<String, T> key : myIndexKeys) {
-      StubIndex.getInstance().processElements(key, s, parameters.getProject(), parameters.getSearchScope(), parameters.getIdFilter(), 
-                                              myClazz, processor);
+      StubIndex.getInstance().processElements(key, s, project, parameters.getSearchScope(), parameters.getIdFilter(), myClazz, collector);
+    }
+    List<T> elements = ContainerUtil.newArrayList(collector.getResults());
+    if (elements.size() > 1) {
+      final ProjectFileIndex fileIndex = ProjectRootManager.getInstance(project).getFileIndex();
+      Collections.sort(elements, new Comparator<T>() {
+        @Override
+        public int compare(@NotNull T e1, @NotNull T e2) {
+          int result = Comparing.compare(getRank(e1, fileIndex), getRank(e2, fileIndex));
+          return result != 0 ? result : Comparing.compare(e1.getContainingFile().getImportPath(), e2.getContainingFile().getImportPath());
+        }
+      });
     }
+    ContainerUtil.process(elements, processor);
   }
-  
+
+  /**
+   * Project elements go first, then library elements by the depth of their import paths,
+   * so that {@code http.Get} from the SDK goes before the same name in vendored copies of {@code net/http}.
+   */
+  private static int getRank(@NotNull GoNamedElement element, @NotNull ProjectFileIndex fileIndex) {
+    GoFile file = element.getContainingFile();
+    VirtualFile virtualFile = file.getVirtualFile();
+    if (virtualFile != null && fileIndex.isInContent(virtualFile)) return 0;
+    return 1 + StringUtil.countChars(StringUtil.notNullize(file.getImportPath()), '/');
+  }
+
   @Nullable
   @Override
   public String getQualifiedName(NavigationItem item) {
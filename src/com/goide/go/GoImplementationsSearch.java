@@ -0,0 +1,312 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.go;
+
+import com.goide.psi.*;
+import com.goide.psi.impl.GoPsiImplUtil;
+import com.goide.stubs.GoMethodDeclarationStub;
+import com.goide.stubs.index.GoEmbeddedInterfaceIndex;
+import com.goide.stubs.index.GoMethodDeclarationFingerprintIndex;
+import com.goide.stubs.index.GoMethodFingerprintIndex;
+import com.goide.stubs.types.GoMethodDeclarationStubElementType;
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.DefinitionsScopedSearch;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import gnu.trove.TObjectIntHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Finds types implementing an interface without walking every type in scope: each interface method is looked up in
+ * {@link GoMethodDeclarationFingerprintIndex} by {@code name/arity}, receiver types are intersected across methods and
+ * only the survivors are resolved and checked signature by signature. Super interfaces are found the other way round
+ * via {@link GoMethodFingerprintIndex}, interfaces embedding them via {@link GoEmbeddedInterfaceIndex}.
+ * <p/>
+ * Implementations are types {@code T} such that {@code T} or {@code *T} implements the interface, super interfaces are
+ * the ones implemented by the value type {@code T}, i.e. by value receiver methods only. Methods promoted from embedded
+ * struct fields are not taken into account.
+ */
+public class GoImplementationsSearch extends QueryExecutorBase<PsiElement, DefinitionsScopedSearch.SearchParameters> {
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+  private static final Pattern QUALIFIER = Pattern.compile("[\\p{L}_][\\p{L}\\p{N}_]*\\.");
+
+  public GoImplementationsSearch() {
+    super(true);
+  }
+
+  @Override
+  public void processQuery(@NotNull DefinitionsScopedSearch.SearchParameters parameters,
+                           @NotNull final Processor<PsiElement> consumer) {
+    PsiElement element = parameters.getElement();
+    SearchScope searchScope = parameters.getScope();
+    GlobalSearchScope scope = searchScope instanceof GlobalSearchScope
+                              ? (GlobalSearchScope)searchScope
+                              : GlobalSearchScope.allScope(element.getProject());
+    if (element instanceof GoTypeSpec) {
+      processImplementations((GoTypeSpec)element, scope, new Processor<GoTypeSpec>() {
+        @Override
+        public boolean process(GoTypeSpec type) {
+          return consumer.process(type);
+        }
+      });
+    }
+    else if (element instanceof GoMethodSpec) {
+      final String name = ((GoMethodSpec)element).getName();
+      GoTypeSpec interfaceSpec = PsiTreeUtil.getParentOfType(element, GoTypeSpec.class);
+      if (name == null || interfaceSpec == null) return;
+      processImplementations(interfaceSpec, scope, new Processor<GoTypeSpec>() {
+        @Override
+        public boolean process(GoTypeSpec type) {
+          for (GoMethodDeclaration method : type.getMethods()) {
+            if (name.equals(method.getName()) && !consumer.process(method)) return false;
+          }
+          return true;
+        }
+      });
+    }
+  }
+
+  public static boolean processImplementations(@NotNull GoTypeSpec interfaceSpec,
+                                               @NotNull GlobalSearchScope scope,
+                                               @NotNull Processor<GoTypeSpec> processor) {
+    GoInterfaceType interfaceType = getInterfaceType(interfaceSpec);
+    if (interfaceType == null) return true;
+    List<GoMethodSpec> methods = getAllMethods(interfaceType);
+    if (methods.isEmpty()) return true;
+
+    Project project = interfaceSpec.getProject();
+    Map<String, GoMethodDeclaration> candidates = null;
+    for (GoMethodSpec method : methods) {
+      String fingerprint = getFingerprint(method.getName(), method.getSignature());
+      if (fingerprint == null) return true;
+      Map<String, GoMethodDeclaration> receivers = ContainerUtil.newHashMap();
+      for (GoMethodDeclaration declaration : GoMethodDeclarationFingerprintIndex.find(fingerprint, project, scope)) {
+        String receiverKey = getReceiverKey(declaration);
+        if (receiverKey != null && (candidates == null || candidates.containsKey(receiverKey))) {
+          receivers.put(receiverKey, declaration);
+        }
+      }
+      candidates = receivers;
+      if (candidates.isEmpty()) return true;
+    }
+
+    Set<GoTypeSpec> visited = ContainerUtil.newHashSet();
+    for (GoMethodDeclaration declaration : candidates.values()) {
+      GoTypeSpec type = getReceiverTypeSpec(declaration);
+      if (type == null || !visited.add(type) || getInterfaceType(type) != null) continue;
+      if (hasMethods(type, methods, true) && !processor.process(type)) return false;
+    }
+    return true;
+  }
+
+  public static boolean processSuperInterfaces(@NotNull GoTypeSpec type,
+                                               @NotNull GlobalSearchScope scope,
+                                               @NotNull Processor<GoTypeSpec> processor) {
+    if (getInterfaceType(type) != null) return true;
+    Project project = type.getProject();
+    TObjectIntHashMap<GoInterfaceType> hits = new TObjectIntHashMap<GoInterfaceType>();
+    for (GoMethodDeclaration method : type.getMethods()) {
+      String fingerprint = getFingerprint(method.getName(), method.getSignature());
+      if (fingerprint == null || isPointerReceiver(method)) continue;
+      for (GoMethodSpec spec : GoMethodFingerprintIndex.find(fingerprint, project, scope)) {
+        GoInterfaceType interfaceType = PsiTreeUtil.getStubOrPsiParentOfType(spec, GoInterfaceType.class);
+        if (interfaceType != null) hits.adjustOrPutValue(interfaceType, 1, 1);
+      }
+    }
+
+    Set<GoInterfaceType> visited = ContainerUtil.newHashSet();
+    Deque<GoTypeSpec> implemented = new ArrayDeque<GoTypeSpec>();
+    for (Object o : hits.keys()) {
+      GoInterfaceType interfaceType = (GoInterfaceType)o;
+      // every own method has to be hit, embedded ones are checked against the full method set below
+      if (hits.get(interfaceType) < GoPsiImplUtil.getMethods(interfaceType).size()) continue;
+      if (!processIfImplemented(type, interfaceType, visited, implemented, processor)) return false;
+    }
+    // an interface embedding an implemented one may be implemented too, even if it declares no methods of its own
+    while (!implemented.isEmpty()) {
+      GoTypeSpec interfaceSpec = implemented.poll();
+      String name = interfaceSpec.getName();
+      if (name == null) continue;
+      for (GoMethodSpec spec : GoEmbeddedInterfaceIndex.find(name, project, scope)) {
+        GoTypeReferenceExpression reference = spec.getTypeReferenceExpression();
+        if (reference == null || reference.resolve() != interfaceSpec) continue;
+        GoInterfaceType interfaceType = PsiTreeUtil.getStubOrPsiParentOfType(spec, GoInterfaceType.class);
+        if (interfaceType != null && !processIfImplemented(type, interfaceType, visited, implemented, processor)) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether the value type {@code type} implements the interface, pointer receiver methods are not in its method set.
+   */
+  public static boolean implementsInterface(@NotNull GoTypeSpec type, @NotNull GoTypeSpec interfaceSpec) {
+    GoInterfaceType interfaceType = getInterfaceType(interfaceSpec);
+    if (interfaceType == null || getInterfaceType(type) != null) return false;
+    List<GoMethodSpec> methods = getAllMethods(interfaceType);
+    return !methods.isEmpty() && hasMethods(type, methods, false);
+  }
+
+  @Nullable
+  public static GoInterfaceType getInterfaceType(@NotNull GoTypeSpec spec) {
+    GoType type = spec.getSpecType().getType();
+    return type instanceof GoInterfaceType ? (GoInterfaceType)type : null;
+  }
+
+  @NotNull
+  private static List<GoMethodSpec> getAllMethods(@NotNull GoInterfaceType interfaceType) {
+    List<GoMethodSpec> result = ContainerUtil.newArrayList();
+    collectMethods(interfaceType, result, ContainerUtil.<GoInterfaceType>newHashSet());
+    return result;
+  }
+
+  private static void collectMethods(@NotNull GoInterfaceType interfaceType,
+                                     @NotNull List<GoMethodSpec> result,
+                                     @NotNull Set<GoInterfaceType> visited) {
+    if (!visited.add(interfaceType)) return;
+    result.addAll(GoPsiImplUtil.getMethods(interfaceType));
+    for (GoTypeReferenceExpression reference : GoPsiImplUtil.getBaseTypesReferences(interfaceType)) {
+      PsiElement resolve = reference.resolve();
+      GoInterfaceType base = resolve instanceof GoTypeSpec ? getInterfaceType((GoTypeSpec)resolve) : null;
+      if (base != null) collectMethods(base, result, visited);
+    }
+  }
+
+  private static boolean processIfImplemented(@NotNull GoTypeSpec type,
+                                              @NotNull GoInterfaceType interfaceType,
+                                              @NotNull Set<GoInterfaceType> visited,
+                                              @NotNull Deque<GoTypeSpec> implemented,
+                                              @NotNull Processor<GoTypeSpec> processor) {
+    if (!visited.add(interfaceType)) return true;
+    GoTypeSpec interfaceSpec = PsiTreeUtil.getStubOrPsiParentOfType(interfaceType, GoTypeSpec.class);
+    if (interfaceSpec == null || getInterfaceType(interfaceSpec) != interfaceType) return true;
+    List<GoMethodSpec> methods = getAllMethods(interfaceType);
+    if (methods.isEmpty() || !hasMethods(type, methods, false)) return true;
+    implemented.add(interfaceSpec);
+    return processor.process(interfaceSpec);
+  }
+
+  /**
+   * @param pointer whether methods with pointer receivers belong to the method set, i.e. whether {@code *type} is checked
+   */
+  private static boolean hasMethods(@NotNull GoTypeSpec type, @NotNull List<GoMethodSpec> methods, boolean pointer) {
+    Map<String, GoMethodDeclaration> declarations = ContainerUtil.newHashMap();
+    for (GoMethodDeclaration declaration : type.getMethods()) {
+      String name = declaration.getName();
+      if (name != null && (pointer || !isPointerReceiver(declaration))) declarations.put(name, declaration);
+    }
+    for (GoMethodSpec method : methods) {
+      GoMethodDeclaration declaration = declarations.get(method.getName());
+      if (declaration == null || !getSignatureTypes(method.getSignature()).equals(getSignatureTypes(declaration.getSignature()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isPointerReceiver(@NotNull GoMethodDeclaration declaration) {
+    return declaration.getReceiver().getType() instanceof GoPointerType;
+  }
+
+  @Nullable
+  private static String getFingerprint(@Nullable String name, @Nullable GoSignature signature) {
+    return name != null && signature != null ? name + "/" + GoPsiImplUtil.getArity(signature) : null;
+  }
+
+  @Nullable
+  private static String getReceiverKey(@NotNull GoMethodDeclaration declaration) {
+    GoMethodDeclarationStub stub = declaration.getStub();
+    String typeName = stub != null ? stub.getTypeName() : GoMethodDeclarationStubElementType.calcTypeText(declaration);
+    PsiFile file = declaration.getContainingFile();
+    VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+    VirtualFile directory = virtualFile != null ? virtualFile.getParent() : null;
+    if (typeName == null || directory == null || !(file instanceof GoFile)) return null;
+    return directory.getPath() + ":" + ((GoFile)file).getPackageName() + "." + typeName;
+  }
+
+  @Nullable
+  private static GoTypeSpec getReceiverTypeSpec(@NotNull GoMethodDeclaration declaration) {
+    GoTypeReferenceExpression reference = GoPsiImplUtil.getTypeReference(declaration.getReceiver().getType());
+    PsiElement resolve = reference != null ? reference.resolve() : null;
+    return resolve instanceof GoTypeSpec ? (GoTypeSpec)resolve : null;
+  }
+
+  /**
+   * Parameter and result types with whitespaces and package qualifiers dropped, good enough to tell signatures
+   * with the same name and arity apart.
+   */
+  @NotNull
+  private static List<String> getSignatureTypes(@Nullable GoSignature signature) {
+    List<String> result = ContainerUtil.newArrayList();
+    if (signature == null) return result;
+    addParameterTypes(signature.getParameters(), result);
+    result.add("->");
+    GoResult signatureResult = signature.getResult();
+    if (signatureResult != null) {
+      GoParameters parameters = signatureResult.getParameters();
+      if (parameters != null) {
+        addParameterTypes(parameters, result);
+      }
+      else {
+        addTypes(signatureResult.getType(), result);
+      }
+    }
+    return result;
+  }
+
+  private static void addParameterTypes(@NotNull GoParameters parameters, @NotNull List<String> result) {
+    for (GoParameterDeclaration declaration : parameters.getParameterDeclarationList()) {
+      String text = (declaration.isVariadic() ? "..." : "") + normalize(declaration.getType());
+      for (int i = 0; i < Math.max(1, declaration.getParamDefinitionList().size()); i++) {
+        result.add(text);
+      }
+    }
+    addTypes(parameters.getType(), result);
+  }
+
+  private static void addTypes(@Nullable GoType type, @NotNull List<String> result) {
+    if (type instanceof GoTypeList) {
+      for (GoType t : ((GoTypeList)type).getTypeList()) {
+        result.add(normalize(t));
+      }
+    }
+    else if (type != null) {
+      result.add(normalize(type));
+    }
+  }
+
+  @NotNull
+  private static String normalize(@Nullable GoType type) {
+    if (type == null) return "";
+    return QUALIFIER.matcher(WHITESPACES.matcher(type.getText()).replaceAll("")).replaceAll("");
+  }
+}
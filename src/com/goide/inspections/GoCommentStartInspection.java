@@ -22,6 +22,7 @@ import com.goide.psi.GoCompositeElement;
 import com.goide.psi.GoNamedElement;
 import com.goide.psi.GoPackageClause;
 import com.goide.psi.GoVisitor;
+import com.goide.psi.impl.GoDocumentationUtil;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
@@ -46,7 +47,7 @@ public class GoCommentStartInspection extends GoInspectionBase {
         if (GoConstants.MAIN.equals(packageName)) {
           return;
         }
-        List<PsiComment> comments = GoDocumentationProvider.getCommentsForElement(o);
+        List<PsiComment> comments = GoDocumentationUtil.getCommentsForElement(o);
         String commentText = GoDocumentationProvider.getCommentText(comments, false);
         if (!comments.isEmpty() && !commentText.isEmpty() && !commentText.startsWith("Package " + packageName)) {
           registerProblem(comments, "Package comment should be of the form 'Package " + packageName + " ...'", holder);
@@ -58,7 +59,7 @@ public class GoCommentStartInspection extends GoInspectionBase {
         if (!(o instanceof GoNamedElement) || !((GoNamedElement)o).isPublic()) {
           return;
         }
-        List<PsiComment> comments = GoDocumentationProvider.getCommentsForElement(o);
+        List<PsiComment> comments = GoDocumentationUtil.getCommentsForElement(o);
         String commentText = GoDocumentationProvider.getCommentText(comments, false);
         String elementName = ((GoNamedElement)o).getName();
         if (elementName != null && !comments.isEmpty() && !commentText.isEmpty()) {
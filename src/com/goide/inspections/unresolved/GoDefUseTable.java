@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.inspections.unresolved;
+
+import com.goide.psi.*;
+import com.goide.psi.impl.GoVarProcessor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * Local variables and constants of a top-level function which are actually used, collected in a single pass over its body
+ * including nested function literals. Cached until the file changes.
+ */
+public class GoDefUseTable {
+  @NotNull private final Set<GoNamedElement> myUsed;
+
+  private GoDefUseTable(@NotNull Set<GoNamedElement> used) {
+    myUsed = used;
+  }
+
+  /**
+   * @return table for the function containing {@code definition} or null if it's declared outside of functions
+   */
+  @Nullable
+  public static GoDefUseTable getInstance(@NotNull GoNamedElement definition) {
+    final GoCompositeElement owner = getOwner(definition);
+    if (owner == null) return null;
+    return CachedValuesManager.getCachedValue(owner, new CachedValueProvider<GoDefUseTable>() {
+      @Nullable
+      @Override
+      public Result<GoDefUseTable> compute() {
+        return Result.create(build(owner), owner.getContainingFile());
+      }
+    });
+  }
+
+  public boolean isUsed(@NotNull GoNamedElement definition) {
+    return myUsed.contains(definition);
+  }
+
+  @Nullable
+  private static GoCompositeElement getOwner(@NotNull GoNamedElement definition) {
+    GoFunctionOrMethodDeclaration declaration = PsiTreeUtil.getParentOfType(definition, GoFunctionOrMethodDeclaration.class);
+    if (declaration != null) return declaration;
+    return PsiTreeUtil.getTopmostParentOfType(definition, GoFunctionLit.class);
+  }
+
+  @NotNull
+  private static GoDefUseTable build(@NotNull final GoCompositeElement owner) {
+    final Set<GoNamedElement> used = ContainerUtil.newHashSet();
+    owner.accept(new PsiRecursiveElementWalkingVisitor() {
+      @Override
+      public void visitElement(PsiElement element) {
+        if (element instanceof GoReferenceExpressionBase) {
+          ProgressManager.checkCanceled();
+          PsiReference reference = element.getReference();
+          PsiElement resolve = reference != null ? reference.resolve() : null;
+          if ((resolve instanceof GoVarDefinition || resolve instanceof GoConstDefinition) &&
+              PsiTreeUtil.isAncestor(owner, resolve, true) && isUsage(element, (GoNamedElement)resolve)) {
+            used.add((GoNamedElement)resolve);
+          }
+        }
+        super.visitElement(element);
+      }
+    });
+    return new GoDefUseTable(used);
+  }
+
+  /**
+   * A plain assignment to a variable isn't a usage unless it happens in a function literal declared in the scope of the variable,
+   * the left side of a short variable declaration isn't a usage either.
+   */
+  static boolean isUsage(@NotNull PsiElement element, @NotNull GoNamedElement definition) {
+    if (definition instanceof GoConstDefinition) return true;
+    PsiElement parent = element.getParent();
+    if (parent instanceof GoLeftHandExprList) {
+      PsiElement grandParent = parent.getParent();
+      if (grandParent instanceof GoAssignmentStatement && ((GoAssignmentStatement)grandParent).getAssignOp().getAssign() != null) {
+        GoFunctionLit fn = PsiTreeUtil.getParentOfType(element, GoFunctionLit.class);
+        if (fn == null || !PsiTreeUtil.isAncestor(GoVarProcessor.getScope(definition), fn, true)) return false;
+      }
+    }
+    if (parent instanceof GoShortVarDeclaration) {
+      int op = ((GoShortVarDeclaration)parent).getVarAssign().getStartOffsetInParent();
+      if (element.getStartOffsetInParent() < op) return false;
+    }
+    return true;
+  }
+}
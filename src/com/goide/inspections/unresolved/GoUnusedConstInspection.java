@@ -24,7 +24,6 @@ import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.progress.ProgressManager;
-import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.search.searches.ReferencesSearch;
 import com.intellij.util.Query;
@@ -38,18 +37,21 @@ public class GoUnusedConstInspection extends GoInspectionBase {
       @Override
       public void visitConstDefinition(@NotNull GoConstDefinition o) {
         if (o.isBlank()) return;
-        Query<PsiReference> query = ReferencesSearch.search(o, o.getUseScope());
-        for (PsiReference ref : query) {
-          ProgressManager.checkCanceled();
-          PsiElement element = ref.getElement();
-          if (element != null) {
-            return;
-          }
-        }
+        GoDefUseTable table = GoDefUseTable.getInstance(o);
+        if (table != null ? table.isUsed(o) : hasUsages(o)) return;
         String constName = o.getName();
         holder.registerProblem(o, "Unused constant " + "'" + constName + "'", ProblemHighlightType.LIKE_UNUSED_SYMBOL,
                                new GoDeleteConstDefinitionQuickFix(constName));
       }
     };
   }
+
+  private static boolean hasUsages(@NotNull GoConstDefinition o) {
+    Query<PsiReference> query = ReferencesSearch.search(o, o.getUseScope());
+    for (PsiReference ref : query) {
+      ProgressManager.checkCanceled();
+      if (ref.getElement() != null) return true;
+    }
+    return false;
+  }
 }
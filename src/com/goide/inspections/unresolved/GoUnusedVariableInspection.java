@@ -19,7 +19,6 @@ package com.goide.inspections.unresolved;
 import com.goide.inspections.GoInspectionBase;
 import com.goide.quickfix.GoRenameToBlankQuickFix;
 import com.goide.psi.*;
-import com.goide.psi.impl.GoVarProcessor;
 import com.goide.quickfix.GoDeleteVarDefinitionQuickFix;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
@@ -44,37 +43,19 @@ public class GoUnusedVariableInspection extends GoInspectionBase {
         GoCompositeElement varSpec = PsiTreeUtil.getParentOfType(o, GoVarSpec.class, GoTypeSwitchGuard.class);
         GoVarDeclaration decl = PsiTreeUtil.getParentOfType(o, GoVarDeclaration.class);
         if (varSpec != null || decl != null) {
+          boolean globalVar = decl != null && decl.getParent() instanceof GoFile;
+          if (globalVar != checkGlobal()) return;
           PsiReference reference = o.getReference();
           PsiElement resolve = reference != null ? reference.resolve() : null;
           if (resolve != null) return;
-          Query<PsiReference> query = ReferencesSearch.search(o, o.getUseScope());
-          for (PsiReference ref : query) {
-            ProgressManager.checkCanceled();
-            PsiElement element = ref.getElement();
-            if (element == null) continue;
-            PsiElement parent = element.getParent();
-            if (parent instanceof GoLeftHandExprList) {
-              PsiElement grandParent = parent.getParent();
-              if (grandParent instanceof GoAssignmentStatement && ((GoAssignmentStatement)grandParent).getAssignOp().getAssign() != null) {
-                GoFunctionLit fn = PsiTreeUtil.getParentOfType(element, GoFunctionLit.class);
-                if (fn == null || !PsiTreeUtil.isAncestor(GoVarProcessor.getScope(o), fn, true)) continue;
-              }
-            }
-            if (parent instanceof GoShortVarDeclaration) {
-              int op = ((GoShortVarDeclaration)parent).getVarAssign().getStartOffsetInParent();
-              if (element.getStartOffsetInParent() < op) continue;
-            }
-            return;
-          }
-          boolean globalVar = decl != null && decl.getParent() instanceof GoFile;
+          GoDefUseTable table = globalVar ? null : GoDefUseTable.getInstance(o);
+          if (table != null ? table.isUsed(o) : hasUsages(o)) return;
           String varName = o.getName();
           if (globalVar) {
-            if (!checkGlobal()) return;
             holder.registerProblem(o, "Unused variable " + "'" + varName + "'", ProblemHighlightType.LIKE_UNUSED_SYMBOL,
                                    new GoDeleteVarDefinitionQuickFix(varName));
           }
           else {
-            if (checkGlobal()) return;
             holder.registerProblem(o, "Unused variable " + "'" + varName + "'", ProblemHighlightType.GENERIC_ERROR_OR_WARNING,
                                    new GoRenameToBlankQuickFix(o), new GoDeleteVarDefinitionQuickFix(varName));
           }
@@ -83,6 +64,16 @@ public class GoUnusedVariableInspection extends GoInspectionBase {
     };
   }
 
+  private static boolean hasUsages(@NotNull GoVarDefinition o) {
+    Query<PsiReference> query = ReferencesSearch.search(o, o.getUseScope());
+    for (PsiReference ref : query) {
+      ProgressManager.checkCanceled();
+      PsiElement element = ref.getElement();
+      if (element != null && GoDefUseTable.isUsage(element, o)) return true;
+    }
+    return false;
+  }
+
   protected boolean checkGlobal() {
     return false;
   }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.marker;
+
+import com.goide.go.GoImplementationsSearch;
+import com.goide.psi.GoTypeSpec;
+import com.goide.util.GoUtil;
+import com.intellij.codeHighlighting.Pass;
+import com.intellij.codeInsight.daemon.GutterIconNavigationHandler;
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
+import com.intellij.codeInsight.daemon.LineMarkerProvider;
+import com.intellij.codeInsight.daemon.impl.PsiElementListNavigator;
+import com.intellij.icons.AllIcons;
+import com.intellij.ide.util.DefaultPsiElementCellRenderer;
+import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.psi.NavigatablePsiElement;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.FunctionUtil;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.event.MouseEvent;
+import java.util.Collection;
+import java.util.List;
+
+public class GoImplementationMarkerProvider implements LineMarkerProvider {
+  @Override
+  public LineMarkerInfo getLineMarkerInfo(@NotNull PsiElement element) {
+    return null; //do nothing
+  }
+
+  @Override
+  public void collectSlowLineMarkers(@NotNull List<PsiElement> elements, @NotNull Collection<LineMarkerInfo> result) {
+    for (PsiElement element : elements) {
+      PsiElement parent = element.getParent();
+      if (!(parent instanceof GoTypeSpec) || element != ((GoTypeSpec)parent).getIdentifier()) continue;
+      GoTypeSpec type = (GoTypeSpec)parent;
+      boolean isInterface = GoImplementationsSearch.getInterfaceType(type) != null;
+      CommonProcessors.FindFirstProcessor<GoTypeSpec> processor = new CommonProcessors.FindFirstProcessor<GoTypeSpec>();
+      process(type, isInterface, processor);
+      if (processor.isFound()) {
+        result.add(new ImplementationMarkerInfo(element, isInterface));
+      }
+    }
+  }
+
+  private static boolean process(@NotNull GoTypeSpec type, boolean isInterface, @NotNull Processor<GoTypeSpec> processor) {
+    GlobalSearchScope scope = GoUtil.moduleScope(type);
+    return isInterface
+           ? GoImplementationsSearch.processImplementations(type, scope, processor)
+           : GoImplementationsSearch.processSuperInterfaces(type, scope, processor);
+  }
+
+  private static class ImplementationMarkerInfo extends LineMarkerInfo<PsiElement> {
+    private ImplementationMarkerInfo(@NotNull PsiElement identifier, final boolean isInterface) {
+      super(identifier,
+            identifier.getTextRange(),
+            isInterface ? AllIcons.Gutter.ImplementedMethod : AllIcons.Gutter.ImplementingMethod,
+            Pass.UPDATE_OVERRIDEN_MARKERS,
+            FunctionUtil.<PsiElement, String>constant(isInterface ? "Has implementations" : "Implements interfaces"),
+            new GutterIconNavigationHandler<PsiElement>() {
+              @Override
+              public void navigate(MouseEvent e, PsiElement elt) {
+                PsiElement parent = elt.getParent();
+                if (!(parent instanceof GoTypeSpec)) return;
+                CommonProcessors.CollectUniqueProcessor<GoTypeSpec> processor = new CommonProcessors.CollectUniqueProcessor<GoTypeSpec>();
+                process((GoTypeSpec)parent, isInterface, processor);
+                Collection<GoTypeSpec> targets = processor.getResults();
+                PsiElementListNavigator.openTargets(e, targets.toArray(new NavigatablePsiElement[targets.size()]),
+                                                    isInterface ? "Choose Implementation" : "Choose Interface", null,
+                                                    new DefaultPsiElementCellRenderer());
+              }
+            },
+            GutterIconRenderer.Alignment.RIGHT
+      );
+    }
+  }
+}
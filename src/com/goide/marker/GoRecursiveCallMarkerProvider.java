@@ -16,8 +16,7 @@
 
 package com.goide.marker;
 
-import com.goide.psi.GoCallExpr;
-import com.goide.psi.GoFunctionOrMethodDeclaration;
+import com.goide.psi.*;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.intellij.codeHighlighting.Pass;
 import com.intellij.codeInsight.daemon.LineMarkerInfo;
@@ -26,13 +25,13 @@ import com.intellij.icons.AllIcons;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.markup.GutterIconRenderer;
 import com.intellij.openapi.project.DumbAware;
-import com.intellij.openapi.util.Comparing;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.FunctionUtil;
 import com.intellij.util.containers.HashSet;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.List;
@@ -47,28 +46,38 @@ public class GoRecursiveCallMarkerProvider implements LineMarkerProvider, DumbAw
   @Override
   public void collectSlowLineMarkers(@NotNull List<PsiElement> elements, @NotNull Collection<LineMarkerInfo> result) {
     Set<Integer> lines = new HashSet<Integer>();
+    Document document = null;
     for (PsiElement element : elements) {
       if (element instanceof GoCallExpr) {
-        PsiElement resolve = GoPsiImplUtil.resolveCall((GoCallExpr)element);
-        if (resolve instanceof GoFunctionOrMethodDeclaration) {
-          if (isRecursiveCall(element, (GoFunctionOrMethodDeclaration)resolve)) {
-            PsiDocumentManager instance = PsiDocumentManager.getInstance(element.getProject());
-            Document document = instance.getDocument(element.getContainingFile());
-            int textOffset = element.getTextOffset();
-            if (document == null) continue;
-            int lineNumber = document.getLineNumber(textOffset);
-            if (!lines.contains(lineNumber)) {
-              result.add(new RecursiveMethodCallMarkerInfo(element));
-            }
-            lines.add(lineNumber);
-          }
+        GoFunctionOrMethodDeclaration function = PsiTreeUtil.getParentOfType(element, GoFunctionOrMethodDeclaration.class);
+        String name = function != null ? function.getName() : null;
+        // only a call by the name of the enclosing function can be recursive, so don't resolve the others
+        if (name == null || !name.equals(getCalleeName((GoCallExpr)element))) continue;
+        if (!function.equals(GoPsiImplUtil.resolveCall((GoCallExpr)element))) continue;
+        if (document == null) {
+          document = PsiDocumentManager.getInstance(element.getProject()).getDocument(element.getContainingFile());
+          if (document == null) return;
         }
+        int lineNumber = document.getLineNumber(element.getTextOffset());
+        if (!lines.contains(lineNumber)) {
+          result.add(new RecursiveMethodCallMarkerInfo(element));
+        }
+        lines.add(lineNumber);
       }
     }
   }
 
-  private static boolean isRecursiveCall(PsiElement element, GoFunctionOrMethodDeclaration function) {
-    return Comparing.equal(PsiTreeUtil.getParentOfType(element, GoFunctionOrMethodDeclaration.class), function);
+  @Nullable
+  private static String getCalleeName(@NotNull GoCallExpr call) {
+    GoExpression e = call.getExpression();
+    if (e instanceof GoCallExpr) return null;
+    if (e instanceof GoSelectorExpr) {
+      e = ((GoSelectorExpr)e).getRight();
+    }
+    GoReferenceExpression r = e instanceof GoReferenceExpression
+                              ? (GoReferenceExpression)e
+                              : PsiTreeUtil.getChildOfType(e, GoReferenceExpression.class);
+    return r != null ? r.getIdentifier().getText() : null;
   }
 
   private static class RecursiveMethodCallMarkerInfo extends LineMarkerInfo<PsiElement> {
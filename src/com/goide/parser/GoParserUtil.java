@@ -52,15 +52,8 @@ public class GoParserUtil extends GeneratedParserUtilBase {
     if (file == null) return false;
     VirtualFile data = file.getUserData(IndexingDataKeys.VIRTUAL_FILE);
     if (data == null) return false;
-    int i = 0;
     PsiBuilder.Marker m = builder_.mark();
-    do {
-      IElementType type = builder_.getTokenType();
-      i += type == GoTypes.LBRACE ? 1 : type == GoTypes.RBRACE ? -1 : 0;  
-      builder_.advanceLexer();
-    }
-    while (i > 0 && !builder_.eof());
-    boolean result = i == 0;
+    boolean result = skipBalancedBraces(builder_);
     if (result) {
       m.drop();
     }
@@ -69,6 +62,33 @@ public class GoParserUtil extends GeneratedParserUtilBase {
     }
     return result;  
   }
+
+  /**
+   * Collapses a balanced block into a lazy {@link GoTypes#BLOCK}, its content is parsed on demand
+   */
+  public static boolean lazyBlock(PsiBuilder builder_, @SuppressWarnings("UnusedParameters") int level) {
+    if (builder_.getTokenType() != GoTypes.LBRACE) return false;
+    PsiBuilder.Marker m = builder_.mark();
+    boolean result = skipBalancedBraces(builder_);
+    if (result) {
+      m.collapse(GoTypes.BLOCK);
+    }
+    else {
+      m.rollbackTo();
+    }
+    return result;
+  }
+
+  private static boolean skipBalancedBraces(@NotNull PsiBuilder builder_) {
+    int i = 0;
+    do {
+      IElementType type = builder_.getTokenType();
+      i += type == GoTypes.LBRACE ? 1 : type == GoTypes.RBRACE ? -1 : 0;  
+      builder_.advanceLexer();
+    }
+    while (i > 0 && !builder_.eof());
+    return i == 0;
+  }
   
   public static boolean emptyImportList(PsiBuilder builder_, @SuppressWarnings("UnusedParameters") int level) {
     PsiBuilder.Marker marker = getCurrentMarker(builder_ instanceof PsiBuilderAdapter ? ((PsiBuilderAdapter)builder_).getDelegate() : builder_);
@@ -23,7 +23,12 @@ import com.goide.util.GoUtil;
 import com.intellij.openapi.components.*;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.util.ArrayUtil;
+import com.intellij.util.ObjectUtils;
 import com.intellij.util.ThreeState;
 import com.intellij.util.messages.Topic;
 import com.intellij.util.xmlb.XmlSerializerUtil;
@@ -38,7 +43,7 @@ import org.jetbrains.annotations.Nullable;
     @Storage(id = "dir", file = StoragePathMacros.PROJECT_CONFIG_DIR + "/" +
                                 GoConstants.GO_BUILD_FLAGS_CONFIG_FILE, scheme = StorageScheme.DIRECTORY_BASED)
   })
-public class GoBuildTargetSettings implements PersistentStateComponent<GoBuildTargetSettings.GoBuildTargetSettingsState> {
+public class GoBuildTargetSettings extends SimpleModificationTracker implements PersistentStateComponent<GoBuildTargetSettings.GoBuildTargetSettingsState> {
   public static final Topic<BuildTargetListener> TOPIC = new Topic<BuildTargetListener>("build target changed", BuildTargetListener.class);
   
   public static final String DEFAULT = "default";
@@ -116,7 +121,24 @@ public class GoBuildTargetSettings implements PersistentStateComponent<GoBuildTa
     notifyChange();
   }
 
-  public GoTargetSystem getTargetSystemDescriptor(@Nullable Module module) {
+  /**
+   * Cached per module, the descriptor is recalculated on changes of these settings, SDK or project roots
+   */
+  @NotNull
+  public GoTargetSystem getTargetSystemDescriptor(@Nullable final Module module) {
+    ComponentManager holder = ObjectUtils.notNull(module, myProject);
+    return CachedValuesManager.getManager(myProject).getCachedValue(holder, new CachedValueProvider<GoTargetSystem>() {
+      @Nullable
+      @Override
+      public Result<GoTargetSystem> compute() {
+        return Result.create(calcTargetSystemDescriptor(module), GoBuildTargetSettings.this, GoSdkService.getInstance(myProject),
+                             ProjectRootManager.getInstance(myProject));
+      }
+    });
+  }
+
+  @NotNull
+  private GoTargetSystem calcTargetSystemDescriptor(@Nullable Module module) {
     String os = realValue(myState.os, GoUtil.systemOS());
     String arch = realValue(myState.arch, GoUtil.systemArch());
     ThreeState cgo = myState.cgo == ThreeState.UNSURE ? GoUtil.systemCgo(os, arch) : myState.cgo;
@@ -142,6 +164,7 @@ public class GoBuildTargetSettings implements PersistentStateComponent<GoBuildTa
   @Override
   public void loadState(GoBuildTargetSettingsState state) {
     XmlSerializerUtil.copyBean(state, myState);
+    incModificationCount();
   }
 
   static class GoBuildTargetSettingsState {
@@ -154,6 +177,7 @@ public class GoBuildTargetSettings implements PersistentStateComponent<GoBuildTa
   }
   
   private void notifyChange() {
+    incModificationCount();
     myProject.getMessageBus().syncPublisher(TOPIC).changed();
   }
 
@@ -16,15 +16,18 @@
 
 package com.goide.project;
 
+import com.goide.util.GoPathTrie;
 import com.intellij.openapi.components.*;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.SimpleModificationTracker;
-import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.SystemInfo;
 import com.intellij.util.ArrayUtil;
 import com.intellij.util.xmlb.XmlSerializerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 @State(
   name = "GoExcludedPaths",
   storages = {
@@ -34,6 +37,7 @@ import org.jetbrains.annotations.Nullable;
 )
 public class GoExcludedPathsSettings extends SimpleModificationTracker implements PersistentStateComponent<GoExcludedPathsSettings> {
   private String[] myExcludedPackages = ArrayUtil.EMPTY_STRING_ARRAY;
+  private volatile GoPathTrie myExcludedPackagesTrie;
 
   public static GoExcludedPathsSettings getInstance(Project project) {
     return ServiceManager.getService(project, GoExcludedPathsSettings.class);
@@ -48,6 +52,7 @@ public class GoExcludedPathsSettings extends SimpleModificationTracker implement
   @Override
   public void loadState(GoExcludedPathsSettings state) {
     XmlSerializerUtil.copyBean(state, this);
+    myExcludedPackagesTrie = null;
   }
 
   public String[] getExcludedPackages() {
@@ -56,6 +61,7 @@ public class GoExcludedPathsSettings extends SimpleModificationTracker implement
 
   public void setExcludedPackages(String... excludedPackages) {
     myExcludedPackages = excludedPackages;
+    myExcludedPackagesTrie = null;
     incModificationCount();
   }
 
@@ -63,10 +69,12 @@ public class GoExcludedPathsSettings extends SimpleModificationTracker implement
     if (importPath == null) {
       return false;
     }
-    for (String excludedPath : myExcludedPackages) {
-      if (FileUtil.isAncestor(excludedPath, importPath, false)) return true;
+    GoPathTrie trie = myExcludedPackagesTrie;
+    if (trie == null) {
+      trie = GoPathTrie.create(Arrays.asList(myExcludedPackages), SystemInfo.isFileSystemCaseSensitive);
+      myExcludedPackagesTrie = trie;
     }
-    return false;
+    return trie.containsAncestorOf(importPath, false);
   }
 
   public void excludePath(@NotNull String importPath) {
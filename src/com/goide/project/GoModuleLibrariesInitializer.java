@@ -20,6 +20,7 @@ import com.goide.GoConstants;
 import com.goide.configuration.GoLibrariesConfigurableProvider;
 import com.goide.sdk.GoSdkService;
 import com.goide.sdk.GoSdkUtil;
+import com.goide.util.GoPathTrie;
 import com.goide.util.GoUtil;
 import com.intellij.ProjectTopics;
 import com.intellij.ide.util.PropertiesComponent;
@@ -44,16 +45,26 @@ import com.intellij.openapi.roots.libraries.LibraryTable;
 import com.intellij.openapi.roots.libraries.LibraryTablesRegistrar;
 import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.vfs.*;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
 import com.intellij.util.Alarm;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.messages.MessageBusConnection;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 import javax.swing.event.HyperlinkEvent;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class GoModuleLibrariesInitializer implements ModuleComponent {
@@ -63,42 +74,94 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
   private static final int UPDATE_DELAY = 300;
   private static boolean isTestingMode = false;
 
-  private final Set<VirtualFile> myFilesToWatch = ContainerUtil.newConcurrentSet();
+  private volatile GoPathTrie myWatchedRoots = new GoPathTrie(true);
   private final Alarm myAlarm;
   private final MessageBusConnection myConnection;
   private boolean myModuleInitialized = false;
 
   @NotNull private final Set<VirtualFile> myLastHandledRoots = ContainerUtil.newHashSet();
   @NotNull private final Set<VirtualFile> myLastHandledExclusions = ContainerUtil.newHashSet();
+  /**
+   * Directories to exclude found under every already scanned library root. Roots are scanned once and then kept up to date
+   * from VFS events, so a recalculation only walks roots that appeared since the last one.
+   */
+  @NotNull private final Map<VirtualFile, Set<VirtualFile>> myScannedExclusions = ContainerUtil.newConcurrentMap();
+  /**
+   * Directories created, copied, moved or renamed under scanned roots. VFS listeners run under the write lock,
+   * so they are only recorded there and scanned by the next update.
+   */
+  @NotNull private final Set<VirtualFile> myDirtyDirectories = ContainerUtil.newConcurrentSet();
 
   @NotNull private final Module myModule;
-  @NotNull private final VirtualFileAdapter myFilesListener = new VirtualFileAdapter() {
+  @NotNull private final BulkFileListener myFilesListener = new BulkFileListener.Adapter() {
     @Override
-    public void fileCreated(@NotNull VirtualFileEvent event) {
-      handleEvent(event);
+    public void before(@NotNull List<? extends VFileEvent> events) {
+      GoPathTrie watchedRoots = myWatchedRoots;
+      if (watchedRoots.isEmpty()) return;
+      for (VFileEvent event : events) {
+        if (event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent || isRename(event)) {
+          VirtualFile file = event.getFile();
+          if (file != null && file.isDirectory() && watchedRoots.containsAncestorOf(file.getPath(), false)) {
+            forgetExclusions(file);
+          }
+        }
+      }
     }
 
     @Override
-    public void fileDeleted(@NotNull VirtualFileEvent event) {
-      handleEvent(event);
+    public void after(@NotNull List<? extends VFileEvent> events) {
+      GoPathTrie watchedRoots = myWatchedRoots;
+      if (watchedRoots.isEmpty()) return;
+      boolean changed = false;
+      for (VFileEvent event : events) {
+        if (isWatched(watchedRoots, event)) {
+          changed = true;
+          VirtualFile file = getCreatedFile(event);
+          if (file != null && file.isValid() && file.isDirectory()) {
+            myDirtyDirectories.add(file);
+          }
+        }
+      }
+      if (changed) {
+        scheduleUpdate();
+      }
     }
 
-    @Override
-    public void fileMoved(@NotNull VirtualFileMoveEvent event) {
-      handleEvent(event);
+    private boolean isWatched(@NotNull GoPathTrie watchedRoots, @NotNull VFileEvent event) {
+      if (event instanceof VFileCreateEvent || event instanceof VFileDeleteEvent) {
+        return watchedRoots.containsAncestorOf(event.getPath(), false);
+      }
+      if (event instanceof VFileCopyEvent) {
+        VFileCopyEvent copyEvent = (VFileCopyEvent)event;
+        return watchedRoots.containsAncestorOf(copyEvent.getNewParent().getPath() + "/" + copyEvent.getNewChildName(), false);
+      }
+      if (event instanceof VFileMoveEvent) {
+        VFileMoveEvent moveEvent = (VFileMoveEvent)event;
+        String name = moveEvent.getFile().getName();
+        return watchedRoots.containsAncestorOf(moveEvent.getNewParent().getPath() + "/" + name, false) ||
+               watchedRoots.containsAncestorOf(moveEvent.getOldParent().getPath() + "/" + name, false);
+      }
+      if (isRename(event)) {
+        VirtualFile parent = event.getFile().getParent();
+        String oldPath = parent != null ? parent.getPath() + "/" + ((VFilePropertyChangeEvent)event).getOldValue() : null;
+        return watchedRoots.containsAncestorOf(event.getPath(), false) ||
+               oldPath != null && watchedRoots.containsAncestorOf(oldPath, false);
+      }
+      return false;
     }
 
-    private void handleEvent(VirtualFileEvent event) {
-      if (myFilesToWatch.contains(event.getFile())) {
-        scheduleUpdate();
-      }
-      else {
-        for (VirtualFile file : myFilesToWatch) {
-          if (VfsUtilCore.isAncestor(file, event.getFile(), true)) {
-            scheduleUpdate();
-          }
-        }
+    @Nullable
+    private VirtualFile getCreatedFile(@NotNull VFileEvent event) {
+      if (event instanceof VFileCopyEvent) {
+        VFileCopyEvent copyEvent = (VFileCopyEvent)event;
+        return copyEvent.getNewParent().findChild(copyEvent.getNewChildName());
       }
+      return event instanceof VFileDeleteEvent ? null : event.getFile();
+    }
+
+    private boolean isRename(@NotNull VFileEvent event) {
+      return event instanceof VFilePropertyChangeEvent &&
+             VirtualFile.PROP_NAME.equals(((VFilePropertyChangeEvent)event).getPropertyName());
     }
   };
 
@@ -138,8 +201,7 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
           scheduleUpdate();
         }
       });
-
-      VirtualFileManager.getInstance().addVirtualFileListener(myFilesListener);
+      myConnection.subscribe(VirtualFileManager.VFS_CHANGES, myFilesListener);
     }
     scheduleUpdate(0);
     myModuleInitialized = true;
@@ -198,15 +260,40 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
   private static void fillLibrary(@NotNull Library library, @NotNull Collection<VirtualFile> libraryRoots, Set<VirtualFile> exclusions) {
     ApplicationManager.getApplication().assertWriteAccessAllowed();
 
-    Library.ModifiableModel libraryModel = library.getModifiableModel();
-    for (String root : libraryModel.getUrls(OrderRootType.CLASSES)) {
-      libraryModel.removeRoot(root, OrderRootType.CLASSES);
-    }
+    Set<String> rootUrls = ContainerUtil.newHashSet();
     for (VirtualFile libraryRoot : libraryRoots) {
-      libraryModel.addRoot(libraryRoot, OrderRootType.CLASSES);
+      rootUrls.add(libraryRoot.getUrl());
     }
+    Set<String> exclusionUrls = ContainerUtil.newHashSet();
     for (VirtualFile root : exclusions) {
-      ((LibraryEx.ModifiableModelEx)libraryModel).addExcludedRoot(root.getUrl());
+      exclusionUrls.add(root.getUrl());
+    }
+    Set<String> oldRootUrls = ContainerUtil.newHashSet(library.getUrls(OrderRootType.CLASSES));
+    Set<String> oldExclusionUrls = ContainerUtil.newHashSet(((LibraryEx)library).getExcludedRootUrls());
+    if (rootUrls.equals(oldRootUrls) && exclusionUrls.equals(oldExclusionUrls)) {
+      return;
+    }
+
+    LibraryEx.ModifiableModelEx libraryModel = (LibraryEx.ModifiableModelEx)library.getModifiableModel();
+    for (String root : oldRootUrls) {
+      if (!rootUrls.contains(root)) {
+        libraryModel.removeRoot(root, OrderRootType.CLASSES);
+      }
+    }
+    for (String root : rootUrls) {
+      if (!oldRootUrls.contains(root)) {
+        libraryModel.addRoot(root, OrderRootType.CLASSES);
+      }
+    }
+    for (String root : oldExclusionUrls) {
+      if (!exclusionUrls.contains(root)) {
+        libraryModel.removeExcludedRoot(root);
+      }
+    }
+    for (String root : exclusionUrls) {
+      if (!oldExclusionUrls.contains(root)) {
+        libraryModel.addExcludedRoot(root);
+      }
     }
     libraryModel.commit();
   }
@@ -247,37 +334,105 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
   }
 
   @NotNull
-  private static Set<VirtualFile> gatherExclusions(@NotNull Collection<VirtualFile> roots, @NotNull VirtualFile... exclusions) {
-    final Set<VirtualFile> result = ContainerUtil.newHashSet(exclusions);
+  private Set<VirtualFile> gatherExclusions(@NotNull Collection<VirtualFile> roots, @NotNull VirtualFile... exclusions) {
+    Set<VirtualFile> result = ContainerUtil.newHashSet(exclusions);
 
+    GoPathTrie exclusionPaths = new GoPathTrie(true);
+    for (VirtualFile exclusion : exclusions) {
+      exclusionPaths.add(exclusion.getPath());
+    }
     Iterator<VirtualFile> iterator = roots.iterator();
     while (iterator.hasNext()) {
-      VirtualFile file = iterator.next();
-      for (VirtualFile exclusion : exclusions) {
-        if (VfsUtilCore.isAncestor(exclusion, file, false)) {
-          iterator.remove();
-          break;
-        }
+      if (exclusionPaths.containsAncestorOf(iterator.next().getPath(), false)) {
+        iterator.remove();
       }
     }
 
-    for (VirtualFile file : roots) {
-      VfsUtilCore.visitChildrenRecursively(file, new VirtualFileVisitor() {
-        @NotNull
-        @Override
-        public Result visitFileEx(@NotNull VirtualFile file) {
-          if (directoryShouldBeExcluded(file)) {
-            result.add(file);
-            LOG.debug("Excluding part of GOPATH: " + file.getPath());
-            return SKIP_CHILDREN;
+    myScannedExclusions.keySet().retainAll(roots);
+    ApplicationManager.getApplication().runReadAction(new Runnable() {
+      @Override
+      public void run() {
+        Iterator<VirtualFile> dirtyIterator = myDirtyDirectories.iterator();
+        while (dirtyIterator.hasNext()) {
+          ProgressIndicatorProvider.checkCanceled();
+          VirtualFile directory = dirtyIterator.next();
+          dirtyIterator.remove();
+          if (directory.isValid()) {
+            collectExclusions(directory);
           }
-          return CONTINUE;
         }
-      });
+      }
+    });
+    for (final VirtualFile root : roots) {
+      ProgressIndicatorProvider.checkCanceled();
+      if (!myScannedExclusions.containsKey(root)) {
+        ApplicationManager.getApplication().runReadAction(new Runnable() {
+          @Override
+          public void run() {
+            if (root.isValid()) {
+              Set<VirtualFile> rootExclusions = ContainerUtil.newConcurrentSet();
+              collectExclusions(root, rootExclusions);
+              myScannedExclusions.put(root, rootExclusions);
+            }
+          }
+        });
+      }
+      Set<VirtualFile> rootExclusions = myScannedExclusions.get(root);
+      if (rootExclusions != null) {
+        for (VirtualFile exclusion : rootExclusions) {
+          if (exclusion.isValid()) {
+            result.add(exclusion);
+          }
+        }
+      }
     }
     return result;
   }
 
+  private static void collectExclusions(@NotNull VirtualFile directory, @NotNull final Set<VirtualFile> result) {
+    VfsUtilCore.visitChildrenRecursively(directory, new VirtualFileVisitor() {
+      @NotNull
+      @Override
+      public Result visitFileEx(@NotNull VirtualFile file) {
+        if (directoryShouldBeExcluded(file)) {
+          result.add(file);
+          LOG.debug("Excluding part of GOPATH: " + file.getPath());
+          return SKIP_CHILDREN;
+        }
+        return CONTINUE;
+      }
+    });
+  }
+
+  private void collectExclusions(@NotNull VirtualFile directory) {
+    Set<VirtualFile> rootExclusions = findScannedRootExclusions(directory);
+    if (rootExclusions != null) {
+      collectExclusions(directory, rootExclusions);
+    }
+  }
+
+  private void forgetExclusions(@NotNull VirtualFile directory) {
+    if (myScannedExclusions.remove(directory) != null) return;
+    Set<VirtualFile> rootExclusions = findScannedRootExclusions(directory);
+    if (rootExclusions != null) {
+      Iterator<VirtualFile> iterator = rootExclusions.iterator();
+      while (iterator.hasNext()) {
+        if (VfsUtilCore.isAncestor(directory, iterator.next(), false)) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  @Nullable
+  private Set<VirtualFile> findScannedRootExclusions(@NotNull VirtualFile file) {
+    for (VirtualFile parent = file; parent != null; parent = parent.getParent()) {
+      Set<VirtualFile> rootExclusions = myScannedExclusions.get(parent);
+      if (rootExclusions != null) return rootExclusions;
+    }
+    return null;
+  }
+
   private static void showNotification(@NotNull final Project project) {
     PropertiesComponent propertiesComponent = PropertiesComponent.getInstance(project);
     boolean shownAlready;
@@ -324,10 +479,10 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
   public void disposeComponent() {
     Disposer.dispose(myConnection);
     Disposer.dispose(myAlarm);
-    VirtualFileManager.getInstance().removeVirtualFileListener(myFilesListener);
     myLastHandledRoots.clear();
     myLastHandledExclusions.clear();
-    myFilesToWatch.clear();
+    myScannedExclusions.clear();
+    myWatchedRoots = new GoPathTrie(true);
   }
 
   @Override
@@ -352,16 +507,17 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
       if (GoSdkService.getInstance(project).isGoModule(GoModuleLibrariesInitializer.this.myModule)) {
         synchronized (myLastHandledRoots) {
           final Collection<VirtualFile> libraryRoots = ContainerUtil.newHashSet();
+          GoPathTrie watchedRoots = new GoPathTrie(true);
           for (VirtualFile packages : GoSdkUtil.getGoPathSources(project, myModule)) {
             Collections.addAll(libraryRoots, packages.getChildren());
+            watchedRoots.add(packages.getPath());
           }
           final Set<VirtualFile> excludedRoots = gatherExclusions(libraryRoots,
                                                                   ProjectRootManager.getInstance(project).getContentRoots());
 
           ProgressIndicatorProvider.checkCanceled();
+          myWatchedRoots = watchedRoots;
           if (!myLastHandledRoots.equals(libraryRoots) || !myLastHandledExclusions.equals(excludedRoots)) {
-            myFilesToWatch.clear();
-            myFilesToWatch.addAll(libraryRoots);
 
             ApplicationManager.getApplication().invokeLater(new Runnable() {
               @Override
@@ -384,6 +540,7 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
         synchronized (myLastHandledRoots) {
           myLastHandledRoots.clear();
           myLastHandledExclusions.clear();
+          myScannedExclusions.clear();
           ApplicationManager.getApplication().invokeLater(new Runnable() {
             @Override
             public void run() {
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi;
+
+import com.goide.GoLanguage;
+import com.goide.GoTypes;
+import com.goide.lexer.GoLexer;
+import com.intellij.lang.Language;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Function and method bodies are collapsed into lazy chameleons by {@link com.goide.parser.GoParserUtil#lazyBlock},
+ * so their content is parsed only when it's accessed and an edit inside a body reparses only that body.
+ */
+public class GoBlockElementType extends IReparseableElementType {
+  public GoBlockElementType(@NotNull String debugName) {
+    super(debugName, GoLanguage.INSTANCE);
+  }
+
+  /**
+   * The new text can replace the block only if it's a single block itself: starts with '{' and the matching '}' is the last token
+   */
+  @Override
+  public boolean isParsable(CharSequence buffer, Language fileLanguage, Project project) {
+    Lexer lexer = new GoLexer();
+    lexer.start(buffer);
+    if (lexer.getTokenType() != GoTypes.LBRACE) return false;
+    int balance = 0;
+    IElementType type;
+    while ((type = lexer.getTokenType()) != null) {
+      if (balance == 0 && lexer.getTokenStart() > 0) return false;
+      if (type == GoTypes.LBRACE) balance++;
+      else if (type == GoTypes.RBRACE) balance--;
+      lexer.advance();
+    }
+    return balance == 0;
+  }
+}
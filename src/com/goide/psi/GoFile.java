@@ -26,6 +26,7 @@ import com.goide.stubs.GoConstSpecStub;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.GoVarSpecStub;
 import com.goide.stubs.types.*;
+import com.goide.util.GoBuildConstraint;
 import com.goide.util.GoUtil;
 import com.intellij.extapi.psi.PsiFileBase;
 import com.intellij.lang.parser.GeneratedParserUtilBase;
@@ -116,6 +117,20 @@ public class GoFile extends PsiFileBase {
     return !buildFlags.isEmpty() ? StringUtil.join(buildFlags, "|") : null;
   }
 
+  @NotNull
+  public GoBuildConstraint getBuildConstraint() {
+    GoFileStub stub = getStub();
+    if (stub != null) {
+      return stub.getBuildConstraint();
+    }
+    return CachedValuesManager.getCachedValue(this, new CachedValueProvider<GoBuildConstraint>() {
+      @Override
+      public Result<GoBuildConstraint> compute() {
+        return Result.create(GoBuildConstraint.parse(getBuildFlags()), GoFile.this);
+      }
+    });
+  }
+
 
   @NotNull
   public List<GoFunctionDeclaration> getFunctions() {
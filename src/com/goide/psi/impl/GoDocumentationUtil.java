@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCommentsConverter;
+import com.goide.editor.GoParameterInfoHandler;
+import com.goide.psi.*;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.util.Function;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Doc comments and plain signatures of declarations, shared by the documentation provider and the stubs which keep them.
+ */
+public class GoDocumentationUtil {
+  private static final GoCommentsConverter COMMENTS_CONVERTER = new GoCommentsConverter();
+  private static final int MAX_STUB_COMMENT_LENGTH = 4096;
+  private static final int MAX_STUB_SIGNATURE_LENGTH = 512;
+
+  private GoDocumentationUtil() {
+  }
+
+  @NotNull
+  public static List<PsiComment> getCommentsForElement(@Nullable PsiElement element) {
+    List<PsiComment> comments = getCommentsInner(element);
+    if (comments.isEmpty()) {
+      if (element instanceof GoVarDefinition || element instanceof GoConstDefinition) {
+        PsiElement parent = element.getParent(); // spec
+        comments = getCommentsInner(parent);
+        if (comments.isEmpty() && parent != null) {
+          return getCommentsInner(parent.getParent()); // declaration
+        }
+      }
+      else if (element instanceof GoTypeSpec) {
+        return getCommentsInner(element.getParent()); // type declaration
+      }
+    }
+    return comments;
+  }
+
+  @NotNull
+  private static List<PsiComment> getCommentsInner(@Nullable PsiElement element) {
+    if (element == null) {
+      return ContainerUtil.emptyList();
+    }
+    List<PsiComment> result = ContainerUtil.newArrayList();
+    PsiElement e;
+    for (e = element.getPrevSibling(); e != null; e = e.getPrevSibling()) {
+      if (e instanceof PsiWhiteSpace) {
+        if (e.getText().contains("\n\n")) return result;
+        continue;
+      }
+      if (e instanceof PsiComment) {
+        result.add(0, (PsiComment)e);
+      }
+      else {
+        return result;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Plain text of the leading comments stored in stubs, so that documentation of library symbols doesn't need the AST.
+   */
+  @Nullable
+  public static String getStubDocComment(@Nullable PsiElement element) {
+    if (element == null) return null;
+    String text = COMMENTS_CONVERTER.toText(getCommentsForElement(element));
+    return StringUtil.nullize(StringUtil.first(text, MAX_STUB_COMMENT_LENGTH, true));
+  }
+
+  /**
+   * Signature without links to types, stored in stubs next to the doc comment.
+   * Constants and variables without a declared type get none, their types can't be inferred while indexing.
+   */
+  @Nullable
+  public static String getStubSignatureText(@NotNull GoNamedElement element) {
+    String signature = "";
+    String name = element.getName();
+    PsiElement parent = element.getParent();
+    if (element instanceof GoConstDefinition) {
+      GoType type = parent instanceof GoConstSpec ? ((GoConstSpec)parent).getType() : null;
+      if (type == null) return null;
+      GoExpression value = ((GoConstDefinition)element).getValue();
+      signature = "const " + name + " " + type.getText() + (value != null ? " = " + value.getText() : "");
+    }
+    else if (element instanceof GoVarDefinition) {
+      GoType type = parent instanceof GoVarSpec ? ((GoVarSpec)parent).getType() : null;
+      if (type == null) return null;
+      GoExpression value = ((GoVarDefinition)element).getValue();
+      signature = "var " + name + " " + type.getText() + (value != null ? " = " + value.getText() : "");
+    }
+    else if (element instanceof GoSignatureOwner) {
+      signature = getFunctionSignature((GoSignatureOwner)element, new Function<PsiElement, String>() {
+        @Override
+        public String fun(PsiElement o) {
+          return o != null ? o.getText() : "";
+        }
+      });
+    }
+    return StringUtil.nullize(StringUtil.first(signature, MAX_STUB_SIGNATURE_LENGTH, true));
+  }
+
+  @NotNull
+  public static String getFunctionSignature(@NotNull GoSignatureOwner element, @NotNull Function<PsiElement, String> typePresentation) {
+    PsiElement identifier = null;
+    if (element instanceof GoNamedSignatureOwner) {
+      identifier = ((GoNamedSignatureOwner)element).getIdentifier();
+    }
+    GoSignature signature = element.getSignature();
+
+    if (identifier == null && signature == null) {
+      return "";
+    }
+
+    StringBuilder builder = new StringBuilder("func ").append(identifier != null ? identifier.getText() : "").append('(');
+    if (signature != null) {
+      builder.append(getParametersAsString(signature.getParameters(), typePresentation));
+    }
+    builder.append(')');
+
+    GoResult result = signature != null ? signature.getResult() : null;
+    GoParameters parameters = result != null ? result.getParameters() : null;
+    GoType type = result != null ? result.getType() : null;
+
+    if (parameters != null) {
+      String signatureParameters = getParametersAsString(parameters, typePresentation);
+      if (!signatureParameters.isEmpty()) {
+        builder.append(" (").append(signatureParameters).append(')');
+      }
+    }
+    else if (type != null) {
+      builder.append(' ').append(typePresentation.fun(type));
+    }
+    return builder.toString();
+  }
+
+  @NotNull
+  private static String getParametersAsString(@NotNull GoParameters parameters, @NotNull Function<PsiElement, String> typePresentation) {
+    return StringUtil.join(GoParameterInfoHandler.getParameterPresentations(parameters, typePresentation), ", ");
+  }
+}
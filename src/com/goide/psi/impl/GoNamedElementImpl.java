@@ -26,7 +26,9 @@ import com.intellij.lang.ASTNode;
 import com.intellij.navigation.ItemPresentation;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.util.Iconable;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.ResolveState;
@@ -35,6 +37,7 @@ import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.LocalSearchScope;
 import com.intellij.psi.search.SearchScope;
 import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.PsiModificationTracker;
@@ -51,6 +54,7 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 
 public abstract class GoNamedElementImpl<T extends GoNamedStub<?>> extends GoStubbedElementImpl<T> implements GoCompositeElement, GoNamedElement {
+  private static final Key<CachedValue<GoPackageModificationTracker.Dependent<GoType>>> GO_TYPE_KEY = Key.create("GO_TYPE_KEY");
 
   public GoNamedElementImpl(@NotNull T stub, @NotNull IStubElementType nodeType) {
     super(stub, nodeType);
@@ -111,12 +115,12 @@ public abstract class GoNamedElementImpl<T extends GoNamedStub<?>> extends GoStu
   @Nullable
   @Override
   public GoType getGoType(@Nullable ResolveState context) {
+    GoPackageModificationTracker.registerDependency(this);
     if (context != null) return getGoTypeInner(context);
-    return CachedValuesManager.getCachedValue(this, new CachedValueProvider<GoType>() {
-      @Nullable
+    return GoPackageModificationTracker.getCachedValue(this, GO_TYPE_KEY, new Computable<GoType>() {
       @Override
-      public Result<GoType> compute() {
-        return Result.create(getGoTypeInner(null), PsiModificationTracker.MODIFICATION_COUNT);
+      public GoType compute() {
+        return getGoTypeInner(null);
       }
     });
   }
@@ -162,10 +166,7 @@ public abstract class GoNamedElementImpl<T extends GoNamedStub<?>> extends GoStu
         @Nullable
         @Override
         public String getLocationString() {
-          GoFile file = getContainingFile();
-          String fileName = file.getName();
-          String importPath = ObjectUtils.chooseNotNull(GoSdkUtil.getImportPath(file.getContainingDirectory()), file.getPackageName());
-          return "in " + (importPath != null ? importPath  + "/" + fileName : fileName);
+          return getFileLocationString(getContainingFile());
         }
 
         @Nullable
@@ -178,6 +179,23 @@ public abstract class GoNamedElementImpl<T extends GoNamedStub<?>> extends GoStu
     return super.getPresentation();
   }
 
+  /**
+   * Goto contributors ask it for every shown item, so it's cached per file instead of looking up the import path each time.
+   */
+  @NotNull
+  private static String getFileLocationString(@NotNull final GoFile file) {
+    return CachedValuesManager.getCachedValue(file, new CachedValueProvider<String>() {
+      @Nullable
+      @Override
+      public Result<String> compute() {
+        String fileName = file.getName();
+        String importPath = ObjectUtils.chooseNotNull(GoSdkUtil.getImportPath(file.getContainingDirectory()), file.getPackageName());
+        String location = "in " + (importPath != null ? importPath + "/" + fileName : fileName);
+        return Result.create(location, GoSdkUtil.getSdkAndLibrariesCacheDependencies(file, PsiModificationTracker.MODIFICATION_COUNT));
+      }
+    });
+  }
+
   @Nullable
   @Override
   public Icon getIcon(int flags) {
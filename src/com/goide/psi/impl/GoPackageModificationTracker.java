@@ -0,0 +1,249 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.project.GoBuildTargetSettings;
+import com.goide.psi.GoBlock;
+import com.goide.psi.GoFile;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.light.LightElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.ConcurrencyUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-package modification trackers for type inference caches.
+ * <p/>
+ * A package tracker is bumped by any change of a Go file in its directory except the ones inside blocks: Go has no result type
+ * inference, so function bodies can't affect declarations visible from other files. Directory level changes bump the common
+ * structure tracker instead. A cached type depends on its own file, on the trackers of packages consulted while it was computed,
+ * including the dependencies of nested cached types, and on the roots and the build target. Packages are consulted both by
+ * resolving into them and by looking names up in them, so that a failed lookup is recomputed once the name is declared.
+ */
+public class GoPackageModificationTracker {
+  private static final ThreadLocal<Deque<Set<Object>>> DEPENDENCIES = new ThreadLocal<Deque<Set<Object>>>() {
+    @Override
+    protected Deque<Set<Object>> initialValue() {
+      return new ArrayDeque<Set<Object>>();
+    }
+  };
+
+  @NotNull private final ConcurrentMap<String, SimpleModificationTracker> myTrackers = ContainerUtil.newConcurrentMap();
+  @NotNull private final SimpleModificationTracker myStructureTracker = new SimpleModificationTracker();
+
+  public GoPackageModificationTracker(@NotNull Project project) {
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+      @Override
+      public void childAdded(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childMoved(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+    }, project);
+  }
+
+  public static GoPackageModificationTracker getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, GoPackageModificationTracker.class);
+  }
+
+  @NotNull
+  public ModificationTracker getTracker(@NotNull PsiDirectory directory) {
+    return getTracker(directory.getVirtualFile().getPath());
+  }
+
+  @NotNull
+  private SimpleModificationTracker getTracker(@NotNull String path) {
+    SimpleModificationTracker tracker = myTrackers.get(path);
+    return tracker != null ? tracker : ConcurrencyUtil.cacheOrGet(myTrackers, path, new SimpleModificationTracker());
+  }
+
+  @NotNull
+  public ModificationTracker getStructureTracker() {
+    return myStructureTracker;
+  }
+
+  private void processChange(@NotNull PsiTreeChangeEvent event) {
+    PsiFile file = event.getFile();
+    if (file == null) {
+      if (event.getChild() instanceof GoFile || event.getOldChild() instanceof GoFile || event.getNewChild() instanceof GoFile) {
+        PsiElement parent = event.getParent();
+        if (parent instanceof PsiDirectory) {
+          getTracker(((PsiDirectory)parent).getVirtualFile().getPath()).incModificationCount();
+          return;
+        }
+      }
+      if (event.getElement() instanceof GoFile) {
+        PsiDirectory directory = ((GoFile)event.getElement()).getParent();
+        if (directory != null) {
+          getTracker(directory).incModificationCount();
+          return;
+        }
+      }
+      myStructureTracker.incModificationCount();
+      return;
+    }
+    if (!(file instanceof GoFile) || isInsideBlock(event)) return;
+    VirtualFile virtualFile = file.getVirtualFile();
+    VirtualFile directory = virtualFile != null ? virtualFile.getParent() : null;
+    if (directory != null) {
+      getTracker(directory.getPath()).incModificationCount();
+    }
+  }
+
+  private static boolean isInsideBlock(@NotNull PsiTreeChangeEvent event) {
+    return PsiTreeUtil.getParentOfType(event.getParent(), GoBlock.class, false) != null ||
+           event.getOldChild() instanceof GoBlock && event.getNewChild() instanceof GoBlock;
+  }
+
+  /**
+   * Caches a value computed from {@code element} with the dependencies described above and reports them
+   * to the value being computed on the outer level, if any.
+   */
+  @Nullable
+  public static <T> T getCachedValue(@NotNull final PsiElement element,
+                                     @NotNull Key<CachedValue<Dependent<T>>> key,
+                                     @NotNull final Computable<T> computable) {
+    Dependent<T> dependent = CachedValuesManager.getManager(element.getProject()).getCachedValue(element, key, new CachedValueProvider<Dependent<T>>() {
+      @Nullable
+      @Override
+      public Result<Dependent<T>> compute() {
+        Set<Object> dependencies = ContainerUtil.newLinkedHashSet();
+        Deque<Set<Object>> stack = DEPENDENCIES.get();
+        stack.push(dependencies);
+        T value;
+        try {
+          value = computable.compute();
+        }
+        finally {
+          stack.pop();
+        }
+        PsiFile file = element.getContainingFile();
+        if (file != null && file.isPhysical()) {
+          dependencies.add(file);
+        }
+        addDependencies(element, dependencies);
+        if (value instanceof PsiElement) {
+          PsiElement source = value instanceof LightElement ? ((PsiElement)value).getNavigationElement() : (PsiElement)value;
+          if (!(source instanceof LightElement)) {
+            addDependencies(source, dependencies);
+          }
+        }
+        Object[] array = ArrayUtil.toObjectArray(dependencies);
+        return Result.create(new Dependent<T>(value, array), array);
+      }
+    }, false);
+    Set<Object> outer = DEPENDENCIES.get().peek();
+    if (outer != null) {
+      Collections.addAll(outer, dependent.myDependencies);
+    }
+    return dependent.myValue;
+  }
+
+  /**
+   * Reports {@code element} as consulted by the value being cached, if any.
+   */
+  public static void registerDependency(@NotNull PsiElement element) {
+    Set<Object> dependencies = DEPENDENCIES.get().peek();
+    if (dependencies != null) {
+      addDependencies(element, dependencies);
+    }
+  }
+
+  /**
+   * Reports declarations of {@code directory} as looked up by the value being cached, if any, whether something was found there or not.
+   */
+  public static void registerDirectoryDependency(@NotNull PsiDirectory directory) {
+    Set<Object> dependencies = DEPENDENCIES.get().peek();
+    if (dependencies != null) {
+      addDependencies(directory, dependencies);
+    }
+  }
+
+  private static void addDependencies(@NotNull PsiElement element, @NotNull Set<Object> dependencies) {
+    PsiFile file = element.getContainingFile();
+    PsiDirectory directory = file != null && file.isPhysical() ? file.getParent() : null;
+    if (directory == null) {
+      dependencies.add(PsiModificationTracker.MODIFICATION_COUNT);
+      return;
+    }
+    addDependencies(directory, dependencies);
+  }
+
+  private static void addDependencies(@NotNull PsiDirectory directory, @NotNull Set<Object> dependencies) {
+    Project project = directory.getProject();
+    GoPackageModificationTracker tracker = getInstance(project);
+    if (dependencies.add(tracker.getTracker(directory))) {
+      dependencies.add(tracker.myStructureTracker);
+      dependencies.add(ProjectRootManager.getInstance(project));
+      dependencies.add(GoBuildTargetSettings.getInstance(project));
+    }
+  }
+
+  public static class Dependent<T> {
+    @Nullable private final T myValue;
+    @NotNull private final Object[] myDependencies;
+
+    private Dependent(@Nullable T value, @NotNull Object[] dependencies) {
+      myValue = value;
+      myDependencies = dependencies;
+    }
+  }
+}
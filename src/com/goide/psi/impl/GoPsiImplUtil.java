@@ -24,6 +24,7 @@ import com.goide.runconfig.testing.GoTestFinder;
 import com.goide.sdk.GoSdkUtil;
 import com.goide.stubs.*;
 import com.goide.stubs.index.GoMethodIndex;
+import com.goide.util.GoResolveMetrics;
 import com.goide.util.GoStringLiteralEscaper;
 import com.goide.util.GoUtil;
 import com.intellij.lang.ASTNode;
@@ -39,9 +40,9 @@ import com.intellij.psi.impl.source.tree.LeafElement;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.Function;
 import com.intellij.util.NotNullFunction;
@@ -60,6 +61,8 @@ import static com.goide.psi.impl.GoLightType.*;
 
 public class GoPsiImplUtil {
   public static final Key<SmartPsiElementPointer<GoReferenceExpressionBase>> CONTEXT = Key.create("CONTEXT");
+  private static final Key<CachedValue<GoPackageModificationTracker.Dependent<GoType>>> EXPRESSION_TYPE_KEY =
+    Key.create("EXPRESSION_TYPE_KEY");
   public static final NotNullFunction<PsiElement, String> GET_TEXT_FUNCTION = new NotNullFunction<PsiElement, String>() {
     @NotNull
     @Override
@@ -125,8 +128,24 @@ public class GoPsiImplUtil {
     return declaration;
   }
   
+  /**
+   * Number of parameters, {@code (a, b int)} and {@code (int, int)} both have two
+   */
   public static int getArity(@Nullable GoSignature s) {
-    return s == null ? -1 : s.getParameters().getParameterDeclarationList().size();
+    if (s == null) return -1;
+    GoParameters parameters = s.getParameters();
+    int result = 0;
+    for (GoParameterDeclaration declaration : parameters.getParameterDeclarationList()) {
+      result += Math.max(1, declaration.getParamDefinitionList().size());
+    }
+    GoType type = parameters.getType();
+    if (type instanceof GoTypeList) {
+      result += ((GoTypeList)type).getTypeList().size();
+    }
+    else if (type != null) {
+      result++;
+    }
+    return result;
   }
 
   @Nullable
@@ -310,19 +329,35 @@ public class GoPsiImplUtil {
 
   @Nullable
   public static GoType getGoType(@NotNull final GoExpression o, @Nullable final ResolveState context) {
-    return RecursionManager.doPreventingRecursion(o, true, new Computable<GoType>() {
+    GoResolveMetrics.request(GoResolveMetrics.Operation.EXPRESSION_TYPE, o);
+    final boolean[] entered = GoResolveMetrics.isEnabled() ? new boolean[1] : null;
+    GoType type = RecursionManager.doPreventingRecursion(o, true, new Computable<GoType>() {
       @Override
       public GoType compute() {
-        if (context != null) return getGoTypeInner(o, context);
-        return CachedValuesManager.getCachedValue(o, new CachedValueProvider<GoType>() {
-          @Nullable
+        if (entered != null) entered[0] = true;
+        GoPackageModificationTracker.registerDependency(o);
+        if (context != null) return measuredGoTypeInner(o, context);
+        return GoPackageModificationTracker.getCachedValue(o, EXPRESSION_TYPE_KEY, new Computable<GoType>() {
           @Override
-          public Result<GoType> compute() {
-            return Result.create(getGoTypeInner(o, null), PsiModificationTracker.MODIFICATION_COUNT);
+          public GoType compute() {
+            return measuredGoTypeInner(o, null);
           }
         });
       }
     });
+    if (entered != null && !entered[0]) GoResolveMetrics.recursionGuard(GoResolveMetrics.Operation.EXPRESSION_TYPE, o);
+    return type;
+  }
+
+  @Nullable
+  private static GoType measuredGoTypeInner(@NotNull GoExpression o, @Nullable ResolveState context) {
+    long start = GoResolveMetrics.start();
+    try {
+      return getGoTypeInner(o, context);
+    }
+    finally {
+      GoResolveMetrics.finish(GoResolveMetrics.Operation.EXPRESSION_TYPE, o, start);
+    }
   }
 
   @Nullable
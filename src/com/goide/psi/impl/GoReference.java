@@ -19,16 +19,22 @@ package com.goide.psi.impl;
 import com.goide.GoConstants;
 import com.goide.psi.*;
 import com.goide.sdk.GoSdkUtil;
+import com.goide.util.GoResolveMetrics;
 import com.goide.util.GoUtil;
 import com.intellij.openapi.util.*;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.source.resolve.ResolveCache;
+import com.intellij.psi.scope.NameHint;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ArrayUtil;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.ObjectUtils;
 import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
 import com.intellij.util.containers.OrderedSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -44,6 +50,8 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
   public static final Key<String> ACTUAL_NAME = Key.create("ACTUAL_NAME");
   public static final Key<Object> POINTER = Key.create("POINTER");
   private static final Key<Object> DONT_PROCESS_METHODS = Key.create("DONT_PROCESS_METHODS");
+  private static final Key<CachedValue<MultiMap<String, GoNamedElement>>> DIRECTORY_DECLARATIONS_CACHE =
+    Key.create("DIRECTORY_DECLARATIONS_CACHE");
 
   private static final ResolveCache.PolyVariantResolver<PsiPolyVariantReferenceBase> MY_RESOLVER =
     new ResolveCache.PolyVariantResolver<PsiPolyVariantReferenceBase>() {
@@ -73,9 +81,15 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
   @NotNull
   private ResolveResult[] resolveInner() {
     if (!myElement.isValid()) return ResolveResult.EMPTY_ARRAY;
-    Collection<ResolveResult> result = new OrderedSet<ResolveResult>();
-    processResolveVariants(createResolveProcessor(result, myElement));
-    return result.toArray(new ResolveResult[result.size()]);
+    long start = GoResolveMetrics.start();
+    try {
+      Collection<ResolveResult> result = new OrderedSet<ResolveResult>();
+      processResolveVariants(createResolveProcessor(result, myElement));
+      return result.toArray(new ResolveResult[result.size()]);
+    }
+    finally {
+      GoResolveMetrics.finish(GoResolveMetrics.Operation.REFERENCE_RESOLVE, myElement, start);
+    }
   }
   
   @Override
@@ -90,7 +104,20 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
 
   @NotNull
   static GoScopeProcessor createResolveProcessor(@NotNull final Collection<ResolveResult> result, @NotNull final GoReferenceExpressionBase o) {
+    final NameHint nameHint = new NameHint() {
+      @Nullable
+      @Override
+      public String getName(@NotNull ResolveState state) {
+        return o.getIdentifier().getText();
+      }
+    };
     return new GoScopeProcessor() {
+      @Override
+      public <T> T getHint(@NotNull Key<T> hintKey) {
+        //noinspection unchecked
+        return hintKey == NameHint.KEY ? (T)nameHint : super.getHint(hintKey);
+      }
+
       @Override
       public boolean execute(@NotNull PsiElement element, @NotNull ResolveState state) {
         if (element.equals(o)) return !result.add(new PsiElementResolveResult(element));
@@ -109,6 +136,7 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
   @NotNull
   public ResolveResult[] multiResolve(boolean incompleteCode) {
     if (!myElement.isValid()) return ResolveResult.EMPTY_ARRAY;
+    GoResolveMetrics.request(GoResolveMetrics.Operation.REFERENCE_RESOLVE, myElement);
     return ResolveCache.getInstance(myElement.getProject()).resolveWithCaching(this, MY_RESOLVER, false, false);
   }
 
@@ -178,6 +206,7 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
         return processTypeRef(type, processor, state);
       }
     });
+    if (result == null) GoResolveMetrics.recursionGuard(GoResolveMetrics.Operation.REFERENCE_RESOLVE, myElement);
     return result != null && result.booleanValue();
   }
 
@@ -254,6 +283,7 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
   private boolean processInTypeRef(@Nullable GoTypeReferenceExpression refExpr, @NotNull final GoScopeProcessor processor, @NotNull final ResolveState state) {
     PsiReference reference = refExpr != null ? refExpr.getReference() : null;
     PsiElement resolve = reference != null ? reference.resolve() : null;
+    if (resolve instanceof GoTypeSpec && !processCachedMembers((GoTypeSpec)resolve, processor, state)) return false;
     if (resolve instanceof GoTypeOwner) {
       final GoType type = ((GoTypeOwner)resolve).getGoType(state);
       if (type == null) return true;
@@ -268,6 +298,26 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
     return true;
   }
 
+  /**
+   * Fast path for resolving a selector: looks the name up in the flattened member set of the type.
+   * Falls through to the full walk over the embedding chain if nothing is found or for completion.
+   */
+  private boolean processCachedMembers(@NotNull GoTypeSpec spec, @NotNull GoScopeProcessor processor, @NotNull ResolveState state) {
+    NameHint nameHint = processor.getHint(NameHint.KEY);
+    String name = nameHint != null ? nameHint.getName(state) : null;
+    if (name == null || state.get(DONT_PROCESS_METHODS) != null) return true;
+    if (state.get(POINTER) != null && spec.getSpecType().getType() instanceof GoInterfaceType) return true;
+    PsiFile myFile = ObjectUtils.notNull(getContextFile(state), myElement.getContainingFile());
+    if (!(myFile instanceof GoFile)) return true;
+    for (GoNamedElement member : GoTypeMembers.getMembers(spec).findMembers(name)) {
+      if (!member.isValid()) continue;
+      PsiFile file = member.getContainingFile();
+      if (!allowed(file, myFile)) continue;
+      if ((isLocalResolve(myFile, file) || member.isPublic()) && !processor.execute(member, state)) return false;
+    }
+    return true;
+  }
+
   @Nullable
   private static String getPath(@Nullable PsiFile file) {
     if (file == null) return null;
@@ -282,7 +332,21 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
                                             @NotNull ResolveState state,
                                             boolean localProcessing) {
     if (dir == null) return true;
+    GoPackageModificationTracker.registerDirectoryDependency(dir);
     String filePath = getPath(file);
+    NameHint nameHint = processor.getHint(NameHint.KEY);
+    String name = nameHint != null ? nameHint.getName(state) : null;
+    if (name != null) {
+      for (GoNamedElement definition : getDirectoryDeclarations(dir).get(name)) {
+        PsiFile f = definition.getContainingFile();
+        if (!(f instanceof GoFile) || Comparing.equal(getPath(f), filePath)) continue;
+        if (packageName != null && !packageName.equals(((GoFile)f).getPackageName())) continue;
+        if (!definition.isValid() || !allowed(f, file)) continue;
+        if (definition instanceof GoConstDefinition && !createIotaCondition(state).value(definition)) continue;
+        if ((localProcessing || definition.isPublic()) && !processor.execute(definition, state)) return false;
+      }
+      return true;
+    }
     for (PsiFile f : dir.getFiles()) {
       if (!(f instanceof GoFile) || Comparing.equal(getPath(f), filePath)) continue;
       if (packageName != null && !packageName.equals(((GoFile)f).getPackageName())) continue;
@@ -291,6 +355,41 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
     return true;
   }
 
+  /**
+   * Top-level declarations of all files in the directory keyed by name, in the same order as {@link #processFileEntities} visits them.
+   * Lets resolve of a single name probe the map instead of walking every declaration in the package.
+   */
+  @NotNull
+  private static MultiMap<String, GoNamedElement> getDirectoryDeclarations(@NotNull final PsiDirectory dir) {
+    return CachedValuesManager.getManager(dir.getProject()).getCachedValue(dir, DIRECTORY_DECLARATIONS_CACHE,
+      new CachedValueProvider<MultiMap<String, GoNamedElement>>() {
+        @Nullable
+        @Override
+        public Result<MultiMap<String, GoNamedElement>> compute() {
+          MultiMap<String, GoNamedElement> result = new MultiMap<String, GoNamedElement>();
+          for (PsiFile f : dir.getFiles()) {
+            if (!(f instanceof GoFile)) continue;
+            GoFile goFile = (GoFile)f;
+            putDeclarations(result, goFile.getConstants());
+            putDeclarations(result, goFile.getVars());
+            putDeclarations(result, ContainerUtil.filter(goFile.getFunctions(), DONT_PROCESS_INIT));
+            putDeclarations(result, goFile.getTypes());
+          }
+          return Result.create(result, dir);
+        }
+      }, false);
+  }
+
+  private static void putDeclarations(@NotNull MultiMap<String, GoNamedElement> map,
+                                      @NotNull Collection<? extends GoNamedElement> declarations) {
+    for (GoNamedElement declaration : declarations) {
+      String name = declaration.getName();
+      if (name != null) {
+        map.putValue(name, declaration);
+      }
+    }
+  }
+
   private boolean processUnqualifiedResolve(@NotNull GoFile file,
                                             @NotNull GoScopeProcessor processor,
                                             @NotNull ResolveState state) {
@@ -411,26 +510,32 @@ public class GoReference extends PsiPolyVariantReferenceBase<GoReferenceExpressi
     };
   }
 
-  private static boolean processFileEntities(@NotNull GoFile file,
-                                             @NotNull GoScopeProcessor processor,
-                                             @NotNull final ResolveState state,
-                                             boolean localProcessing) {
-    if (!processNamedElements(processor, state, file.getConstants(), new Condition<GoNamedElement>() {
-        @Override
-        public boolean value(@NotNull GoNamedElement o) {
-          return !Comparing.equal(GoConstants.IOTA, o.getName()) ||
-                 !builtin(o) ||
-                 PsiTreeUtil.getParentOfType(getContext(state), GoConstSpec.class) != null;
-        }
-      }, localProcessing, false)) return false;
-    if (!processNamedElements(processor, state, file.getVars(), localProcessing)) return false;
-    Condition<GoNamedElement> dontProcessInit = new Condition<GoNamedElement>() {
+  private static final Condition<GoNamedElement> DONT_PROCESS_INIT = new Condition<GoNamedElement>() {
+    @Override
+    public boolean value(@NotNull GoNamedElement o) {
+      return o instanceof GoFunctionDeclaration && !Comparing.equal(o.getName(), GoConstants.INIT);
+    }
+  };
+
+  @NotNull
+  private static Condition<GoNamedElement> createIotaCondition(@NotNull final ResolveState state) {
+    return new Condition<GoNamedElement>() {
       @Override
       public boolean value(@NotNull GoNamedElement o) {
-        return o instanceof GoFunctionDeclaration && !Comparing.equal(o.getName(), GoConstants.INIT);
+        return !Comparing.equal(GoConstants.IOTA, o.getName()) ||
+               !builtin(o) ||
+               PsiTreeUtil.getParentOfType(getContext(state), GoConstSpec.class) != null;
       }
     };
-    if (!processNamedElements(processor, state, file.getFunctions(), dontProcessInit, localProcessing, false)) return false;
+  }
+
+  private static boolean processFileEntities(@NotNull GoFile file,
+                                             @NotNull GoScopeProcessor processor,
+                                             @NotNull ResolveState state,
+                                             boolean localProcessing) {
+    if (!processNamedElements(processor, state, file.getConstants(), createIotaCondition(state), localProcessing, false)) return false;
+    if (!processNamedElements(processor, state, file.getVars(), localProcessing)) return false;
+    if (!processNamedElements(processor, state, file.getFunctions(), DONT_PROCESS_INIT, localProcessing, false)) return false;
     if (!processNamedElements(processor, state, file.getTypes(), localProcessing)) return false;
     return true;
   }
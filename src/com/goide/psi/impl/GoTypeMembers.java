@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.*;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Flattened method and field set of a type spec: own methods and fields plus everything promoted through
+ * embedded structs and interfaces. Every name keeps only the candidates at the shallowest embedding depth,
+ * so a shadowed member of an embedded type is never returned.
+ * <p/>
+ * Cached per type spec and invalidated by changes in the files and packages of any type on the embedding chain.
+ */
+public class GoTypeMembers {
+  private final Map<String, List<GoNamedElement>> myMembers = ContainerUtil.newHashMap();
+  private final Map<String, Integer> myDepths = ContainerUtil.newHashMap();
+
+  private GoTypeMembers() {
+  }
+
+  @NotNull
+  public static GoTypeMembers getMembers(@NotNull final GoTypeSpec spec) {
+    return CachedValuesManager.getCachedValue(spec, new CachedValueProvider<GoTypeMembers>() {
+      @Nullable
+      @Override
+      public Result<GoTypeMembers> compute() {
+        Set<Object> dependencies = ContainerUtil.newHashSet();
+        GoTypeMembers members = calcMembers(spec, dependencies);
+        return Result.create(members, ArrayUtil.toObjectArray(dependencies));
+      }
+    });
+  }
+
+  @NotNull
+  public List<GoNamedElement> findMembers(@NotNull String name) {
+    List<GoNamedElement> members = myMembers.get(name);
+    return members != null ? members : Collections.<GoNamedElement>emptyList();
+  }
+
+  @NotNull
+  public Set<String> getNames() {
+    return Collections.unmodifiableSet(myMembers.keySet());
+  }
+
+  @NotNull
+  private static GoTypeMembers calcMembers(@NotNull GoTypeSpec root, @NotNull Set<Object> dependencies) {
+    GoTypeMembers result = new GoTypeMembers();
+    Set<GoTypeSpec> visited = ContainerUtil.newHashSet();
+    List<GoTypeSpec> level = ContainerUtil.newSmartList(root);
+    for (int depth = 0; !level.isEmpty(); depth++) {
+      List<GoTypeSpec> next = ContainerUtil.newArrayList();
+      for (GoTypeSpec spec : level) {
+        if (!visited.add(spec) || !spec.isValid()) continue;
+        addDependencies(spec, dependencies);
+        GoType type = getUnderlyingType(spec, dependencies);
+        if (type instanceof GoInterfaceType) {
+          for (GoMethodSpec method : ((GoInterfaceType)type).getMethodSpecList()) {
+            if (method.getIdentifier() != null) {
+              result.add(method, depth);
+            }
+            else {
+              ContainerUtil.addIfNotNull(next, resolveSpec(method.getTypeReferenceExpression()));
+            }
+          }
+          continue;
+        }
+        for (GoMethodDeclaration method : spec.getMethods()) {
+          result.add(method, depth);
+        }
+        if (type instanceof GoStructType) {
+          for (GoFieldDeclaration declaration : ((GoStructType)type).getFieldDeclarationList()) {
+            for (GoFieldDefinition field : declaration.getFieldDefinitionList()) {
+              result.add(field, depth);
+            }
+            GoAnonymousFieldDefinition anon = declaration.getAnonymousFieldDefinition();
+            if (anon != null) {
+              result.add(anon, depth);
+              ContainerUtil.addIfNotNull(next, resolveSpec(anon.getTypeReferenceExpression()));
+            }
+          }
+        }
+      }
+      level = next;
+    }
+    return result;
+  }
+
+  private void add(@NotNull GoNamedElement element, int depth) {
+    String name = element.getName();
+    if (name == null) return;
+    Integer known = myDepths.get(name);
+    if (known != null && known < depth) return;
+    myDepths.put(name, depth);
+    List<GoNamedElement> list = myMembers.get(name);
+    if (list == null) {
+      list = ContainerUtil.newSmartList();
+      myMembers.put(name, list);
+    }
+    list.add(element);
+  }
+
+  /**
+   * For {@code type A B} the fields come from the underlying type of {@code B}, while only the methods of {@code A} apply.
+   */
+  @Nullable
+  private static GoType getUnderlyingType(@NotNull GoTypeSpec spec, @NotNull Set<Object> dependencies) {
+    GoType base = GoPsiImplUtil.findBaseSpecType(spec.getSpecType());
+    if (base instanceof GoSpecType) {
+      PsiElement baseSpec = base.getParent();
+      if (baseSpec instanceof GoTypeSpec && baseSpec != spec) {
+        addDependencies((GoTypeSpec)baseSpec, dependencies);
+      }
+      return ((GoSpecType)base).getType();
+    }
+    return base;
+  }
+
+  @Nullable
+  private static GoTypeSpec resolveSpec(@Nullable GoTypeReferenceExpression ref) {
+    PsiElement resolve = ref != null ? ref.getReference().resolve() : null;
+    return resolve instanceof GoTypeSpec ? (GoTypeSpec)resolve : null;
+  }
+
+  private static void addDependencies(@NotNull GoTypeSpec spec, @NotNull Set<Object> dependencies) {
+    PsiFile file = spec.getContainingFile();
+    dependencies.add(file);
+    PsiDirectory directory = file.getOriginalFile().getParent();
+    if (directory != null) {
+      dependencies.add(directory);
+    }
+  }
+}
@@ -20,6 +20,7 @@ import com.goide.GoConstants;
 import com.goide.GoTypes;
 import com.goide.psi.*;
 import com.goide.sdk.GoSdkUtil;
+import com.goide.util.GoResolveMetrics;
 import com.goide.util.GoUtil;
 import com.intellij.openapi.util.Condition;
 import com.intellij.openapi.util.TextRange;
@@ -55,17 +56,23 @@ public class GoTypeReference extends PsiPolyVariantReferenceBase<GoTypeReference
 
   @NotNull
   private ResolveResult[] resolveInner() {
-    Collection<ResolveResult> result = new OrderedSet<ResolveResult>();
-    processResolveVariants(GoReference.createResolveProcessor(result, myElement));
-    
-    if (result.isEmpty() && myElement.getParent() instanceof GoReceiverType) {
-      PsiElement resolve = new GoReference(myElement).resolve();
-      if (resolve != null) {
-        return PsiElementResolveResult.createResults(resolve);
+    long start = GoResolveMetrics.start();
+    try {
+      Collection<ResolveResult> result = new OrderedSet<ResolveResult>();
+      processResolveVariants(GoReference.createResolveProcessor(result, myElement));
+
+      if (result.isEmpty() && myElement.getParent() instanceof GoReceiverType) {
+        PsiElement resolve = new GoReference(myElement).resolve();
+        if (resolve != null) {
+          return PsiElementResolveResult.createResults(resolve);
+        }
       }
+
+      return result.toArray(new ResolveResult[result.size()]);
+    }
+    finally {
+      GoResolveMetrics.finish(GoResolveMetrics.Operation.TYPE_REFERENCE_RESOLVE, myElement, start);
     }
-    
-    return result.toArray(new ResolveResult[result.size()]);
   }
   
   @Override
@@ -81,6 +88,7 @@ public class GoTypeReference extends PsiPolyVariantReferenceBase<GoTypeReference
   @Override
   @NotNull
   public ResolveResult[] multiResolve(boolean incompleteCode) {
+    GoResolveMetrics.request(GoResolveMetrics.Operation.TYPE_REFERENCE_RESOLVE, myElement);
     return myElement.isValid()
            ? ResolveCache.getInstance(myElement.getProject()).resolveWithCaching(this, MY_RESOLVER, false, false)
            : ResolveResult.EMPTY_ARRAY;
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig;
+
+import com.goide.util.GoTargetSystem;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.EnvironmentUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Remembers binaries built by {@link GoBuildingRunner} so that a launch with the same inputs skips {@code go build}.
+ * <p/>
+ * A fingerprint covers the build command line with its environment, the target system and modification stamps of the
+ * sources the binary is built from, which {@link GoBuildingRunner} collects from the package and the packages it imports.
+ * Changes made outside of the IDE are seen only after a VFS refresh, so the runner refreshes the package before asking
+ * for a fingerprint.
+ * Binaries without an explicit output directory are stored under the fingerprint in the system directory,
+ * the ones left from previous sessions are removed on startup.
+ */
+public class GoBuildCache {
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private final Map<String, Artifact> myArtifacts = ContainerUtil.newConcurrentMap();
+  private final Map<String, String> myCachedOutputs = ContainerUtil.newConcurrentMap();
+  @NotNull private final File myCacheDirectory = new File(PathManager.getSystemPath(), "go-build-cache");
+
+  public GoBuildCache() {
+    if (myCacheDirectory.exists()) {
+      FileUtil.asyncDelete(myCacheDirectory);
+    }
+  }
+
+  public static GoBuildCache getInstance() {
+    return ServiceManager.getService(GoBuildCache.class);
+  }
+
+  @Nullable
+  public String fingerprint(@NotNull GeneralCommandLine buildCommandLine,
+                            @NotNull GoTargetSystem targetSystem,
+                            @NotNull Collection<VirtualFile> sources) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    }
+    catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+    update(digest, buildCommandLine.getExePath());
+    update(digest, buildCommandLine.getWorkDirectory() != null ? buildCommandLine.getWorkDirectory().getPath() : null);
+    for (String parameter : buildCommandLine.getParametersList().getList()) {
+      update(digest, parameter);
+    }
+    update(digest, ContainerUtil.newTreeMap(buildCommandLine.getEnvironment()).toString());
+    if (buildCommandLine.isPassParentEnvironment()) {
+      for (Map.Entry<String, String> entry : ContainerUtil.newTreeMap(EnvironmentUtil.getEnvironmentMap()).entrySet()) {
+        if (entry.getKey().startsWith("GO") || entry.getKey().startsWith("CGO_")) {
+          update(digest, entry.getKey() + "=" + entry.getValue());
+        }
+      }
+    }
+    update(digest, targetSystem.os + "/" + targetSystem.arch + "/" + targetSystem.goVersion + "/" + targetSystem.compiler + "/" +
+                   targetSystem.cgoEnabled + "/" + targetSystem.hashCode());
+    for (VirtualFile source : sources) {
+      update(digest, source.getPath() + ":" + source.getModificationStamp() + ":" + source.getTimeStamp());
+    }
+    return String.format("%040x", new BigInteger(1, digest.digest()));
+  }
+
+  @NotNull
+  public File getCachedOutputFile(@NotNull String fingerprint, @NotNull String binaryName) {
+    return new File(new File(myCacheDirectory, fingerprint), binaryName);
+  }
+
+  public boolean isCachedOutputFile(@NotNull File file) {
+    return FileUtil.isAncestor(myCacheDirectory, file, true);
+  }
+
+  public boolean isUpToDate(@NotNull File outputFile, @NotNull String fingerprint) {
+    Artifact artifact = myArtifacts.get(outputFile.getAbsolutePath());
+    return artifact != null && artifact.fingerprint.equals(fingerprint)
+           && artifact.length == outputFile.length() && artifact.lastModified == outputFile.lastModified();
+  }
+
+  /**
+   * Records a successfully built binary. A cached binary previously built for the same configuration is stale from now on
+   * and gets removed.
+   */
+  public void buildFinished(@NotNull String configurationKey, @NotNull File outputFile, @NotNull String fingerprint) {
+    String outputPath = outputFile.getAbsolutePath();
+    myArtifacts.put(outputPath, new Artifact(fingerprint, outputFile.length(), outputFile.lastModified()));
+    if (!isCachedOutputFile(outputFile)) return;
+    String previous = myCachedOutputs.put(configurationKey, outputPath);
+    if (previous != null && !previous.equals(outputPath)) {
+      myArtifacts.remove(previous);
+      FileUtil.delete(new File(previous).getParentFile());
+    }
+  }
+
+  public void buildFailed(@NotNull File outputFile) {
+    myArtifacts.remove(outputFile.getAbsolutePath());
+  }
+
+  private static void update(@NotNull MessageDigest digest, @Nullable String value) {
+    if (value != null) {
+      digest.update(value.getBytes(UTF8));
+    }
+    digest.update((byte)0);
+  }
+
+  private static class Artifact {
+    @NotNull private final String fingerprint;
+    private final long length;
+    private final long lastModified;
+
+    private Artifact(@NotNull String fingerprint, long length, long lastModified) {
+      this.fingerprint = fingerprint;
+      this.length = length;
+      this.lastModified = lastModified;
+    }
+  }
+}
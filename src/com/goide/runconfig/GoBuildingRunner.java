@@ -19,9 +19,16 @@ package com.goide.runconfig;
 import com.goide.GoEnvironmentUtil;
 import com.goide.dlv.DlvDebugProcess;
 import com.goide.dlv.DlvRemoteVmConnection;
+import com.goide.project.GoBuildTargetSettings;
 import com.goide.runconfig.application.GoApplicationConfiguration;
 import com.goide.runconfig.application.GoApplicationRunningState;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoImportSpec;
+import com.goide.sdk.GoSdkService;
+import com.goide.stubs.index.GoImportPathIndex;
+import com.goide.util.GoExecutor;
 import com.goide.util.GoHistoryProcessListener;
+import com.goide.util.GoUtil;
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.ExecutionResult;
 import com.intellij.execution.RunProfileStarter;
@@ -37,10 +44,24 @@ import com.intellij.execution.runners.ExecutionEnvironment;
 import com.intellij.execution.runners.RunContentBuilder;
 import com.intellij.execution.ui.RunContentDescriptor;
 import com.intellij.internal.statistic.UsageTrigger;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.RefreshQueue;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
 import com.intellij.util.ArrayUtil;
+import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.net.NetUtils;
 import com.intellij.xdebugger.XDebugProcess;
 import com.intellij.xdebugger.XDebugProcessStarter;
@@ -56,6 +77,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.util.*;
 
 public class GoBuildingRunner extends AsyncGenericProgramRunner {
   private static final String ID = "GoBuildingRunner";
@@ -75,21 +97,81 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
     return false;
   }
 
+  /**
+   * The package is refreshed asynchronously, then the fingerprint is computed on a pooled thread,
+   * and the build, if needed, is started on the dispatch thread again.
+   */
   @NotNull
   @Override
-  protected Promise<RunProfileStarter> prepare(@NotNull ExecutionEnvironment environment, @NotNull final RunProfileState state)
+  protected Promise<RunProfileStarter> prepare(@NotNull final ExecutionEnvironment environment, @NotNull RunProfileState state)
     throws ExecutionException {
-    final File outputFile = getOutputFile(environment, (GoApplicationRunningState)state);
+    final GoApplicationRunningState runningState = (GoApplicationRunningState)state;
     FileDocumentManager.getInstance().saveAllDocuments();
 
+    RunnerAndConfigurationSettings settings = environment.getRunnerAndConfigurationSettings();
+    final String configurationName = settings != null ? settings.getName() : "application";
     final AsyncPromise<RunProfileStarter> buildingPromise = new AsyncPromise<RunProfileStarter>();
+    final Application application = ApplicationManager.getApplication();
+    Runnable computeFingerprintAndBuild = new Runnable() {
+      @Override
+      public void run() {
+        application.executeOnPooledThread(new Runnable() {
+          @Override
+          public void run() {
+            final String fingerprint = application.runReadAction(new Computable<String>() {
+              @Override
+              public String compute() {
+                Collection<VirtualFile> sources = getSources(runningState);
+                if (sources == null) return null;
+                return GoBuildCache.getInstance().fingerprint(createBuildExecutor(runningState, null).createCommandLine(),
+                                                              GoBuildTargetSettings.getInstance(environment.getProject())
+                                                                .getTargetSystemDescriptor(runningState.getModule()),
+                                                              sources);
+              }
+            });
+            application.invokeLater(new Runnable() {
+              @Override
+              public void run() {
+                try {
+                  build(runningState, configurationName, fingerprint, buildingPromise);
+                }
+                catch (ExecutionException e) {
+                  buildingPromise.setError(e);
+                }
+              }
+            });
+          }
+        });
+      }
+    };
+    VirtualFile[] roots = VfsUtilCore.toVirtualFileArray(getRefreshRoots(runningState));
+    if (roots.length == 0) {
+      computeFingerprintAndBuild.run();
+    }
+    else {
+      VfsUtil.markDirty(true, true, roots);
+      RefreshQueue.getInstance().refresh(true, true, computeFingerprintAndBuild, roots);
+    }
+    return buildingPromise;
+  }
+
+  private static void build(@NotNull final GoApplicationRunningState runningState,
+                            @NotNull String configurationName,
+                            @Nullable final String fingerprint,
+                            @NotNull final AsyncPromise<RunProfileStarter> buildingPromise) throws ExecutionException {
+    final GoBuildCache cache = GoBuildCache.getInstance();
+    final File outputFile = getOutputFile(runningState, configurationName, fingerprint);
     final GoHistoryProcessListener historyProcessListener = new GoHistoryProcessListener();
-    ((GoApplicationRunningState)state).createCommonExecutor()
-      .withParameters("build")
-      .withParameterString(((GoApplicationRunningState)state).getGoBuildParams())
-      .withParameters("-o", outputFile.getAbsolutePath())
-      .withParameters(((GoApplicationRunningState)state).isDebug() ? new String[]{"-gcflags", "-N -l"} : ArrayUtil.EMPTY_STRING_ARRAY)
-      .withParameters(((GoApplicationRunningState)state).getTarget())
+    if (fingerprint != null && cache.isUpToDate(outputFile, fingerprint)) {
+      buildingPromise.setResult(createStarter(runningState, outputFile, historyProcessListener));
+      return;
+    }
+    if (!prepareFile(outputFile)) {
+      throw new ExecutionException("Cannot make temporary file executable " + outputFile.getAbsolutePath());
+    }
+
+    final String configurationKey = configurationName + "@" + runningState.getTarget();
+    createBuildExecutor(runningState, outputFile)
       .showNotifications(true)
       .showOutputOnError()
       .disablePty()
@@ -101,30 +183,117 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
         public void processTerminated(ProcessEvent event) {
           super.processTerminated(event);
           if (event.getExitCode() == 0) {
-            if (((GoApplicationRunningState)state).isDebug()) {
-              buildingPromise.setResult(new MyDebugStarter(outputFile.getAbsolutePath(), historyProcessListener));
-            }
-            else {
-              buildingPromise.setResult(new MyRunStarter(outputFile.getAbsolutePath(), historyProcessListener));
+            if (fingerprint != null) {
+              cache.buildFinished(configurationKey, outputFile, fingerprint);
             }
+            buildingPromise.setResult(createStarter(runningState, outputFile, historyProcessListener));
           }
           else {
+            cache.buildFailed(outputFile);
             buildingPromise.setResult(null);
             buildingPromise.setError(new ExecutionException(event.getText()));
           }
         }
       }).executeWithProgress(false);
-    return buildingPromise;
   }
 
   @NotNull
-  private static File getOutputFile(@NotNull ExecutionEnvironment environment, @NotNull GoApplicationRunningState state)
-    throws ExecutionException {
+  private static RunProfileStarter createStarter(@NotNull GoApplicationRunningState state,
+                                          @NotNull File outputFile,
+                                          @NotNull GoHistoryProcessListener historyProcessListener) {
+    return state.isDebug()
+           ? new MyDebugStarter(outputFile.getAbsolutePath(), historyProcessListener)
+           : new MyRunStarter(outputFile.getAbsolutePath(), historyProcessListener);
+  }
+
+  /**
+   * Without an output file the command line describes everything that affects the binary, see {@link GoBuildCache#fingerprint}
+   */
+  @NotNull
+  private static GoExecutor createBuildExecutor(@NotNull GoApplicationRunningState state, @Nullable File outputFile) {
+    return state.createCommonExecutor()
+      .withParameters("build")
+      .withParameterString(state.getGoBuildParams())
+      .withParameters(outputFile != null ? new String[]{"-o", outputFile.getAbsolutePath()} : ArrayUtil.EMPTY_STRING_ARRAY)
+      .withParameters(state.isDebug() ? new String[]{"-gcflags", "-N -l"} : ArrayUtil.EMPTY_STRING_ARRAY)
+      .withParameters(state.getTarget());
+  }
+
+  /**
+   * Files changed outside of the IDE, e.g. by {@code go generate} or {@code git pull} in a terminal, may be unknown to VFS yet.
+   * The package or the target file has to be refreshed before computing the fingerprint, otherwise a stale binary would be launched.
+   * Imported packages are left to the regular refresh on frame activation.
+   */
+  @NotNull
+  private static Collection<VirtualFile> getRefreshRoots(@NotNull GoApplicationRunningState state) {
+    if (state.getConfiguration().getKind() == GoApplicationConfiguration.Kind.PACKAGE) {
+      Project project = state.getConfiguration().getProject();
+      if (DumbService.isDumb(project)) return Collections.emptyList();
+      return GoImportPathIndex.getDirectories(state.getTarget(), GoUtil.moduleScope(state.getModule()));
+    }
+    VirtualFile file = LocalFileSystem.getInstance().findFileByPath(state.getTarget());
+    return ContainerUtil.createMaybeSingletonList(file);
+  }
+
+  /**
+   * Sources of the target package or file and of the packages it imports, transitively. SDK packages are skipped,
+   * the SDK is covered by the target system. Returns {@code null} if the sources can't be collected during indexing.
+   */
+  @Nullable
+  private static Collection<VirtualFile> getSources(@NotNull GoApplicationRunningState state) {
+    Project project = state.getConfiguration().getProject();
+    if (DumbService.isDumb(project)) return null;
+    String sdkHomePath = GoSdkService.getInstance(project).getSdkHomePath(state.getModule());
+    VirtualFile sdkHome = sdkHomePath != null ? LocalFileSystem.getInstance().findFileByPath(sdkHomePath) : null;
+    Collection<VirtualFile> sources = ContainerUtil.newArrayList();
+    Set<VirtualFile> visited = ContainerUtil.newHashSet();
+    Deque<VirtualFile> directories = new ArrayDeque<VirtualFile>();
+    if (state.getConfiguration().getKind() == GoApplicationConfiguration.Kind.PACKAGE) {
+      directories.addAll(getRefreshRoots(state));
+    }
+    else {
+      VirtualFile file = LocalFileSystem.getInstance().findFileByPath(state.getTarget());
+      if (file == null) return sources;
+      sources.add(file);
+      addImportedDirectories(project, file, directories);
+    }
+    while (!directories.isEmpty()) {
+      VirtualFile directory = directories.poll();
+      if (!visited.add(directory) || sdkHome != null && VfsUtilCore.isAncestor(sdkHome, directory, false)) continue;
+      for (VirtualFile child : directory.getChildren()) {
+        if (child.isDirectory()) continue;
+        sources.add(child);
+        addImportedDirectories(project, child, directories);
+      }
+    }
+    return sources;
+  }
+
+  private static void addImportedDirectories(@NotNull Project project, @NotNull VirtualFile file, @NotNull Collection<VirtualFile> result) {
+    PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+    if (!(psiFile instanceof GoFile)) return;
+    for (GoImportSpec spec : ((GoFile)psiFile).getImports()) {
+      PsiDirectory directory = spec.getImportString().resolve();
+      if (directory != null) {
+        result.add(directory.getVirtualFile());
+      }
+    }
+  }
+
+  @NotNull
+  private static File getOutputFile(@NotNull GoApplicationRunningState state, @NotNull String configurationName,
+                                    @Nullable String fingerprint) throws ExecutionException {
     final File outputFile;
     String outputDirectoryPath = state.getConfiguration().getOutputFilePath();
-    RunnerAndConfigurationSettings settings = environment.getRunnerAndConfigurationSettings();
-    String configurationName = settings != null ? settings.getName() : "application";
     if (StringUtil.isEmpty(outputDirectoryPath)) {
+      if (fingerprint != null) {
+        outputFile = GoBuildCache.getInstance()
+          .getCachedOutputFile(fingerprint, GoEnvironmentUtil.getBinaryFileNameForPath(configurationName));
+        if (!outputFile.getParentFile().isDirectory() && !outputFile.getParentFile().mkdirs()) {
+          throw new ExecutionException("Cannot create output file in " + outputFile.getParentFile().getAbsolutePath());
+        }
+        return outputFile;
+      }
       try {
         outputFile = FileUtil.createTempFile(configurationName, "go", true);
       }
@@ -149,9 +318,6 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
         throw new ExecutionException("Cannot create output file in " + outputDirectory.getAbsolutePath());
       }
     }
-    if (!prepareFile(outputFile)) {
-      throw new ExecutionException("Cannot make temporary file executable " + outputFile.getAbsolutePath());
-    }
     return outputFile;
   }
 
@@ -165,7 +331,7 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
     return file.setExecutable(true);
   }
   
-  private class MyDebugStarter extends RunProfileStarter {
+  private static class MyDebugStarter extends RunProfileStarter {
     private final String myOutputFilePath;
     private final GoHistoryProcessListener myHistoryProcessListener;
 
@@ -187,7 +353,7 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
         ((GoApplicationRunningState)state).setDebugPort(port);
 
         // start debugger
-        final ExecutionResult executionResult = state.execute(env.getExecutor(), GoBuildingRunner.this);
+        final ExecutionResult executionResult = state.execute(env.getExecutor(), env.getRunner());
         if (executionResult == null) {
           throw new ExecutionException("Cannot run debugger");
         }
@@ -209,7 +375,7 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
     }
   }
 
-  private class MyRunStarter extends RunProfileStarter {
+  private static class MyRunStarter extends RunProfileStarter {
     private final String myOutputFilePath;
     private final GoHistoryProcessListener myHistoryProcessListener;
 
@@ -227,7 +393,7 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
         FileDocumentManager.getInstance().saveAllDocuments();
         ((GoApplicationRunningState)state).setHistoryProcessHandler(myHistoryProcessListener);
         ((GoApplicationRunningState)state).setOutputFilePath(myOutputFilePath);
-        ExecutionResult executionResult = state.execute(env.getExecutor(), GoBuildingRunner.this);
+        ExecutionResult executionResult = state.execute(env.getExecutor(), env.getRunner());
         return executionResult != null ? new RunContentBuilder(executionResult, env).showRunContent(env.getContentToReuse()) : null;
       }
       return null;
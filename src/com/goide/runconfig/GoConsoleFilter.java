@@ -39,7 +39,9 @@ import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,10 +50,13 @@ public class GoConsoleFilter implements Filter {
   private static final Pattern GO_GET_MESSAGE_PATTERN = Pattern.compile("^[ \t]*(go get (.*))\n?$");
   private static final Pattern APP_ENGINE_PATH_PATTERN = Pattern.compile("/tmp[A-z0-9]+appengine-go-bin/");
   private static final Pattern GO_FILE_PATTERN = Pattern.compile("\\((\\w+\\.go)\\)");
+  private static final int CACHE_SIZE = 256;
 
   @NotNull private final Project myProject;
   @Nullable private final Module myModule;
   @Nullable private final String myWorkingDirectoryUrl;
+  @NotNull private final FileCache myResolvedFiles = new FileCache();
+  @NotNull private final FileCache mySingleFiles = new FileCache();
 
   @SuppressWarnings("unused") //used by pico container
   public GoConsoleFilter(@NotNull Project project) {
@@ -66,6 +71,8 @@ public class GoConsoleFilter implements Filter {
 
   @Override
   public Result applyFilter(@NotNull String line, int entireLength) {
+    if (!mayContainReference(line)) return null;
+
     Matcher goGetMatcher = GO_GET_MESSAGE_PATTERN.matcher(line);
     if (goGetMatcher.find() && myModule != null) {
       String packageName = goGetMatcher.group(2).trim();
@@ -78,7 +85,7 @@ public class GoConsoleFilter implements Filter {
       Matcher fileMatcher = GO_FILE_PATTERN.matcher(line);
       List<ResultItem> resultItems = ContainerUtil.newArrayList();
       while (fileMatcher.find()) {
-        VirtualFile file = findSingleFile(fileMatcher.group(1));
+        VirtualFile file = findSingleFileCached(fileMatcher.group(1));
         if (file != null) {
           resultItems.add(createResult(line, entireLength, fileMatcher.start(1), fileMatcher.end(1), 0, 0, file));
         }
@@ -106,6 +113,19 @@ public class GoConsoleFilter implements Filter {
       fileName = fileName.substring(appEnginePathMatcher.end());
     }
 
+    VirtualFile virtualFile = myResolvedFiles.get(fileName);
+    if (virtualFile == null && !myResolvedFiles.isUnresolved(fileName)) {
+      virtualFile = resolveFile(fileName);
+      myResolvedFiles.put(fileName, virtualFile);
+    }
+    if (virtualFile == null) {
+      return null;
+    }
+    return createResult(line, entireLength, startOffset, endOffset, lineNumber, columnNumber, virtualFile);
+  }
+
+  @Nullable
+  private VirtualFile resolveFile(@NotNull String fileName) {
     VirtualFile virtualFile = null;
     if (FileUtil.isAbsolutePlatformIndependent(fileName)) {
       virtualFile = ApplicationManager.getApplication().isUnitTestMode()
@@ -136,10 +156,20 @@ public class GoConsoleFilter implements Filter {
     if (virtualFile == null) {
       virtualFile = findSingleFile(fileName);
     }
-    if (virtualFile == null) {
-      return null;
+    return virtualFile;
+  }
+
+  /**
+   * Every pattern needs either a {@code go get} command, a {@code (file.go)} reference or a {@code :<digit>} position,
+   * most of the output has none of them
+   */
+  private static boolean mayContainReference(@NotNull String line) {
+    for (int i = 0; i < line.length() - 1; i++) {
+      char c = line.charAt(i);
+      if (c == ':' && Character.isDigit(line.charAt(i + 1))) return true;
+      if (c == ')' && i >= 3 && line.startsWith(".go", i - 3)) return true;
     }
-    return createResult(line, entireLength, startOffset, endOffset, lineNumber, columnNumber, virtualFile);
+    return line.endsWith(".go)") || line.contains("go get ");
   }
 
   @NotNull
@@ -155,6 +185,16 @@ public class GoConsoleFilter implements Filter {
     return new Result(lineStart + startOffset, lineStart + endOffset, hyperlinkInfo);
   }
 
+  @Nullable
+  private VirtualFile findSingleFileCached(@NotNull String fileName) {
+    VirtualFile file = mySingleFiles.get(fileName);
+    if (file == null && !mySingleFiles.isUnresolved(fileName)) {
+      file = findSingleFile(fileName);
+      mySingleFiles.put(fileName, file);
+    }
+    return file;
+  }
+
   @Nullable
   private VirtualFile findSingleFile(@NotNull String fileName) {
     if (PathUtil.isValidFileName(fileName)) {
@@ -177,6 +217,44 @@ public class GoConsoleFilter implements Filter {
     return GoSdkUtil.findFileByRelativeToLibrariesPath(fileName, myProject, myModule);
   }
 
+  /**
+   * Bounded cache of path lookups, dropped as soon as files are created, deleted, moved or renamed
+   */
+  private static class FileCache {
+    private final Map<String, VirtualFile> myFiles = new LinkedHashMap<String, VirtualFile>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, VirtualFile> eldest) {
+        return size() > CACHE_SIZE;
+      }
+    };
+    private long myModificationCount = -1;
+
+    @Nullable
+    public synchronized VirtualFile get(@NotNull String path) {
+      validate();
+      VirtualFile file = myFiles.get(path);
+      return file != null && file.isValid() ? file : null;
+    }
+
+    public synchronized boolean isUnresolved(@NotNull String path) {
+      validate();
+      return myFiles.containsKey(path) && myFiles.get(path) == null;
+    }
+
+    public synchronized void put(@NotNull String path, @Nullable VirtualFile file) {
+      validate();
+      myFiles.put(path, file);
+    }
+
+    private void validate() {
+      long modificationCount = VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS.getModificationCount();
+      if (modificationCount != myModificationCount) {
+        myFiles.clear();
+        myModificationCount = modificationCount;
+      }
+    }
+  }
+
   public static class GoGetHyperlinkInfo implements HyperlinkInfo {
     private final String myPackageName;
     private final Module myModule;
@@ -36,6 +36,11 @@ public abstract class GoRunningState<T extends GoRunConfigurationBase<?>> extend
 
   @NotNull protected final T myConfiguration;
 
+  @NotNull
+  public Module getModule() {
+    return myModule;
+  }
+
   public GoRunningState(@NotNull ExecutionEnvironment env, @NotNull Module module, @NotNull T configuration) {
     super(env);
     myModule = module;
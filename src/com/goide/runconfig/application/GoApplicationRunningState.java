@@ -17,6 +17,7 @@
 package com.goide.runconfig.application;
 
 import com.goide.GoConstants;
+import com.goide.runconfig.GoBuildCache;
 import com.goide.runconfig.GoRunningState;
 import com.goide.util.GoExecutor;
 import com.goide.util.GoHistoryProcessListener;
@@ -85,7 +86,7 @@ public class GoApplicationRunningState extends GoRunningState<GoApplicationConfi
         super.processTerminated(event);
         if (StringUtil.isEmpty(myConfiguration.getOutputFilePath())) {
           File file = new File(myOutputFilePath);
-          if (file.exists()) {
+          if (file.exists() && !GoBuildCache.getInstance().isCachedOutputFile(file)) {
             //noinspection ResultOfMethodCallIgnored
             file.delete();
           }
@@ -16,6 +16,7 @@
 
 package com.goide.runconfig.testing.coverage;
 
+import com.intellij.concurrency.JobLauncher;
 import com.intellij.coverage.BaseCoverageAnnotator;
 import com.intellij.coverage.CoverageDataManager;
 import com.intellij.coverage.CoverageSuite;
@@ -27,29 +28,38 @@ import com.intellij.openapi.roots.FileIndexFacade;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.util.Factory;
-import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileVisitor;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiFile;
 import com.intellij.rt.coverage.data.ProjectData;
 import com.intellij.util.Processor;
 import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
+import java.io.File;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
 
 public class GoCoverageAnnotator extends BaseCoverageAnnotator {
   private static final String STATEMENTS_SUFFIX = "% statements";
   private static final String FILES_SUFFIX = "% files";
 
-  private final Map<String, FileCoverageInfo> myFileCoverageInfos = ContainerUtil.newHashMap();
-  private final Map<String, DirCoverageInfo> myDirCoverageInfos = ContainerUtil.newHashMap();
+  private final Map<String, FileCoverageInfo> myFileCoverageInfos = ContainerUtil.newConcurrentMap();
+  private final Map<String, DirCoverageInfo> myDirCoverageInfos = ContainerUtil.newConcurrentMap();
+
+  /**
+   * Suites with their stamps, merged data and content roots the current infos were computed for,
+   * a bundle that only adds suites to them is annotated incrementally
+   */
+  private final Map<CoverageSuite, Pair<Long, Long>> myAnnotatedSuites = ContainerUtil.newHashMap();
+  private GoCoverageProjectData myAnnotatedData = new GoCoverageProjectData();
+  private VirtualFile[] myAnnotatedRoots = VirtualFile.EMPTY_ARRAY;
 
   public GoCoverageAnnotator(@NotNull Project project) {
     super(project);
@@ -125,49 +135,100 @@ public class GoCoverageAnnotator extends BaseCoverageAnnotator {
   @Override
   public void onSuiteChosen(CoverageSuitesBundle newSuite) {
     super.onSuiteChosen(newSuite);
-    myFileCoverageInfos.clear();
-    myDirCoverageInfos.clear();
+    synchronized (myAnnotatedSuites) {
+      if (newSuite == null || !getStamps(newSuite.getSuites()).entrySet().containsAll(myAnnotatedSuites.entrySet())) {
+        reset();
+      }
+    }
   }
 
   @Nullable
   @Override
   protected Runnable createRenewRequest(@NotNull CoverageSuitesBundle bundle, @NotNull final CoverageDataManager manager) {
-    final GoCoverageProjectData data = new GoCoverageProjectData();
-    for (CoverageSuite suite : bundle.getSuites()) {
-      ProjectData toMerge = suite.getCoverageData(manager);
-      if (toMerge != null) {
-        data.merge(toMerge);
-      }
+    final Map<CoverageSuite, Pair<Long, Long>> suites = getStamps(bundle.getSuites());
+    final Map<CoverageSuite, Pair<Long, Long>> annotatedSuites;
+    synchronized (myAnnotatedSuites) {
+      annotatedSuites = ContainerUtil.newHashMap(myAnnotatedSuites);
     }
+    final boolean incremental = !annotatedSuites.isEmpty() && suites.entrySet().containsAll(annotatedSuites.entrySet());
+    Set<CoverageSuite> excluded = incremental ? annotatedSuites.keySet() : Collections.<CoverageSuite>emptySet();
+    final GoCoverageProjectData data = collectData(suites.keySet(), excluded, manager);
 
     return new Runnable() {
       public void run() {
-        annotateAllFiles(data, (VirtualFile[])manager.doInReadActionIfProjectOpen(new Computable() {
+        VirtualFile[] roots = (VirtualFile[])manager.doInReadActionIfProjectOpen(new Computable() {
           public VirtualFile[] compute() {
             return ProjectRootManager.getInstance(getProject()).getContentRoots();
           }
-        }));
+        });
+        if (roots == null) return;
+        synchronized (myAnnotatedSuites) {
+          if (incremental && myAnnotatedSuites.equals(annotatedSuites) && Arrays.equals(myAnnotatedRoots, roots)) {
+            myAnnotatedData.merge(data);
+            annotateFiles(myAnnotatedData, data.getFilePaths(), roots);
+          }
+          else {
+            annotateAllFiles(incremental ? collectData(suites.keySet(), Collections.<CoverageSuite>emptySet(), manager) : data, roots);
+          }
+          myAnnotatedSuites.clear();
+          myAnnotatedSuites.putAll(suites);
+        }
         manager.triggerPresentationUpdate();
       }
     };
   }
 
+  @TestOnly
+  public void renew(@NotNull CoverageSuitesBundle bundle, @NotNull CoverageDataManager manager) {
+    Runnable request = createRenewRequest(bundle, manager);
+    if (request != null) {
+      request.run();
+    }
+  }
+
+  /**
+   * Suites are equal when they read the same coverage file, so re-running a configuration gives a suite equal to the annotated one
+   * but with new data. They are told apart by the time of the run and the modification time of the file.
+   */
   @NotNull
-  private DirCoverageInfo getOrCreateDirectoryInfo(VirtualFile file) {
-    return ContainerUtil.getOrCreate(myDirCoverageInfos, file.getPath(), new Factory<DirCoverageInfo>() {
-      @Override
-      public DirCoverageInfo create() {
-        return new DirCoverageInfo();
+  private static Map<CoverageSuite, Pair<Long, Long>> getStamps(@NotNull CoverageSuite[] suites) {
+    Map<CoverageSuite, Pair<Long, Long>> result = ContainerUtil.newHashMap();
+    for (CoverageSuite suite : suites) {
+      String fileName = suite.getCoverageDataFileName();
+      result.put(suite, Pair.create(suite.getLastCoverageTimeStamp(), fileName != null ? new File(fileName).lastModified() : 0));
+    }
+    return result;
+  }
+
+  @NotNull
+  private static GoCoverageProjectData collectData(@NotNull Collection<CoverageSuite> suites,
+                                                   @NotNull Set<CoverageSuite> excluded,
+                                                   @NotNull CoverageDataManager manager) {
+    GoCoverageProjectData data = new GoCoverageProjectData();
+    for (CoverageSuite suite : suites) {
+      if (excluded.contains(suite)) continue;
+      ProjectData toMerge = suite.getCoverageData(manager);
+      if (toMerge != null) {
+        data.merge(toMerge);
       }
-    });
+    }
+    return data;
+  }
+
+  private void reset() {
+    myFileCoverageInfos.clear();
+    myDirCoverageInfos.clear();
+    myAnnotatedSuites.clear();
+    myAnnotatedData = new GoCoverageProjectData();
+    myAnnotatedRoots = VirtualFile.EMPTY_ARRAY;
   }
 
   @NotNull
-  private FileCoverageInfo getOrCreateFileInfo(VirtualFile file) {
-    return ContainerUtil.getOrCreate(myFileCoverageInfos, file.getPath(), new Factory<FileCoverageInfo>() {
+  private DirCoverageInfo getOrCreateDirectoryInfo(VirtualFile file) {
+    return ContainerUtil.getOrCreate(myDirCoverageInfos, file.getPath(), new Factory<DirCoverageInfo>() {
       @Override
-      public FileCoverageInfo create() {
-        return new FileCoverageInfo();
+      public DirCoverageInfo create() {
+        return new DirCoverageInfo();
       }
     });
   }
@@ -191,58 +252,111 @@ public class GoCoverageAnnotator extends BaseCoverageAnnotator {
     return total != 0 ? (double)covered / total : 0;
   }
 
-  public void annotateAllFiles(@NotNull final GoCoverageProjectData data,
-                               @Nullable VirtualFile... contentRoots) {
-    if (contentRoots != null) {
+  public void annotateAllFiles(@NotNull GoCoverageProjectData data, @Nullable VirtualFile... contentRoots) {
+    synchronized (myAnnotatedSuites) {
+      reset();
+      if (contentRoots == null) return;
+      myAnnotatedData.merge(data);
+      annotateFiles(myAnnotatedData, myAnnotatedData.getFilePaths(), contentRoots);
+    }
+  }
+
+  /**
+   * Recomputes infos of the given files from {@code data} and applies the differences to their directories.
+   * Files are grouped by directory and every group is computed concurrently, the roll-up to the ancestors
+   * (up to the parent of the content root) is done afterwards on the calling thread.
+   */
+  private void annotateFiles(@NotNull final GoCoverageProjectData data,
+                             @NotNull Collection<String> filePaths,
+                             @NotNull VirtualFile[] contentRoots) {
+    myAnnotatedRoots = contentRoots;
+    final MultiMap<VirtualFile, VirtualFile> filesByDirectory = MultiMap.createLinked();
+    final Map<VirtualFile, VirtualFile> rootsByDirectory = ContainerUtil.newHashMap();
+    for (String filePath : filePaths) {
+      ProgressIndicatorProvider.checkCanceled();
       for (VirtualFile root : contentRoots) {
-        VfsUtilCore.visitChildrenRecursively(root, new VirtualFileVisitor() {
-          @NotNull
-          @Override
-          public Result visitFileEx(@NotNull VirtualFile file) {
-            ProgressIndicatorProvider.checkCanceled();
-
-            if (file.isDirectory() && !FileIndexFacade.getInstance(getProject()).isInContent(file)) {
-              return SKIP_CHILDREN;
-            }
-            if (!file.isDirectory() && GoCoverageEngine.INSTANCE.coverageProjectViewStatisticsApplicableTo(file)) {
-              DirCoverageInfo dirCoverageInfo = getOrCreateDirectoryInfo(file.getParent());
-              final FileCoverageInfo fileCoverageInfo = getOrCreateFileInfo(file);
-              data.processFile(file.getPath(), new Processor<GoCoverageProjectData.RangeData>() {
-                @Override
-                public boolean process(GoCoverageProjectData.RangeData rangeData) {
-                  if (rangeData.hits > 0) {
-                    fileCoverageInfo.coveredLineCount += rangeData.statements;
-                  }
-                  fileCoverageInfo.totalLineCount += rangeData.statements;
-                  return true;
-                }
-              });
-
-              if (fileCoverageInfo.totalLineCount > 0) {
-                dirCoverageInfo.totalLineCount += fileCoverageInfo.totalLineCount;
-                dirCoverageInfo.totalFilesCount++;
-              }
-              if (fileCoverageInfo.coveredLineCount > 0) {
-                dirCoverageInfo.coveredLineCount += fileCoverageInfo.coveredLineCount;
-                dirCoverageInfo.coveredFilesCount++;
-              }
-            }
-            return CONTINUE;
-          }
+        String rootPath = StringUtil.trimEnd(root.getPath(), "/") + "/";
+        if (!filePath.startsWith(rootPath)) continue;
+        VirtualFile file = root.findFileByRelativePath(filePath.substring(rootPath.length()));
+        if (file != null && isApplicable(file)) {
+          filesByDirectory.putValue(file.getParent(), file);
+          rootsByDirectory.put(file.getParent(), root);
+        }
+        break;
+      }
+    }
+
+    final Map<VirtualFile, DirCoverageInfo> deltas = ContainerUtil.newConcurrentMap();
+    List<VirtualFile> directories = ContainerUtil.newArrayList(filesByDirectory.keySet());
+    JobLauncher.getInstance().invokeConcurrentlyUnderProgress(directories, ProgressIndicatorProvider.getGlobalProgressIndicator(), false,
+                                                              new Processor<VirtualFile>() {
+                                                                @Override
+                                                                public boolean process(VirtualFile directory) {
+                                                                  deltas.put(directory, annotateDirectoryFiles(data, filesByDirectory.get(directory)));
+                                                                  return true;
+                                                                }
+                                                              });
 
-          @Override
-          public void afterChildrenVisited(@NotNull VirtualFile file) {
-            if (file.isDirectory()) {
-              DirCoverageInfo currentCoverageInfo = getOrCreateDirectoryInfo(file);
-              DirCoverageInfo parentCoverageInfo = getOrCreateDirectoryInfo(file.getParent());
-              parentCoverageInfo.totalFilesCount += currentCoverageInfo.totalFilesCount;
-              parentCoverageInfo.coveredFilesCount += currentCoverageInfo.coveredFilesCount;
-              parentCoverageInfo.totalLineCount += currentCoverageInfo.totalLineCount;
-              parentCoverageInfo.coveredLineCount += currentCoverageInfo.coveredLineCount;
-            }
+    for (Map.Entry<VirtualFile, DirCoverageInfo> entry : deltas.entrySet()) {
+      addToDirectories(entry.getKey(), rootsByDirectory.get(entry.getKey()), entry.getValue());
+    }
+  }
+
+  private void addToDirectories(@NotNull VirtualFile directory, @NotNull VirtualFile root, @NotNull DirCoverageInfo delta) {
+    VirtualFile current = directory;
+    while (current != null) {
+      DirCoverageInfo info = getOrCreateDirectoryInfo(current);
+      info.totalFilesCount += delta.totalFilesCount;
+      info.coveredFilesCount += delta.coveredFilesCount;
+      info.totalLineCount += delta.totalLineCount;
+      info.coveredLineCount += delta.coveredLineCount;
+      if (current.equals(root.getParent())) return;
+      current = current.equals(root) ? root.getParent() : current.getParent();
+    }
+  }
+
+  private boolean isApplicable(@NotNull VirtualFile file) {
+    return !file.isDirectory() &&
+           GoCoverageEngine.INSTANCE.coverageProjectViewStatisticsApplicableTo(file) &&
+           FileIndexFacade.getInstance(getProject()).isInContent(file);
+  }
+
+  /**
+   * Returns the difference the new infos of {@code files} make for their directory
+   */
+  @NotNull
+  private DirCoverageInfo annotateDirectoryFiles(@NotNull GoCoverageProjectData data, @NotNull Collection<VirtualFile> files) {
+    DirCoverageInfo delta = new DirCoverageInfo();
+    for (VirtualFile file : files) {
+      ProgressIndicatorProvider.checkCanceled();
+      final FileCoverageInfo fileCoverageInfo = new FileCoverageInfo();
+      data.processFile(file.getPath(), new Processor<GoCoverageProjectData.RangeData>() {
+        @Override
+        public boolean process(GoCoverageProjectData.RangeData rangeData) {
+          if (rangeData.hits > 0) {
+            fileCoverageInfo.coveredLineCount += rangeData.statements;
           }
-        });
+          fileCoverageInfo.totalLineCount += rangeData.statements;
+          return true;
+        }
+      });
+      addContribution(delta, fileCoverageInfo, 1);
+      FileCoverageInfo oldInfo = myFileCoverageInfos.put(file.getPath(), fileCoverageInfo);
+      if (oldInfo != null) {
+        addContribution(delta, oldInfo, -1);
       }
     }
+    return delta;
+  }
+
+  private static void addContribution(@NotNull DirCoverageInfo dirCoverageInfo, @NotNull FileCoverageInfo fileCoverageInfo, int sign) {
+    if (fileCoverageInfo.totalLineCount > 0) {
+      dirCoverageInfo.totalLineCount += sign * fileCoverageInfo.totalLineCount;
+      dirCoverageInfo.totalFilesCount += sign;
+    }
+    if (fileCoverageInfo.coveredLineCount > 0) {
+      dirCoverageInfo.coveredLineCount += sign * fileCoverageInfo.coveredLineCount;
+      dirCoverageInfo.coveredFilesCount += sign;
+    }
   }
 }
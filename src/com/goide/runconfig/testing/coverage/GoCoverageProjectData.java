@@ -19,10 +19,13 @@ package com.goide.runconfig.testing.coverage;
 import com.intellij.openapi.util.Factory;
 import com.intellij.rt.coverage.data.CoverageData;
 import com.intellij.rt.coverage.data.ProjectData;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.Processor;
 import com.intellij.util.containers.ContainerUtil;
+import gnu.trove.TLongIntHashMap;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.Map;
 
 public class GoCoverageProjectData extends ProjectData {
@@ -37,25 +40,30 @@ public class GoCoverageProjectData extends ProjectData {
     }
   }
 
+  @NotNull
+  public Collection<String> getFilePaths() {
+    return myFilesData.keySet();
+  }
+
   public void processFile(@NotNull String filePath, @NotNull Processor<RangeData> processor) {
     FileData fileData = myFilesData.get(filePath);
     if (fileData != null) {
-      for (RangeData rangeData : fileData.myRangesData.values()) {
-        if (!processor.process(rangeData)) {
-          return;
-        }
-      }
+      fileData.processRanges(processor);
     }
   }
 
-  public void addData(final String filePath, int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-    FileData fileData = ContainerUtil.getOrCreate(myFilesData, filePath, new Factory<FileData>() {
+  @NotNull
+  public FileData getOrCreateFileData(@NotNull final String filePath) {
+    return ContainerUtil.getOrCreate(myFilesData, filePath, new Factory<FileData>() {
       @Override
       public FileData create() {
         return new FileData(filePath);
       }
     });
-    fileData.add(startLine, startColumn, endLine, endColumn, statements, hits);
+  }
+
+  public void addData(String filePath, int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
+    getOrCreateFileData(filePath).add(startLine, startColumn, endLine, endColumn, statements, hits);
   }
 
   @Override
@@ -67,21 +75,10 @@ public class GoCoverageProjectData extends ProjectData {
         FileData fileData = myFilesData.get(filePath);
         FileData fileDataToMerge = entry.getValue();
         if (fileData != null) {
-          for (Map.Entry<String, RangeData> dataEntry : fileDataToMerge.myRangesData.entrySet()) {
-            RangeData existingRangeData = fileData.myRangesData.get(dataEntry.getKey());
-            if (existingRangeData != null) {
-              fileData.myRangesData.put(dataEntry.getKey(),
-                                        new RangeData(existingRangeData.startLine, existingRangeData.startColumn, existingRangeData.endLine,
-                                                      existingRangeData.endColumn, existingRangeData.statements,
-                                                      existingRangeData.hits + dataEntry.getValue().hits));
-            }
-            else {
-              fileData.myRangesData.put(dataEntry.getKey(), dataEntry.getValue());
-            }
-          }
+          fileData.merge(fileDataToMerge);
         }
         else {
-          myFilesData.put(filePath, fileDataToMerge);
+          myFilesData.put(filePath, fileDataToMerge.copy());
         }
       }
     }
@@ -104,19 +101,135 @@ public class GoCoverageProjectData extends ProjectData {
     return myFilesData.hashCode();
   }
 
+  /**
+   * Ranges of a single file packed into an int array, {@link #STRIDE} ints per range.
+   * Ranges with the same start position are chained through the {@link #NEXT} slot,
+   * the head of every chain is found by the packed start position.
+   */
   public static class FileData {
+    private static final int START_LINE = 0;
+    private static final int START_COLUMN = 1;
+    private static final int END_LINE = 2;
+    private static final int END_COLUMN = 3;
+    private static final int STATEMENTS = 4;
+    private static final int HITS = 5;
+    private static final int NEXT = 6;
+    private static final int STRIDE = 7;
+
     @NotNull
     public final String myFilePath;
     @NotNull
-    public final Map<String, RangeData> myRangesData = ContainerUtil.newHashMap();
+    private final TLongIntHashMap myChainHeads = new TLongIntHashMap();
+    @NotNull
+    private int[] myRanges = new int[STRIDE * 16];
+    private int myRangesCount;
 
     public FileData(@NotNull String filePath) {
       myFilePath = filePath;
     }
 
+    public int getRangesCount() {
+      return myRangesCount;
+    }
+
+    public int getStartLine(int index) {
+      return myRanges[index * STRIDE + START_LINE];
+    }
+
+    public int getEndLine(int index) {
+      return myRanges[index * STRIDE + END_LINE];
+    }
+
+    public int getStatements(int index) {
+      return myRanges[index * STRIDE + STATEMENTS];
+    }
+
+    public int getHits(int index) {
+      return myRanges[index * STRIDE + HITS];
+    }
+
+    @NotNull
+    public RangeData getRange(int index) {
+      int offset = index * STRIDE;
+      return new RangeData(myRanges[offset + START_LINE], myRanges[offset + START_COLUMN], myRanges[offset + END_LINE],
+                           myRanges[offset + END_COLUMN], myRanges[offset + STATEMENTS], myRanges[offset + HITS]);
+    }
+
+    public void processRanges(@NotNull Processor<RangeData> processor) {
+      for (int i = 0; i < myRangesCount; i++) {
+        if (!processor.process(getRange(i))) {
+          return;
+        }
+      }
+    }
+
     public void add(int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-      myRangesData.put(rangeKey(startLine, startColumn, endLine, endColumn),
-                       new RangeData(startLine, startColumn, endLine, endColumn, statements, hits));
+      int index = findOrCreate(startLine, startColumn, endLine, endColumn);
+      myRanges[index * STRIDE + STATEMENTS] = statements;
+      myRanges[index * STRIDE + HITS] = hits;
+    }
+
+    private void merge(@NotNull FileData data) {
+      for (int i = 0; i < data.myRangesCount; i++) {
+        int offset = i * STRIDE;
+        int[] ranges = data.myRanges;
+        int index = findOrCreate(ranges[offset + START_LINE], ranges[offset + START_COLUMN], ranges[offset + END_LINE],
+                                 ranges[offset + END_COLUMN]);
+        if (index == myRangesCount - 1 && myRanges[index * STRIDE + STATEMENTS] == -1) {
+          myRanges[index * STRIDE + STATEMENTS] = ranges[offset + STATEMENTS];
+          myRanges[index * STRIDE + HITS] = ranges[offset + HITS];
+        }
+        else {
+          long hits = (long)myRanges[index * STRIDE + HITS] + ranges[offset + HITS];
+          myRanges[index * STRIDE + HITS] = (int)Math.min(hits, Integer.MAX_VALUE);
+        }
+      }
+    }
+
+    @NotNull
+    private FileData copy() {
+      FileData copy = new FileData(myFilePath);
+      copy.merge(this);
+      return copy;
+    }
+
+    private int find(int startLine, int startColumn, int endLine, int endColumn) {
+      long start = startKey(startLine, startColumn);
+      int index = myChainHeads.containsKey(start) ? myChainHeads.get(start) : -1;
+      while (index != -1) {
+        int offset = index * STRIDE;
+        if (myRanges[offset + END_LINE] == endLine && myRanges[offset + END_COLUMN] == endColumn) return index;
+        index = myRanges[offset + NEXT];
+      }
+      return -1;
+    }
+
+    /**
+     * Returns the index of the given range, new ranges are appended with -1 statements
+     */
+    private int findOrCreate(int startLine, int startColumn, int endLine, int endColumn) {
+      int existing = find(startLine, startColumn, endLine, endColumn);
+      if (existing != -1) return existing;
+
+      int index = myRangesCount++;
+      int offset = index * STRIDE;
+      if (offset + STRIDE > myRanges.length) {
+        myRanges = ArrayUtil.realloc(myRanges, myRanges.length * 2);
+      }
+      long start = startKey(startLine, startColumn);
+      myRanges[offset + START_LINE] = startLine;
+      myRanges[offset + START_COLUMN] = startColumn;
+      myRanges[offset + END_LINE] = endLine;
+      myRanges[offset + END_COLUMN] = endColumn;
+      myRanges[offset + STATEMENTS] = -1;
+      myRanges[offset + HITS] = 0;
+      myRanges[offset + NEXT] = myChainHeads.containsKey(start) ? myChainHeads.get(start) : -1;
+      myChainHeads.put(start, index);
+      return index;
+    }
+
+    private static long startKey(int line, int column) {
+      return (long)line << 32 | column & 0xFFFFFFFFL;
     }
 
     @Override
@@ -127,16 +240,25 @@ public class GoCoverageProjectData extends ProjectData {
       FileData fileData = (FileData)o;
 
       if (!myFilePath.equals(fileData.myFilePath)) return false;
-      if (!myRangesData.equals(fileData.myRangesData)) return false;
+      if (myRangesCount != fileData.myRangesCount) return false;
+      for (int i = 0; i < myRangesCount; i++) {
+        int offset = i * STRIDE;
+        int index = fileData.find(myRanges[offset + START_LINE], myRanges[offset + START_COLUMN], myRanges[offset + END_LINE],
+                                  myRanges[offset + END_COLUMN]);
+        if (index == -1) return false;
+        if (fileData.getStatements(index) != getStatements(i) || fileData.getHits(index) != getHits(i)) return false;
+      }
 
       return true;
     }
 
     @Override
     public int hashCode() {
-      int result = myFilePath.hashCode();
-      result = 31 * result + myRangesData.hashCode();
-      return result;
+      int rangesHash = 0;
+      for (int i = 0; i < myRangesCount; i++) {
+        rangesHash += getRange(i).hashCode();
+      }
+      return 31 * myFilePath.hashCode() + rangesHash;
     }
   }
 
@@ -187,11 +309,7 @@ public class GoCoverageProjectData extends ProjectData {
 
     @Override
     public String toString() {
-      return rangeKey(startLine, startColumn, endLine, endColumn) + "; hits: " + hits + "; statements: " + statements;
+      return startLine + ":" + startColumn + "-" + endLine + ":" + endColumn + "; hits: " + hits + "; statements: " + statements;
     }
   }
-
-  private static String rangeKey(int startLine, int startColumn, int endLine, int endColumn) {
-    return startLine + ":" + startColumn + "-" + endLine + ":" + endColumn;
-  }
 }
@@ -27,19 +27,22 @@ import com.intellij.execution.configurations.RunConfigurationBase;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.CharsetToolkit;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.rt.coverage.data.ClassData;
 import com.intellij.rt.coverage.data.LineData;
 import com.intellij.rt.coverage.data.ProjectData;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
 import gnu.trove.TIntObjectHashMap;
 import gnu.trove.TObjectProcedure;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Map;
 
 public class GoCoverageRunner extends CoverageRunner {
   private static final Logger LOG = Logger.getInstance(GoCoverageRunner.class);
@@ -63,16 +66,16 @@ public class GoCoverageRunner extends CoverageRunner {
                     : null;
 
     try {
-      BufferedReader reader = new BufferedReader(new FileReader(sessionDataFile.getAbsolutePath()));
+      InputStream stream = new BufferedInputStream(new FileInputStream(sessionDataFile));
       try {
-        return parseCoverage(reader, project, module);
+        return parseCoverage(stream, project, module);
       }
       catch (IOException e) {
         LOG.warn(e);
       }
       finally {
         try {
-          reader.close();
+          stream.close();
         }
         catch (IOException e) {
           LOG.warn(e);
@@ -87,38 +90,11 @@ public class GoCoverageRunner extends CoverageRunner {
   }
 
   @Nullable
-  public static GoCoverageProjectData parseCoverage(@NotNull BufferedReader dataReader,
+  public static GoCoverageProjectData parseCoverage(@NotNull InputStream dataStream,
                                                     @NotNull Project project,
                                                     @Nullable Module module) throws IOException {
     final GoCoverageProjectData result = new GoCoverageProjectData();
-    String line;
-
-    while ((line = dataReader.readLine()) != null) {
-      if (line.isEmpty()) continue;
-      List<String> fileNameTail = StringUtil.split(line, ":");
-      VirtualFile file = GoSdkUtil.findFileByRelativeToLibrariesPath(fileNameTail.get(0), project, module);
-      if (file == null) continue;
-      String filePath = file.getPath();
-
-      List<String> tailParts = StringUtil.split(fileNameTail.get(1), " ");
-      if (tailParts.size() != 3) continue;
-
-      int statements = Integer.parseInt(tailParts.get(1));
-      int hit = Integer.parseInt(tailParts.get(2));
-
-      String offsets = tailParts.get(0);
-      int firstDot = offsets.indexOf('.');
-      int comma = offsets.indexOf(',', firstDot);
-      int secondDot = offsets.indexOf('.', comma);
-      if (firstDot == -1 || comma == -1 || secondDot == -1) continue;
-
-      int lineStart = Integer.parseInt(offsets.substring(0, firstDot));
-      int columnStart = Integer.parseInt(offsets.substring(firstDot + 1, comma));
-      int lineEnd = Integer.parseInt(offsets.substring(comma + 1, secondDot));
-      int columnEnd = Integer.parseInt(offsets.substring(secondDot + 1));
-
-      result.addData(filePath, lineStart, columnStart, lineEnd, columnEnd, statements, hit);
-    }
+    new ProfileParser(result, project, module).parse(dataStream);
 
     result.processFiles(new Processor<GoCoverageProjectData.FileData>() {
       @Override
@@ -126,22 +102,24 @@ public class GoCoverageRunner extends CoverageRunner {
         ClassData classData = result.getOrCreateClassData(fileData.myFilePath);
         int max = -1;
         TIntObjectHashMap<LineData> linesMap = new TIntObjectHashMap<LineData>();
-        for (GoCoverageProjectData.RangeData rangeData : fileData.myRangesData.values()) {
-          for (int i = rangeData.startLine; i <= rangeData.endLine; i++) {
+        for (int range = 0; range < fileData.getRangesCount(); range++) {
+          int endLine = fileData.getEndLine(range);
+          int hits = fileData.getHits(range);
+          for (int i = fileData.getStartLine(range); i <= endLine; i++) {
             LineData existingData = linesMap.get(i);
             if (existingData != null) {
-              existingData.setHits(existingData.getHits() + rangeData.hits);
+              existingData.setHits(existingData.getHits() + hits);
               // emulate partial
               existingData.setFalseHits(0, 0);
               existingData.setTrueHits(0, 0);
             }
             else {
               LineData newData = new LineData(i, null);
-              newData.setHits(newData.getHits() + rangeData.hits);
+              newData.setHits(newData.getHits() + hits);
               linesMap.put(i, newData);
             }
           }
-          max = Math.max(max, rangeData.endLine);
+          max = Math.max(max, endLine);
         }
 
         final LineData[] linesArray = new LineData[max + 1];
@@ -161,6 +139,130 @@ public class GoCoverageRunner extends CoverageRunner {
     return result;
   }
 
+  /**
+   * Single pass parser of {@code -coverprofile} output working on raw bytes.
+   * Every line looks like {@code name.go:line.column,line.column statements hits}, the file name is resolved once
+   * and consecutive lines of the same file reuse the previous resolution without decoding the name.
+   */
+  private static class ProfileParser {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @NotNull private final GoCoverageProjectData myData;
+    @NotNull private final Project myProject;
+    @Nullable private final Module myModule;
+    @NotNull private final Map<String, GoCoverageProjectData.FileData> myFiles = ContainerUtil.newHashMap();
+
+    @NotNull private byte[] myLine = new byte[256];
+    private int myLineLength;
+    private int myPosition;
+
+    @NotNull private byte[] myLastName = ArrayUtil.EMPTY_BYTE_ARRAY;
+    private int myLastNameLength = -1;
+    @Nullable private GoCoverageProjectData.FileData myLastFile;
+
+    private ProfileParser(@NotNull GoCoverageProjectData data, @NotNull Project project, @Nullable Module module) {
+      myData = data;
+      myProject = project;
+      myModule = module;
+    }
+
+    private void parse(@NotNull InputStream stream) throws IOException {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        int lineStart = 0;
+        for (int i = 0; i < read; i++) {
+          if (buffer[i] == '\n') {
+            append(buffer, lineStart, i);
+            processLine();
+            lineStart = i + 1;
+          }
+        }
+        append(buffer, lineStart, read);
+      }
+      processLine();
+    }
+
+    private void append(@NotNull byte[] buffer, int start, int end) {
+      int length = end - start;
+      if (length <= 0) return;
+      if (myLineLength + length > myLine.length) {
+        myLine = ArrayUtil.realloc(myLine, Math.max(myLine.length * 2, myLineLength + length));
+      }
+      System.arraycopy(buffer, start, myLine, myLineLength, length);
+      myLineLength += length;
+    }
+
+    private void processLine() {
+      int end = myLineLength;
+      myLineLength = 0;
+      if (end > 0 && myLine[end - 1] == '\r') end--;
+
+      int colon = end - 1;
+      while (colon >= 0 && myLine[colon] != ':') colon--;
+      if (colon <= 0) return;
+
+      myPosition = colon + 1;
+      int startLine = readNumber(end, '.');
+      int startColumn = readNumber(end, ',');
+      int endLine = readNumber(end, '.');
+      int endColumn = readNumber(end, ' ');
+      int statements = readNumber(end, ' ');
+      int hits = readNumber(end, '\0');
+      if (startLine < 0 || startColumn < 0 || endLine < 0 || endColumn < 0 || statements < 0 || hits < 0) return;
+
+      GoCoverageProjectData.FileData fileData = findFileData(colon);
+      if (fileData != null) {
+        fileData.add(startLine, startColumn, endLine, endColumn, statements, hits);
+      }
+    }
+
+    /**
+     * Reads a non-negative number up to {@code terminator}, returns -1 for malformed input
+     */
+    private int readNumber(int end, char terminator) {
+      int start = myPosition;
+      int value = 0;
+      while (myPosition < end && myLine[myPosition] != terminator) {
+        int digit = myLine[myPosition] - '0';
+        if (digit < 0 || digit > 9) return -1;
+        value = value > (Integer.MAX_VALUE - digit) / 10 ? Integer.MAX_VALUE : value * 10 + digit;
+        myPosition++;
+      }
+      if (myPosition == start || terminator != '\0' && myPosition == end) return -1;
+      myPosition++;
+      return value;
+    }
+
+    private boolean isLastName(int nameLength) {
+      for (int i = 0; i < nameLength; i++) {
+        if (myLine[i] != myLastName[i]) return false;
+      }
+      return true;
+    }
+
+    @Nullable
+    private GoCoverageProjectData.FileData findFileData(int nameLength) {
+      if (nameLength == myLastNameLength && isLastName(nameLength)) {
+        return myLastFile;
+      }
+      String name = new String(myLine, 0, nameLength, CharsetToolkit.UTF8_CHARSET);
+      GoCoverageProjectData.FileData fileData;
+      if (myFiles.containsKey(name)) {
+        fileData = myFiles.get(name);
+      }
+      else {
+        VirtualFile file = GoSdkUtil.findFileByRelativeToLibrariesPath(name, myProject, myModule);
+        fileData = file != null ? myData.getOrCreateFileData(file.getPath()) : null;
+        myFiles.put(name, fileData);
+      }
+      myLastName = Arrays.copyOf(myLine, nameLength);
+      myLastNameLength = nameLength;
+      myLastFile = fileData;
+      return fileData;
+    }
+  }
+
   @Override
   public String getPresentableName() {
     return PRESENTABLE_NAME;
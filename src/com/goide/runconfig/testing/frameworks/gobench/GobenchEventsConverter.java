@@ -32,9 +32,11 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class GobenchEventsConverter extends OutputToGeneralTestEventsConverter {
+  private static final String RUN_PREFIX = "Benchmark";
+  private static final String FAIL_PREFIX = "--- FAIL: " + RUN_PREFIX;
+  private static final String OK_PREFIX = "ok  \t";
   private static final Pattern RUN = Pattern.compile("^(Benchmark[^ (\n\t\r]+)");
   private static final Pattern FAIL = Pattern.compile("^--- FAIL: (Benchmark[^ (\n\t\r]+)");
-  private static final Pattern OK = Pattern.compile("^ok  \t");
 
   private final Stopwatch testStopwatch = Stopwatch.createUnstarted();
   private String currentBenchmark = "<benchmark>";
@@ -48,15 +50,16 @@ public class GobenchEventsConverter extends OutputToGeneralTestEventsConverter {
   public void process(String text, Key outputType) {
     Matcher matcher;
 
-    if (OK.matcher(text).find()) {
+    // all the patterns are anchored, so a line is only matched once it has the right prefix
+    if (text.startsWith(OK_PREFIX)) {
       maybeFinishCurrentTest();
-    } else if ((matcher = RUN.matcher(text)).find()) {
+    } else if (text.startsWith(RUN_PREFIX) && (matcher = RUN.matcher(text)).find()) {
       maybeFinishCurrentTest();
       testStopwatch.start();
       currentBenchmark = StringUtil.notNullize(matcher.group(1), "<benchmark>");
       TestStartedEvent event = new TestStartedEvent(currentBenchmark, testUrl(currentBenchmark));
       getProcessor().onTestStarted(event);
-    } else if ((matcher = FAIL.matcher(text)).find()) {
+    } else if (text.startsWith(FAIL_PREFIX) && (matcher = FAIL.matcher(text)).find()) {
       currentBenchmark = StringUtil.notNullize(matcher.group(1), "<benchmark>");
       benchmarkFailing = true;
     }
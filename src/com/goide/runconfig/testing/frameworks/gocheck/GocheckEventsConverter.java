@@ -74,6 +74,11 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
   private static final Pattern ERROR_CONTINUATION = Pattern.compile("\\.\\.\\. {5}(.*?)( +\\+)?\\s*$");
   private static final Pattern PANIC_VALUE = Pattern.compile("(.*)\\.\\.\\. (Panic: .* \\(.*\\)\\s*)$");
 
+  // Every pattern above needs its keyword somewhere in a line, checking for it is much cheaper than a failed match
+  private static final String SUITE_START_KEYWORD = "=== RUN ";
+  private static final String TEST_START_KEYWORD = "START: ";
+  private static final String TEST_RESULT_SEPARATOR = ": ";
+
   private Scope myScope = Scope.GLOBAL;
   private String mySuiteName;
   private String myTestName;
@@ -120,14 +125,14 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
 
     switch (myScope) {
       case GLOBAL:
-        if (SUITE_START.matcher(text).matches()) {
+        if (text.contains(SUITE_START_KEYWORD) && SUITE_START.matcher(text).matches()) {
           myScope = Scope.SUITE;
           return true;
         }
         break;
 
       case SUITE:
-        if ((matcher = TEST_START.matcher(text)).matches()) {
+        if (text.contains(TEST_START_KEYWORD) && (matcher = TEST_START.matcher(text)).matches()) {
           myStdOut = ContainerUtil.newArrayList();
           myTestName = matcher.group(2);
           processTestSectionStart(myTestName, outputType, visitor);
@@ -142,7 +147,7 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
           myScope = Scope.TEST;
           return processTestStarted(myTestName, outputType, visitor);
         }
-        if (SUITE_END.matcher(text).matches()) {
+        if ((text.contains("PASS") || text.contains("FAIL")) && SUITE_END.matcher(text).matches()) {
           myScope = Scope.GLOBAL;
           if (mySuiteName != null) {
             String suiteFinishedMsg = ServiceMessageBuilder.testSuiteFinished(mySuiteName).toString();
@@ -172,7 +177,7 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
         break;
 
       case TEST:
-        if ((matcher = TEST_START.matcher(text)).matches()) {
+        if (text.contains(TEST_START_KEYWORD) && (matcher = TEST_START.matcher(text)).matches()) {
           String stdOutLeftover = matcher.group(1);
           if (!StringUtil.isEmptyOrSpaces(stdOutLeftover)) {
             myStdOut.add(stdOutLeftover);
@@ -235,6 +240,7 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
 
   @Nullable
   private TestResult detectTestResult(String text, boolean parseDetails) {
+    if (!text.contains(TEST_RESULT_SEPARATOR)) return null;
     Matcher matcher;
     if ((matcher = TEST_PASSED.matcher(text)).matches()) {
       myStdOut.add(StringUtil.notNullize(matcher.group(1)).trim());
@@ -18,15 +18,22 @@ package com.goide.runconfig.testing.frameworks.gotest;
 
 import com.goide.runconfig.testing.GoTestEventsConverterBase;
 import com.goide.runconfig.testing.GoTestLocationProvider;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
 import com.intellij.execution.testframework.TestConsoleProperties;
 import com.intellij.execution.testframework.sm.ServiceMessageBuilder;
+import com.intellij.execution.testframework.sm.runner.GeneralTestEventsProcessor;
 import com.intellij.execution.testframework.sm.runner.OutputToGeneralTestEventsConverter;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
 import jetbrains.buildServer.messages.serviceMessages.ServiceMessageVisitor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.text.ParseException;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -38,6 +45,9 @@ public class GotestEventsConverter extends OutputToGeneralTestEventsConverter im
   private static final Pattern SKIP = Pattern.compile("--- SKIP:\\s+([^( \n\t\r]+)");
   private static final Pattern FAILED = Pattern.compile("--- FAIL:\\s+([^( \n\t\r]+)");
   private static final Pattern FINISHED = Pattern.compile("^(PASS)|(FAIL)$");
+  private static final String RUN_PREFIX = "=== RUN";
+  private static final String RESULT_MARKER = "--- ";
+  private static final Gson GSON = new Gson();
 
   private boolean myFailed = false;
   private boolean mySkipped = false;
@@ -45,6 +55,7 @@ public class GotestEventsConverter extends OutputToGeneralTestEventsConverter im
   @NotNull private StringBuilder myStdOut = new StringBuilder();
   @NotNull private String myCurrentTest = "<test>";
   private long myCurrentTestStart;
+  @NotNull private final Map<String, StringBuilder> myJsonOutput = ContainerUtil.newHashMap();
 
   public GotestEventsConverter(@NotNull TestConsoleProperties consoleProperties) {
     super(FRAMEWORK_NAME, consoleProperties);
@@ -52,9 +63,17 @@ public class GotestEventsConverter extends OutputToGeneralTestEventsConverter im
 
   @Override
   public boolean processServiceMessages(@NotNull String text, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
+    if (text.startsWith("{")) {
+      JsonEvent event = parseJsonEvent(text);
+      if (event != null) {
+        return processJsonEvent(event, outputType, visitor);
+      }
+    }
+
+    // Ordinary output lines are by far the most common ones, so cheap substring checks go before any regexp
     Matcher matcher;
 
-    if ((matcher = RUN.matcher(text)).find()) {
+    if (text.startsWith(RUN_PREFIX) && (matcher = RUN.matcher(text)).find()) {
       myOutputAppeared = false;
       String testName = StringUtil.notNullize(matcher.group(1), "<test>");
       ServiceMessageBuilder testStarted = ServiceMessageBuilder.testStarted(testName).addAttribute("locationHint", testUrl(testName));
@@ -63,24 +82,26 @@ public class GotestEventsConverter extends OutputToGeneralTestEventsConverter im
       return result;
     }
 
-    if ((matcher = PASSED.matcher(text)).find()) {
-      String testName = StringUtil.notNullize(matcher.group(1), "<test>");
-      return handleFinishTest(text, matcher, testName, outputType, visitor)
-             && processNotFinishedMessage(testFinishedMessage(testName), outputType, visitor);
-    }
+    if (text.contains(RESULT_MARKER)) {
+      if ((matcher = PASSED.matcher(text)).find()) {
+        String testName = StringUtil.notNullize(matcher.group(1), "<test>");
+        return handleFinishTest(text, matcher, testName, outputType, visitor)
+               && processNotFinishedMessage(testFinishedMessage(testName), outputType, visitor);
+      }
 
-    if ((matcher = SKIP.matcher(text)).find()) {
-      mySkipped = true;
-      myCurrentTest = StringUtil.notNullize(matcher.group(1), "<test>");
-      handleFinishTest(text, matcher, myCurrentTest, outputType, visitor);
-      return true;
-    }
+      if ((matcher = SKIP.matcher(text)).find()) {
+        mySkipped = true;
+        myCurrentTest = StringUtil.notNullize(matcher.group(1), "<test>");
+        handleFinishTest(text, matcher, myCurrentTest, outputType, visitor);
+        return true;
+      }
 
-    if ((matcher = FAILED.matcher(text)).find()) {
-      myFailed = true;
-      myCurrentTest = StringUtil.notNullize(matcher.group(1), "<test>");
-      handleFinishTest(text, matcher, myCurrentTest, outputType, visitor);
-      return true;
+      if ((matcher = FAILED.matcher(text)).find()) {
+        myFailed = true;
+        myCurrentTest = StringUtil.notNullize(matcher.group(1), "<test>");
+        handleFinishTest(text, matcher, myCurrentTest, outputType, visitor);
+        return true;
+      }
     }
 
     if (myFailed || mySkipped) {
@@ -145,4 +166,79 @@ public class GotestEventsConverter extends OutputToGeneralTestEventsConverter im
     ServiceMessageBuilder message = ServiceMessageBuilder.testStdOut(testName).addAttribute("out", "\n");
     return !myOutputAppeared || super.processServiceMessages(message.toString(), outputType, visitor);
   }
+
+  @Nullable
+  private static JsonEvent parseJsonEvent(@NotNull String text) {
+    try {
+      JsonEvent event = GSON.fromJson(text, JsonEvent.class);
+      return event != null && event.action != null ? event : null;
+    }
+    catch (JsonParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Handles events printed by {@code go test -json}. Output of a test is collected until the test finishes and reported
+   * with a single message, as stdout of a passed test or as a message of a failed or skipped one.
+   */
+  private boolean processJsonEvent(@NotNull JsonEvent event, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
+    String testName = event.test;
+    if (StringUtil.isEmpty(testName)) {
+      GeneralTestEventsProcessor processor = getProcessor();
+      if ("output".equals(event.action) && event.output != null && processor != null) {
+        processor.onUncapturedOutput(event.output, outputType);
+      }
+      return true;
+    }
+
+    if ("run".equals(event.action)) {
+      myJsonOutput.put(testName, new StringBuilder());
+      String message = ServiceMessageBuilder.testStarted(testName).addAttribute("locationHint", testUrl(testName)).toString();
+      return super.processServiceMessages(message, outputType, visitor);
+    }
+
+    if ("output".equals(event.action)) {
+      StringBuilder output = myJsonOutput.get(testName);
+      if (output != null && event.output != null && !isJsonServiceOutput(event.output)) {
+        output.append(event.output);
+      }
+      return true;
+    }
+
+    boolean passed = "pass".equals(event.action);
+    boolean failed = "fail".equals(event.action);
+    boolean skipped = "skip".equals(event.action);
+    if (!passed && !failed && !skipped) return true;
+
+    StringBuilder output = myJsonOutput.remove(testName);
+    String out = output != null ? output.toString() : "";
+    ServiceMessageBuilder builder = null;
+    if (passed) {
+      if (!out.isEmpty()) builder = ServiceMessageBuilder.testStdOut(testName).addAttribute("out", out);
+    }
+    else {
+      builder = failed ? ServiceMessageBuilder.testFailed(testName) : ServiceMessageBuilder.testIgnored(testName);
+      builder.addAttribute("message", out.trim() + "\n");
+    }
+    if (builder != null && !super.processServiceMessages(builder.toString(), outputType, visitor)) return false;
+
+    long duration = event.elapsed != null ? (long)(event.elapsed * 1000) : 0;
+    String message = ServiceMessageBuilder.testFinished(testName).addAttribute("duration", Long.toString(duration)).toString();
+    return super.processServiceMessages(message, outputType, visitor);
+  }
+
+  private static boolean isJsonServiceOutput(@NotNull String output) {
+    String trimmed = output.trim();
+    return trimmed.startsWith("=== RUN") || trimmed.startsWith("=== PAUSE") || trimmed.startsWith("=== CONT") ||
+           trimmed.startsWith("--- PASS:") || trimmed.startsWith("--- FAIL:") || trimmed.startsWith("--- SKIP:");
+  }
+
+  @SuppressWarnings("unused")
+  private static class JsonEvent {
+    @SerializedName("Action") public String action;
+    @SerializedName("Test") public String test;
+    @SerializedName("Output") public String output;
+    @SerializedName("Elapsed") public Double elapsed;
+  }
 }
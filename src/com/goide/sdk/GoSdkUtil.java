@@ -22,6 +22,7 @@ import com.goide.appengine.YamlFilesModificationTracker;
 import com.goide.project.GoApplicationLibrariesService;
 import com.goide.project.GoLibrariesService;
 import com.goide.psi.GoFile;
+import com.goide.util.GoResolveMetrics;
 import com.goide.util.GoUtil;
 import com.intellij.execution.configurations.PathEnvironmentVariableUtil;
 import com.intellij.openapi.module.Module;
@@ -78,7 +79,8 @@ public class GoSdkUtil {
   }
 
   @Nullable
-  public static GoFile findBuiltinFile(@NotNull PsiElement context) {
+  public static GoFile findBuiltinFile(@NotNull final PsiElement context) {
+    GoResolveMetrics.request(GoResolveMetrics.Operation.BUILTIN_FILE, context);
     final Project project = context.getProject();
     // it's important to ask module on file, otherwise module won't be found for elements in libraries files [zolotov]
     Module moduleFromContext = ModuleUtilCore.findModuleForPsiElement(context.getContainingFile());
@@ -97,9 +99,15 @@ public class GoSdkUtil {
       @Nullable
       @Override
       public Result<VirtualFile> compute() {
-        VirtualFile sdkSrcDir = getSdkSrcDir(project, module);
-        VirtualFile result = sdkSrcDir != null ? sdkSrcDir.findFileByRelativePath(GoConstants.BUILTIN_FILE_PATH) : null;
-        return Result.create(result, getSdkAndLibrariesCacheDependencies(project, module, result));
+        long start = GoResolveMetrics.start();
+        try {
+          VirtualFile sdkSrcDir = getSdkSrcDir(project, module);
+          VirtualFile result = sdkSrcDir != null ? sdkSrcDir.findFileByRelativePath(GoConstants.BUILTIN_FILE_PATH) : null;
+          return Result.create(result, getSdkAndLibrariesCacheDependencies(project, module, result));
+        }
+        finally {
+          GoResolveMetrics.finish(GoResolveMetrics.Operation.BUILTIN_FILE, context, start);
+        }
       }
     });
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs;
+
+import com.goide.psi.GoNamedElement;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Named stub of a top-level declaration that also keeps its leading doc comment and the plain text of its signature,
+ * so documentation for library symbols can be shown without loading the AST.
+ */
+abstract public class GoDocumentedStub<T extends GoNamedElement> extends GoNamedStub<T> {
+  @Nullable private final String myDocComment;
+  @Nullable private final String mySignatureText;
+
+  public GoDocumentedStub(StubElement parent,
+                          IStubElementType elementType,
+                          StringRef name,
+                          boolean isPublic,
+                          @Nullable String docComment,
+                          @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic);
+    myDocComment = docComment;
+    mySignatureText = signatureText;
+  }
+
+  public GoDocumentedStub(StubElement parent,
+                          IStubElementType elementType,
+                          String name,
+                          boolean isPublic,
+                          @Nullable String docComment,
+                          @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic);
+    myDocComment = docComment;
+    mySignatureText = signatureText;
+  }
+
+  /**
+   * Text of the leading comments as produced by {@link com.goide.GoCommentsConverter#toText}, possibly truncated.
+   */
+  @Nullable
+  public String getDocComment() {
+    return myDocComment;
+  }
+
+  @Nullable
+  public String getSignatureText() {
+    return mySignatureText;
+  }
+}
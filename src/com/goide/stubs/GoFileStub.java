@@ -18,6 +18,8 @@ package com.goide.stubs;
 
 import com.goide.GoFileElementType;
 import com.goide.psi.GoFile;
+import com.goide.psi.impl.GoDocumentationUtil;
+import com.goide.util.GoBuildConstraint;
 import com.intellij.psi.stubs.PsiFileStubImpl;
 import com.intellij.psi.tree.IStubFileElementType;
 import com.intellij.util.io.StringRef;
@@ -27,15 +29,19 @@ import org.jetbrains.annotations.Nullable;
 public class GoFileStub extends PsiFileStubImpl<GoFile> {
   private final StringRef myPackageName;
   private final StringRef myBuildFlags;
+  private final StringRef myPackageDocComment;
+  private volatile GoBuildConstraint myBuildConstraint;
 
   public GoFileStub(@NotNull GoFile file) {
-    this(file, StringRef.fromNullableString(file.getPackageName()), StringRef.fromNullableString(file.getBuildFlags()));
+    this(file, StringRef.fromNullableString(file.getPackageName()), StringRef.fromNullableString(file.getBuildFlags()),
+         StringRef.fromNullableString(GoDocumentationUtil.getStubDocComment(file.getPackage())));
   }
 
-  public GoFileStub(@Nullable GoFile file, StringRef packageName, StringRef buildFlags) {
+  public GoFileStub(@Nullable GoFile file, StringRef packageName, StringRef buildFlags, StringRef packageDocComment) {
     super(file);
     myPackageName = packageName;
     myBuildFlags = buildFlags;
+    myPackageDocComment = packageDocComment;
   }
 
   @Nullable
@@ -52,4 +58,22 @@ public class GoFileStub extends PsiFileStubImpl<GoFile> {
   public String getBuildFlags() {
     return myBuildFlags.getString();
   }
+
+  /**
+   * Leading comment of the package clause, see {@link GoDocumentedStub#getDocComment()}.
+   */
+  @Nullable
+  public String getPackageDocComment() {
+    return myPackageDocComment.getString();
+  }
+
+  @NotNull
+  public GoBuildConstraint getBuildConstraint() {
+    GoBuildConstraint constraint = myBuildConstraint;
+    if (constraint == null) {
+      constraint = GoBuildConstraint.parse(getBuildFlags());
+      myBuildConstraint = constraint;
+    }
+    return constraint;
+  }
 }
@@ -20,13 +20,16 @@ import com.goide.psi.GoFunctionDeclaration;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
 
 public class GoFunctionDeclarationStub extends GoFunctionOrMethodDeclarationStub<GoFunctionDeclaration> {
-  public GoFunctionDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+  public GoFunctionDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic,
+                                   @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 
-  public GoFunctionDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+  public GoFunctionDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic,
+                                   @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 }
@@ -20,13 +20,16 @@ import com.goide.psi.GoFunctionOrMethodDeclaration;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
 
-abstract public class GoFunctionOrMethodDeclarationStub<T extends GoFunctionOrMethodDeclaration> extends GoNamedStub<T> {
-  protected GoFunctionOrMethodDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+abstract public class GoFunctionOrMethodDeclarationStub<T extends GoFunctionOrMethodDeclaration> extends GoDocumentedStub<T> {
+  protected GoFunctionOrMethodDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic,
+                                              @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 
-  protected GoFunctionOrMethodDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+  protected GoFunctionOrMethodDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic,
+                                              @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 }
@@ -24,15 +24,36 @@ import org.jetbrains.annotations.Nullable;
 
 public class GoMethodDeclarationStub extends GoFunctionOrMethodDeclarationStub<GoMethodDeclaration> {
   private final StringRef myTypeName;
+  private final int myArity;
 
-  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, StringRef typeName) {
-    super(parent, elementType, name, isPublic);
+  public GoMethodDeclarationStub(StubElement parent,
+                                 IStubElementType elementType,
+                                 StringRef name,
+                                 boolean isPublic,
+                                 StringRef typeName,
+                                 int arity,
+                                 @Nullable String docComment,
+                                 @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
     myTypeName = typeName;
+    myArity = arity;
   }
 
-  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, String typeName) {
-    super(parent, elementType, name, isPublic);
+  public GoMethodDeclarationStub(StubElement parent,
+                                 IStubElementType elementType,
+                                 String name,
+                                 boolean isPublic,
+                                 String typeName,
+                                 int arity,
+                                 @Nullable String docComment,
+                                 @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
     myTypeName = StringRef.fromString(typeName);
+    myArity = arity;
+  }
+
+  public int getArity() {
+    return myArity;
   }
 
   @Nullable
@@ -20,21 +20,35 @@ import com.goide.psi.GoMethodSpec;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
 
 public class GoMethodSpecStub extends GoNamedStub<GoMethodSpec> {
   private final int myArity;
+  private final StringRef myEmbeddedTypeName;
 
-  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, int arity) {
+  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, int arity,
+                          StringRef embeddedTypeName) {
     super(parent, elementType, name, isPublic);
     myArity = arity;
+    myEmbeddedTypeName = embeddedTypeName;
   }
 
-  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, int arity) {
+  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, int arity,
+                          String embeddedTypeName) {
     super(parent, elementType, name, isPublic);
     myArity = arity;
+    myEmbeddedTypeName = StringRef.fromString(embeddedTypeName);
   }
 
   public int getArity() {
     return myArity;
   }
+
+  /**
+   * Unqualified name of the embedded interface for specs like {@code io.Reader}, {@code null} for method specs.
+   */
+  @Nullable
+  public String getEmbeddedTypeName() {
+    return StringRef.toString(myEmbeddedTypeName);
+  }
 }
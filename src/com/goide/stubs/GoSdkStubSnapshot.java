@@ -0,0 +1,388 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs;
+
+import com.goide.GoFileElementType;
+import com.goide.GoTypes;
+import com.goide.util.GoUtil;
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.CharsetToolkit;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.stubs.*;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.IndexingDataKeys;
+import com.intellij.util.io.AbstractStringEnumerator;
+import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serialized stub trees of Go SDK sources built offline by {@link GoSdkStubSnapshotStarter}.
+ * <p/>
+ * Snapshots are looked up in the {@code sdk-stubs} directory of the plugin and in {@code go-sdk-stubs} of the system directory,
+ * the ones written for another {@link GoFileElementType#VERSION} are ignored. While indexing, a file whose path ends with
+ * a snapshot entry and whose content has the same hash gets its stub tree from the snapshot instead of being parsed.
+ * <p/>
+ * Format: magic, stub version, SDK version, number of entries, then path relative to GOROOT, SHA-1 of the content
+ * and stub tree for every entry. Stub trees don't go through {@link SerializationManagerEx}, whose
+ * serializer and name ids are local to an installation: every tree has its own table of names, and every stub is written as
+ * an index of the external id of its element type in that table, the data written by the type and the number of children.
+ */
+public class GoSdkStubSnapshot {
+  public static final String EXTENSION = "stubs";
+  private static final Logger LOG = Logger.getInstance(GoSdkStubSnapshot.class);
+  private static final int MAGIC = 0x60570b6;
+  private static final String SRC = "/src/";
+
+  private volatile Map<String, List<Entry>> myEntries;
+
+  public static GoSdkStubSnapshot getInstance() {
+    return ServiceManager.getService(GoSdkStubSnapshot.class);
+  }
+
+  @Nullable
+  public StubElement findStub(@NotNull PsiFile file) {
+    return findStub(file, getEntries());
+  }
+
+  @TestOnly
+  @Nullable
+  static StubElement findStub(@NotNull PsiFile file, @NotNull File snapshot) throws IOException {
+    Map<String, List<Entry>> entries = ContainerUtil.newHashMap();
+    readEntries(snapshot, entries);
+    return findStub(file, entries);
+  }
+
+  @Nullable
+  private static StubElement findStub(@NotNull PsiFile file, @NotNull Map<String, List<Entry>> entries) {
+    if (entries.isEmpty()) return null;
+    VirtualFile virtualFile = file.getUserData(IndexingDataKeys.VIRTUAL_FILE);
+    if (virtualFile == null) return null;
+    String path = virtualFile.getPath();
+    if (!path.contains(SRC)) return null;
+
+    byte[] hash = null;
+    for (int index = path.indexOf(SRC); index >= 0; index = path.indexOf(SRC, index + 1)) {
+      List<Entry> candidates = entries.get(path.substring(index + 1));
+      if (candidates == null) continue;
+      if (hash == null) hash = hash(file.getViewProvider().getContents());
+      if (hash == null) return null;
+      for (Entry entry : candidates) {
+        if (Arrays.equals(entry.hash, hash)) {
+          Stub stub = entry.read();
+          return stub instanceof StubElement ? (StubElement)stub : null;
+        }
+      }
+    }
+    return null;
+  }
+
+  @NotNull
+  private Map<String, List<Entry>> getEntries() {
+    Map<String, List<Entry>> entries = myEntries;
+    if (entries == null) {
+      synchronized (this) {
+        entries = myEntries;
+        if (entries == null) {
+          entries = loadEntries();
+          myEntries = entries;
+        }
+      }
+    }
+    return entries;
+  }
+
+  @NotNull
+  private static Map<String, List<Entry>> loadEntries() {
+    Map<String, List<Entry>> result = ContainerUtil.newHashMap();
+    for (File directory : getSnapshotDirectories()) {
+      File[] files = directory.listFiles();
+      if (files == null) continue;
+      for (File file : files) {
+        if (FileUtil.extensionEquals(file.getName(), EXTENSION)) {
+          try {
+            readEntries(file, result);
+          }
+          catch (IOException e) {
+            LOG.warn("Cannot read Go SDK stub snapshot " + file, e);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  @NotNull
+  private static List<File> getSnapshotDirectories() {
+    List<File> result = ContainerUtil.newSmartList(new File(PathManager.getSystemPath(), "go-sdk-stubs"));
+    IdeaPluginDescriptor plugin = GoUtil.getPlugin();
+    File pluginPath = plugin != null ? plugin.getPath() : null;
+    if (pluginPath != null) {
+      result.add(new File(pluginPath, "sdk-stubs"));
+    }
+    return result;
+  }
+
+  private static void readEntries(@NotNull File file, @NotNull Map<String, List<Entry>> result) throws IOException {
+    RandomAccessFile input = new RandomAccessFile(file, "r");
+    try {
+      if (input.readInt() != MAGIC || input.readInt() != GoFileElementType.VERSION) {
+        LOG.info("Skipping Go SDK stub snapshot built for another plugin version: " + file);
+        return;
+      }
+      String sdkVersion = input.readUTF();
+      int count = input.readInt();
+      for (int i = 0; i < count; i++) {
+        String relativePath = input.readUTF();
+        byte[] hash = new byte[input.readUnsignedByte()];
+        input.readFully(hash);
+        int length = input.readInt();
+        long offset = input.getFilePointer();
+        input.seek(offset + length);
+        List<Entry> entries = result.get(relativePath);
+        if (entries == null) {
+          entries = ContainerUtil.newSmartList();
+          result.put(relativePath, entries);
+        }
+        entries.add(new Entry(file, hash, offset, length));
+      }
+      LOG.info("Loaded " + count + " stubs of Go SDK " + sdkVersion + " from " + file);
+    }
+    finally {
+      input.close();
+    }
+  }
+
+  /**
+   * Writes a snapshot, {@code stubs} maps paths relative to GOROOT to file contents and their stub trees.
+   */
+  public static void write(@NotNull File output,
+                           @NotNull String sdkVersion,
+                           @NotNull Map<String, CharSequence> contents,
+                           @NotNull Map<String, StubElement> stubs) throws IOException {
+    FileUtil.createParentDirs(output);
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(GoFileElementType.VERSION);
+      out.writeUTF(sdkVersion);
+      out.writeInt(stubs.size());
+      for (Map.Entry<String, StubElement> entry : stubs.entrySet()) {
+        byte[] hash = hash(contents.get(entry.getKey()));
+        if (hash == null) throw new IOException("SHA-1 is not available");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeStubTree(entry.getValue(), new DataOutputStream(bytes));
+        out.writeUTF(FileUtil.toSystemIndependentName(entry.getKey()));
+        out.writeByte(hash.length);
+        out.write(hash);
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+      }
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  private static void writeStubTree(@NotNull Stub root, @NotNull DataOutputStream out) throws IOException {
+    NameTable names = new NameTable();
+    ByteArrayOutputStream stubs = new ByteArrayOutputStream();
+    StubOutputStream stubsOut = new StubOutputStream(stubs, names);
+    writeStub(root, stubsOut);
+    stubsOut.flush();
+    names.write(out);
+    stubs.writeTo(out);
+    out.flush();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void writeStub(@NotNull Stub stub, @NotNull StubOutputStream out) throws IOException {
+    ObjectStubSerializer serializer = stub.getStubType();
+    out.writeName(serializer.getExternalId());
+    serializer.serialize(stub, out);
+    List<? extends Stub> children = stub.getChildrenStubs();
+    out.writeVarInt(children.size());
+    for (Stub child : children) {
+      writeStub(child, out);
+    }
+  }
+
+  @NotNull
+  private static Stub readStubTree(@NotNull DataInputStream in) throws IOException {
+    return readStub(new StubInputStream(in, NameTable.read(in)), null);
+  }
+
+  @NotNull
+  @SuppressWarnings("unchecked")
+  private static Stub readStub(@NotNull StubInputStream in, @Nullable Stub parent) throws IOException {
+    String externalId = StringRef.toString(in.readName());
+    ObjectStubSerializer serializer = Serializers.BY_EXTERNAL_ID.get(externalId);
+    if (serializer == null) throw new IOException("Unknown stub element type: " + externalId);
+    Stub stub = serializer.deserialize(in, parent);
+    int count = in.readVarInt();
+    for (int i = 0; i < count; i++) {
+      readStub(in, stub);
+    }
+    return stub;
+  }
+
+  @Nullable
+  private static byte[] hash(@Nullable CharSequence text) {
+    if (text == null) return null;
+    try {
+      return MessageDigest.getInstance("SHA-1").digest(text.toString().getBytes(CharsetToolkit.UTF8_CHARSET));
+    }
+    catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+  }
+
+  private static class Entry {
+    @NotNull private final File file;
+    @NotNull private final byte[] hash;
+    private final long offset;
+    private final int length;
+
+    public Entry(@NotNull File file, @NotNull byte[] hash, long offset, int length) {
+      this.file = file;
+      this.hash = hash;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Nullable
+    public Stub read() {
+      try {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+          byte[] bytes = new byte[length];
+          input.seek(offset);
+          input.readFully(bytes);
+          return readStubTree(new DataInputStream(new ByteArrayInputStream(bytes)));
+        }
+        finally {
+          input.close();
+        }
+      }
+      catch (Exception e) {
+        LOG.warn("Cannot read stub from Go SDK stub snapshot " + file, e);
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Go stub element types by external ids, collected from {@link GoTypes} like the platform does for stub element type holders
+   */
+  private static class Serializers {
+    private static final Map<String, ObjectStubSerializer> BY_EXTERNAL_ID = collect();
+
+    @NotNull
+    private static Map<String, ObjectStubSerializer> collect() {
+      Map<String, ObjectStubSerializer> result = ContainerUtil.newHashMap();
+      result.put(GoFileElementType.INSTANCE.getExternalId(), GoFileElementType.INSTANCE);
+      for (Field field : GoTypes.class.getFields()) {
+        try {
+          Object type = field.get(null);
+          if (type instanceof IStubElementType) {
+            result.put(((IStubElementType)type).getExternalId(), (IStubElementType)type);
+          }
+        }
+        catch (IllegalAccessException e) {
+          LOG.error(e);
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Names of a single stub tree, written in front of it
+   */
+  private static class NameTable implements AbstractStringEnumerator {
+    @NotNull private final List<String> myNames = ContainerUtil.newArrayList();
+    @NotNull private final Map<String, Integer> myIds = ContainerUtil.newHashMap();
+
+    @NotNull
+    public static NameTable read(@NotNull DataInput in) throws IOException {
+      NameTable table = new NameTable();
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        table.enumerate(in.readUTF());
+      }
+      return table;
+    }
+
+    public void write(@NotNull DataOutput out) throws IOException {
+      out.writeInt(myNames.size());
+      for (String name : myNames) {
+        out.writeUTF(name);
+      }
+    }
+
+    @Override
+    public int enumerate(@Nullable String value) {
+      if (value == null) return 0;
+      Integer id = myIds.get(value);
+      if (id == null) {
+        myNames.add(value);
+        id = myNames.size();
+        myIds.put(value, id);
+      }
+      return id;
+    }
+
+    @Nullable
+    @Override
+    public String valueOf(int id) throws IOException {
+      if (id == 0) return null;
+      if (id < 0 || id > myNames.size()) throw new IOException("Unknown name id: " + id);
+      return myNames.get(id - 1);
+    }
+
+    @Override
+    public void markCorrupted() {
+    }
+
+    @Override
+    public boolean isDirty() {
+      return false;
+    }
+
+    @Override
+    public void force() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
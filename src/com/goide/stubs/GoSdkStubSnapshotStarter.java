@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs;
+
+import com.goide.GoFileElementType;
+import com.goide.GoFileType;
+import com.goide.sdk.GoSdkUtil;
+import com.goide.util.GoUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarterEx;
+import com.intellij.openapi.application.ex.ApplicationManagerEx;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.CharsetToolkit;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.util.PathUtilRt;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Headless command that writes a {@link GoSdkStubSnapshot} for a Go SDK:
+ * {@code go-sdk-stubs <GOROOT> <output directory>}, see the {@code buildSdkStubSnapshot} Gradle task.
+ */
+public class GoSdkStubSnapshotStarter extends ApplicationStarterEx {
+  @Override
+  public String getCommandName() {
+    return "go-sdk-stubs";
+  }
+
+  @Override
+  public boolean isHeadless() {
+    return true;
+  }
+
+  @Override
+  public void premain(String[] args) {
+    if (args.length != 3) {
+      System.err.println("Usage: go-sdk-stubs <GOROOT> <output directory>");
+      System.exit(1);
+    }
+  }
+
+  @Override
+  public void main(String[] args) {
+    int exitCode = 0;
+    try {
+      File goRoot = new File(args[1]);
+      String version = StringUtil.notNullize(GoSdkUtil.retrieveGoVersion(goRoot.getAbsolutePath()), "unknown");
+      File output = new File(args[2], "go" + version + "." + GoSdkStubSnapshot.EXTENSION);
+      final Map<String, CharSequence> contents = ContainerUtil.newTreeMap();
+      collectSources(goRoot, new File(goRoot, "src"), contents);
+      Map<String, StubElement> stubs = ApplicationManager.getApplication().runReadAction(new Computable<Map<String, StubElement>>() {
+        @Override
+        public Map<String, StubElement> compute() {
+          return buildStubs(contents);
+        }
+      });
+      GoSdkStubSnapshot.write(output, version, contents, stubs);
+      System.out.println("Written " + stubs.size() + " stubs of Go SDK " + version + " to " + output);
+    }
+    catch (Throwable e) {
+      e.printStackTrace();
+      exitCode = 1;
+    }
+    ApplicationManagerEx.getApplicationEx().exit(true, true);
+    System.exit(exitCode);
+  }
+
+  private static void collectSources(@NotNull File goRoot, @NotNull File directory, @NotNull Map<String, CharSequence> contents)
+    throws IOException {
+    File[] files = directory.listFiles();
+    if (files == null) return;
+    for (File file : files) {
+      if (file.isDirectory()) {
+        if (!GoUtil.libraryDirectoryToIgnore(file.getName())) {
+          collectSources(goRoot, file, contents);
+        }
+      }
+      else if (FileUtil.extensionEquals(file.getName(), GoFileType.INSTANCE.getDefaultExtension())) {
+        String relativePath = FileUtil.getRelativePath(goRoot, file);
+        if (relativePath != null) {
+          String text = FileUtil.loadFile(file, CharsetToolkit.UTF8_CHARSET);
+          contents.put(FileUtil.toSystemIndependentName(relativePath), StringUtil.convertLineSeparators(text));
+        }
+      }
+    }
+  }
+
+  @NotNull
+  private static Map<String, StubElement> buildStubs(@NotNull Map<String, CharSequence> contents) {
+    Project project = ProjectManager.getInstance().getDefaultProject();
+    PsiFileFactory factory = PsiFileFactory.getInstance(project);
+    Map<String, StubElement> stubs = ContainerUtil.newLinkedHashMap();
+    for (Map.Entry<String, CharSequence> entry : contents.entrySet()) {
+      PsiFile file = factory.createFileFromText(PathUtilRt.getFileName(entry.getKey()), GoFileType.INSTANCE, entry.getValue());
+      stubs.put(entry.getKey(), GoFileElementType.INSTANCE.getBuilder().buildStubTree(file));
+    }
+    return stubs;
+  }
+}
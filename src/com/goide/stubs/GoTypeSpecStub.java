@@ -20,13 +20,16 @@ import com.goide.psi.GoTypeSpec;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
 
-public class GoTypeSpecStub extends GoNamedStub<GoTypeSpec> {
-  public GoTypeSpecStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+public class GoTypeSpecStub extends GoDocumentedStub<GoTypeSpec> {
+  public GoTypeSpecStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic,
+                        @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 
-  public GoTypeSpecStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+  public GoTypeSpecStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic,
+                        @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 }
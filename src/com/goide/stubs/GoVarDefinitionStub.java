@@ -20,13 +20,16 @@ import com.goide.psi.GoVarDefinition;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.Nullable;
 
-public class GoVarDefinitionStub extends GoNamedStub<GoVarDefinition> {
-  public GoVarDefinitionStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+public class GoVarDefinitionStub extends GoDocumentedStub<GoVarDefinition> {
+  public GoVarDefinitionStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic,
+                             @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 
-  public GoVarDefinitionStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic) {
-    super(parent, elementType, name, isPublic);
+  public GoVarDefinitionStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic,
+                             @Nullable String docComment, @Nullable String signatureText) {
+    super(parent, elementType, name, isPublic, docComment, signatureText);
   }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoFileElementType;
+import com.goide.psi.GoMethodSpec;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Embedded interface specs like {@code Reader} in {@code interface { Reader; Closer }}, keyed by the unqualified name
+ * of the embedded type.
+ */
+public class GoEmbeddedInterfaceIndex extends StringStubIndexExtension<GoMethodSpec> {
+  public static final StubIndexKey<String, GoMethodSpec> KEY = StubIndexKey.createIndexKey("go.embedded.interface");
+
+  @Override
+  public int getVersion() {
+    return GoFileElementType.VERSION;
+  }
+
+  @NotNull
+  @Override
+  public StubIndexKey<String, GoMethodSpec> getKey() {
+    return KEY;
+  }
+
+  public static Collection<GoMethodSpec> find(@NotNull String name, @NotNull Project project, GlobalSearchScope scope) {
+    return StubIndex.getElements(KEY, name, project, scope, GoMethodSpec.class);
+  }
+}
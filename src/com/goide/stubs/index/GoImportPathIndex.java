@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoFileType;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps import paths to the Go files of the directories they denote.
+ * <p/>
+ * Import paths are derived from the directory path only: every suffix following a {@code src} (or {@code src/pkg} for
+ * old SDKs) segment is a key. Keys are therefore candidates and callers should check them against the actual source roots,
+ * roots that don't follow the {@code src} layout aren't covered. The platform reindexes a file when it's renamed or moved itself,
+ * but not when one of its ancestors is, so {@link GoImportPathIndexInvalidator} requests reindexing of such directories.
+ */
+public class GoImportPathIndex extends ScalarIndexExtension<String> {
+  public static final ID<String, Void> NAME = ID.create("go.import.path");
+
+  @NotNull
+  @Override
+  public ID<String, Void> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, Void, FileContent> getIndexer() {
+    return new DataIndexer<String, Void, FileContent>() {
+      @NotNull
+      @Override
+      public Map<String, Void> map(@NotNull FileContent inputData) {
+        VirtualFile directory = inputData.getFile().getParent();
+        if (directory == null) return Collections.emptyMap();
+        Map<String, Void> result = ContainerUtil.newHashMap();
+        for (String importPath : getImportPathCandidates(directory.getPath())) {
+          result.put(importPath, null);
+        }
+        return result;
+      }
+    };
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(GoFileType.INSTANCE);
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return false;
+  }
+
+  @Override
+  public int getVersion() {
+    return 2;
+  }
+
+  @NotNull
+  static List<String> getImportPathCandidates(@NotNull String directoryPath) {
+    List<String> segments = StringUtil.split(directoryPath, "/");
+    List<String> result = ContainerUtil.newSmartList();
+    for (int i = 0; i < segments.size() - 1; i++) {
+      if (!"src".equals(segments.get(i))) continue;
+      result.add(StringUtil.join(segments.subList(i + 1, segments.size()), "/"));
+      if ("pkg".equals(segments.get(i + 1)) && i + 2 < segments.size()) {
+        result.add(StringUtil.join(segments.subList(i + 2, segments.size()), "/"));
+      }
+    }
+    return result;
+  }
+
+  public static boolean processImportPaths(@NotNull Processor<String> processor, @NotNull GlobalSearchScope scope) {
+    return FileBasedIndex.getInstance().processAllKeys(NAME, processor, scope, null);
+  }
+
+  /**
+   * @return directories which have Go files indexed under {@code importPath} within {@code scope}
+   */
+  @NotNull
+  public static Collection<VirtualFile> getDirectories(@NotNull String importPath, @NotNull GlobalSearchScope scope) {
+    Collection<VirtualFile> result = ContainerUtil.newLinkedHashSet();
+    for (VirtualFile file : FileBasedIndex.getInstance().getContainingFiles(NAME, importPath, scope)) {
+      ContainerUtil.addIfNotNull(result, file.getParent());
+    }
+    return result;
+  }
+}
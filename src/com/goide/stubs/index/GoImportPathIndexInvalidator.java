@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ApplicationComponent;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.util.PathUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Requests reindexing of renamed and moved directories: {@link GoImportPathIndex} keys of the files under them are derived
+ * from their paths, but the platform reindexes only the directory itself. Directories which neither are nor lie under
+ * a {@code src} directory are skipped, their paths aren't part of any key.
+ */
+public class GoImportPathIndexInvalidator implements ApplicationComponent {
+  private MessageBusConnection myConnection;
+
+  @Override
+  public void initComponent() {
+    myConnection = ApplicationManager.getApplication().getMessageBus().connect();
+    myConnection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener.Adapter() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+          VirtualFile file = event.getFile();
+          if (file == null || !file.isValid() || !file.isDirectory()) continue;
+          String oldPath = getOldPath(event);
+          if (oldPath != null && (affectsImportPaths(oldPath) || affectsImportPaths(file.getPath()))) {
+            FileBasedIndex.getInstance().requestReindex(file);
+          }
+        }
+      }
+    });
+  }
+
+  @Nullable
+  private static String getOldPath(@NotNull VFileEvent event) {
+    if (event instanceof VFilePropertyChangeEvent && VirtualFile.PROP_NAME.equals(((VFilePropertyChangeEvent)event).getPropertyName())) {
+      VirtualFile parent = event.getFile().getParent();
+      return parent != null ? parent.getPath() + "/" + ((VFilePropertyChangeEvent)event).getOldValue() : null;
+    }
+    if (event instanceof VFileMoveEvent) {
+      return ((VFileMoveEvent)event).getOldParent().getPath() + "/" + event.getFile().getName();
+    }
+    return null;
+  }
+
+  /**
+   * Import paths of the files under a directory depend on its path if it's a {@code src} directory or lies under one
+   */
+  private static boolean affectsImportPaths(@NotNull String directoryPath) {
+    String path = FileUtil.toSystemIndependentName(directoryPath);
+    return "src".equals(PathUtil.getFileName(path)) || !GoImportPathIndex.getImportPathCandidates(path).isEmpty();
+  }
+
+  @Override
+  public void disposeComponent() {
+    if (myConnection != null) {
+      myConnection.disconnect();
+    }
+  }
+
+  @NotNull
+  @Override
+  public String getComponentName() {
+    return getClass().getName();
+  }
+}
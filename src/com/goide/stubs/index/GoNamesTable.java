@@ -0,0 +1,382 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoFileType;
+import com.goide.psi.GoFile;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.ProjectScope;
+import com.intellij.psi.stubs.ObjectStubTree;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.psi.stubs.StubTreeLoader;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.ConcurrencyUtil;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.IdFilter;
+import gnu.trove.TIntArrayList;
+import gnu.trove.TIntObjectHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory tables over the keys of string stub indices, shared by auto-import completion and goto contributors.
+ * Keys of an index are kept in a case-insensitively sorted array and bucketed by the first characters of their words,
+ * so that callers can take only the names which may match a camel-hump prefix instead of walking the whole index
+ * on every keystroke.
+ * <p/>
+ * Tables are built lazily from the stub index for the whole project and for project content only and form a snapshot,
+ * which is dropped on roots and dumb mode changes only. Go files changed since then, either in memory or on disk,
+ * are remembered and their current keys are added on top of the snapshot, so editing a file costs indexing of that file
+ * instead of walking the whole index again. Keys of removed declarations stay until the snapshot is rebuilt, which happens
+ * when too many files are changed as well: tables are supersets of the index keys and names taken from them may find nothing.
+ */
+public class GoNamesTable {
+  private static final Comparator<String> ORDER = new Comparator<String>() {
+    @Override
+    public int compare(@NotNull String s1, @NotNull String s2) {
+      int result = String.CASE_INSENSITIVE_ORDER.compare(s1, s2);
+      return result != 0 ? result : s1.compareTo(s2);
+    }
+  };
+
+  private static final int MAX_CHANGED_FILES = 1000;
+
+  @NotNull private final Project myProject;
+  @Nullable private volatile Snapshot mySnapshot;
+
+  public GoNamesTable(@NotNull Project project) {
+    myProject = project;
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+      @Override
+      public void childAdded(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childMoved(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+
+      @Override
+      public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+        processChange(event);
+      }
+    }, project);
+    project.getMessageBus().connect(project).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener.Adapter() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+          if (event instanceof VFileDeleteEvent) continue;
+          VirtualFile file = event instanceof VFileCopyEvent ? ((VFileCopyEvent)event).findCreatedFile() : event.getFile();
+          if (file != null && file.isValid()) {
+            fileChanged(file);
+          }
+        }
+      }
+    });
+  }
+
+  public static GoNamesTable getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, GoNamesTable.class);
+  }
+
+  /**
+   * Passes every key of {@code keys} indices visible in {@code scope} and {@code filter} once. Tables of the whole project
+   * and of the project content are cached per scope, so {@code filter} is expected to be the platform's filter for the scope.
+   * Other scopes fall back to the stub index, which may pass a key of several indices more than once.
+   */
+  public boolean processNames(@NotNull StubIndexKey<String, ?>[] keys,
+                              @NotNull GlobalSearchScope scope,
+                              @Nullable IdFilter filter,
+                              @NotNull Processor<String> processor) {
+    if (!isCached(scope)) {
+      for (StubIndexKey<String, ?> key : keys) {
+        if (!StubIndex.getInstance().processAllKeys(key, processor, scope, filter)) return false;
+      }
+      return true;
+    }
+    Snapshot snapshot = getSnapshot();
+    Table[] tables = new Table[keys.length];
+    List<Collection<String>> added = ContainerUtil.newArrayList();
+    for (int i = 0; i < keys.length; i++) {
+      tables[i] = snapshot.getTable(keys[i], scope, filter);
+      added.add(snapshot.getAddedNames(keys[i], scope, tables[i]));
+      String[] names = tables[i].names;
+      for (int j = 0; j < names.length; j++) {
+        if (j % 1000 == 0) ProgressManager.checkCanceled();
+        if (i > 0 && contains(tables, added, i, names[j])) continue;
+        if (!processor.process(names[j])) return false;
+      }
+      for (String name : added.get(i)) {
+        if (i > 0 && contains(tables, added, i, name)) continue;
+        if (!processor.process(name)) return false;
+      }
+    }
+    return true;
+  }
+
+  @NotNull
+  public Collection<String> getAllNames(@NotNull StubIndexKey<String, ?> key) {
+    Snapshot snapshot = getSnapshot();
+    GlobalSearchScope scope = ProjectScope.getAllScope(myProject);
+    Table table = snapshot.getTable(key, scope, null);
+    Collection<String> added = snapshot.getAddedNames(key, scope, table);
+    if (added.isEmpty()) return Arrays.asList(table.names);
+    Collection<String> result = ContainerUtil.newArrayList(table.names);
+    result.addAll(added);
+    return result;
+  }
+
+  /**
+   * Returns keys of {@code key} index which may be matched by a camel-hump {@code prefix}: the first character of the prefix
+   * has to match the beginning of some word of a name, so only the bucket of that character is taken.
+   * Qualified names from {@code packages} are returned regardless of the prefix.
+   * The result is a superset of matching names and should be filtered by an actual matcher.
+   */
+  @NotNull
+  public Collection<String> getCandidates(@NotNull StubIndexKey<String, ?> key,
+                                          @NotNull String prefix,
+                                          @NotNull Collection<String> packages) {
+    char first = prefix.isEmpty() ? 0 : prefix.charAt(0);
+    if (!Character.isLetterOrDigit(first) && first != '_') return getAllNames(key);
+
+    Snapshot snapshot = getSnapshot();
+    GlobalSearchScope scope = ProjectScope.getAllScope(myProject);
+    Table table = snapshot.getTable(key, scope, null);
+    Collection<String> result = ContainerUtil.newLinkedHashSet();
+    int[] bucket = table.getWordStarts().get(Character.toLowerCase(first));
+    if (bucket != null) {
+      for (int i = 0; i < bucket.length; i++) {
+        if (i % 1000 == 0) ProgressManager.checkCanceled();
+        result.add(table.names[bucket[i]]);
+      }
+    }
+    for (String packageName : packages) {
+      table.addPackageNames(packageName, result);
+    }
+    result.addAll(snapshot.getAddedNames(key, scope, table));
+    return result;
+  }
+
+  private boolean isCached(@NotNull GlobalSearchScope scope) {
+    return scope.equals(ProjectScope.getAllScope(myProject)) || scope.equals(ProjectScope.getProjectScope(myProject));
+  }
+
+  @NotNull
+  private Snapshot getSnapshot() {
+    long stamp = ProjectRootManager.getInstance(myProject).getModificationCount() +
+                 DumbService.getInstance(myProject).getModificationTracker().getModificationCount();
+    Snapshot snapshot = mySnapshot;
+    if (snapshot == null || snapshot.myStamp != stamp || snapshot.myChangedFiles.size() > MAX_CHANGED_FILES) {
+      snapshot = new Snapshot(stamp);
+      mySnapshot = snapshot;
+    }
+    return snapshot;
+  }
+
+  private void processChange(@NotNull PsiTreeChangeEvent event) {
+    PsiFile file = event.getFile();
+    VirtualFile virtualFile = file instanceof GoFile ? file.getOriginalFile().getVirtualFile() : null;
+    if (virtualFile != null) {
+      fileChanged(virtualFile);
+    }
+  }
+
+  private void fileChanged(@NotNull VirtualFile file) {
+    final Snapshot snapshot = mySnapshot;
+    if (snapshot == null) return;
+    if (!file.isDirectory()) {
+      if (file.getFileType() == GoFileType.INSTANCE) snapshot.myChangedFiles.add(file);
+      return;
+    }
+    VfsUtilCore.visitChildrenRecursively(file, new VirtualFileVisitor() {
+      @Override
+      public boolean visitFile(@NotNull VirtualFile child) {
+        if (!child.isDirectory() && child.getFileType() == GoFileType.INSTANCE) snapshot.myChangedFiles.add(child);
+        return true;
+      }
+    });
+  }
+
+  private static boolean contains(@NotNull Table[] tables, @NotNull List<Collection<String>> added, int count, @NotNull String name) {
+    for (int i = 0; i < count; i++) {
+      if (tables[i].contains(name) || added.get(i).contains(name)) return true;
+    }
+    return false;
+  }
+
+  private class Snapshot {
+    private final long myStamp;
+    @NotNull private final ConcurrentMap<Pair<StubIndexKey<String, ?>, GlobalSearchScope>, Table> myTables =
+      ContainerUtil.newConcurrentMap();
+    @NotNull private final Set<VirtualFile> myChangedFiles = ContainerUtil.newConcurrentSet();
+    @NotNull private final ConcurrentMap<VirtualFile, Pair<Long, Map<StubIndexKey, Map<Object, int[]>>>> myFileKeys =
+      ContainerUtil.newConcurrentMap();
+
+    public Snapshot(long stamp) {
+      myStamp = stamp;
+    }
+
+    @NotNull
+    public Table getTable(@NotNull StubIndexKey<String, ?> key, @NotNull GlobalSearchScope scope, @Nullable IdFilter filter) {
+      Pair<StubIndexKey<String, ?>, GlobalSearchScope> tableKey = Pair.<StubIndexKey<String, ?>, GlobalSearchScope>create(key, scope);
+      Table table = myTables.get(tableKey);
+      if (table == null) {
+        CommonProcessors.CollectUniquesProcessor<String> processor = new CommonProcessors.CollectUniquesProcessor<String>();
+        StubIndex.getInstance().processAllKeys(key, processor, scope, filter);
+        table = ConcurrencyUtil.cacheOrGet(myTables, tableKey, new Table(processor.getResults()));
+      }
+      return table;
+    }
+
+    /**
+     * Keys of files in {@code scope} changed since the snapshot was taken, which are missing in {@code table}
+     */
+    @NotNull
+    public Collection<String> getAddedNames(@NotNull StubIndexKey<String, ?> key, @NotNull GlobalSearchScope scope, @NotNull Table table) {
+      if (myChangedFiles.isEmpty()) return Collections.emptySet();
+      Set<String> result = ContainerUtil.newLinkedHashSet();
+      for (VirtualFile file : myChangedFiles) {
+        if (!file.isValid() || !scope.contains(file)) continue;
+        Map<Object, int[]> keys = getFileKeys(file).get(key);
+        if (keys == null) continue;
+        for (Object name : keys.keySet()) {
+          if (name instanceof String && !table.contains((String)name)) result.add((String)name);
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Index keys of the current stub tree of {@code file}, recomputed when the file is modified again
+     */
+    @NotNull
+    private Map<StubIndexKey, Map<Object, int[]>> getFileKeys(@NotNull VirtualFile file) {
+      PsiFile psiFile = PsiManager.getInstance(myProject).findFile(file);
+      if (!(psiFile instanceof GoFile)) return Collections.emptyMap();
+      long stamp = psiFile.getModificationStamp();
+      Pair<Long, Map<StubIndexKey, Map<Object, int[]>>> keys = myFileKeys.get(file);
+      if (keys == null || keys.first != stamp) {
+        ObjectStubTree tree = StubTreeLoader.getInstance().readOrBuild(myProject, file, psiFile);
+        Map<StubIndexKey, Map<Object, int[]>> map = tree != null ? tree.indexStubTree() : null;
+        keys = Pair.create(stamp, map != null ? map : Collections.<StubIndexKey, Map<Object, int[]>>emptyMap());
+        myFileKeys.put(file, keys);
+      }
+      return keys.second;
+    }
+  }
+
+  private static class Table {
+    @NotNull private final String[] names;
+    @Nullable private volatile TIntObjectHashMap<int[]> myWordStarts;
+
+    public Table(@NotNull Collection<String> keys) {
+      names = ArrayUtil.toStringArray(keys);
+      Arrays.sort(names, ORDER);
+    }
+
+    public boolean contains(@NotNull String name) {
+      return Arrays.binarySearch(names, name, ORDER) >= 0;
+    }
+
+    /**
+     * Only completion needs the buckets, so they are built on the first request
+     */
+    @NotNull
+    public TIntObjectHashMap<int[]> getWordStarts() {
+      TIntObjectHashMap<int[]> wordStarts = myWordStarts;
+      if (wordStarts == null) {
+        TIntObjectHashMap<TIntArrayList> buckets = new TIntObjectHashMap<TIntArrayList>();
+        for (int i = 0; i < names.length; i++) {
+          if (i % 1000 == 0) ProgressManager.checkCanceled();
+          String name = names[i];
+          for (int j = 0; j < name.length(); j++) {
+            if (!isWordStart(name, j)) continue;
+            char c = Character.toLowerCase(name.charAt(j));
+            TIntArrayList bucket = buckets.get(c);
+            if (bucket == null) {
+              bucket = new TIntArrayList();
+              buckets.put(c, bucket);
+            }
+            if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != i) {
+              bucket.add(i);
+            }
+          }
+        }
+        wordStarts = new TIntObjectHashMap<int[]>();
+        for (int c : buckets.keys()) {
+          wordStarts.put(c, buckets.get(c).toNativeArray());
+        }
+        myWordStarts = wordStarts;
+      }
+      return wordStarts;
+    }
+
+    /**
+     * Deliberately wider than the word starts of the name matcher: every upper case letter and every letter or digit after a separator
+     */
+    private static boolean isWordStart(@NotNull String name, int i) {
+      char c = name.charAt(i);
+      if (!Character.isLetterOrDigit(c) && c != '_') return false;
+      if (i == 0 || Character.isUpperCase(c)) return true;
+      char prev = name.charAt(i - 1);
+      return !Character.isLetterOrDigit(prev) || Character.isDigit(c) != Character.isDigit(prev);
+    }
+
+    private void addPackageNames(@NotNull String packageName, @NotNull Collection<String> result) {
+      String prefix = packageName + ".";
+      int index = Arrays.binarySearch(names, prefix, ORDER);
+      for (int i = index >= 0 ? index : -index - 1; i < names.length && StringUtil.startsWithIgnoreCase(names[i], prefix); i++) {
+        if (names[i].startsWith(prefix)) {
+          result.add(names[i]);
+        }
+      }
+    }
+  }
+}
@@ -19,8 +19,10 @@ package com.goide.stubs.types;
 import com.goide.psi.GoConstDefinition;
 import com.goide.psi.GoFunctionOrMethodDeclaration;
 import com.goide.psi.impl.GoConstDefinitionImpl;
+import com.goide.psi.impl.GoDocumentationUtil;
 import com.goide.stubs.GoConstDefinitionStub;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.StubOutputStream;
@@ -54,19 +56,22 @@ public class GoConstDefinitionStubElementType extends GoNamedStubElementType<GoC
   @NotNull
   @Override
   public GoConstDefinitionStub createStub(@NotNull GoConstDefinition psi, StubElement parentStub) {
-    return new GoConstDefinitionStub(parentStub, this, psi.getName(), psi.isPublic());
+    return new GoConstDefinitionStub(parentStub, this, psi.getName(), psi.isPublic(),
+                                     GoDocumentationUtil.getStubDocComment(psi), GoDocumentationUtil.getStubSignatureText(psi));
   }
 
   @Override
   public void serialize(@NotNull GoConstDefinitionStub stub, @NotNull StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
+    writeDocumentation(stub, dataStream);
   }
 
   @NotNull
   @Override
   public GoConstDefinitionStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoConstDefinitionStub(parentStub, this, dataStream.readName(), dataStream.readBoolean());
+    return new GoConstDefinitionStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(),
+                                     StringUtil.nullize(dataStream.readUTFFast()), StringUtil.nullize(dataStream.readUTFFast()));
   }
 
   @Override
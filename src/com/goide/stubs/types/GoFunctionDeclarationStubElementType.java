@@ -18,9 +18,11 @@ package com.goide.stubs.types;
 
 import com.goide.psi.GoFunctionDeclaration;
 import com.goide.psi.GoNamedElement;
+import com.goide.psi.impl.GoDocumentationUtil;
 import com.goide.psi.impl.GoFunctionDeclarationImpl;
 import com.goide.stubs.GoFunctionDeclarationStub;
 import com.goide.stubs.index.GoFunctionIndex;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubIndexKey;
 import com.intellij.psi.stubs.StubInputStream;
@@ -60,19 +62,22 @@ public class GoFunctionDeclarationStubElementType extends GoNamedStubElementType
   @NotNull
   @Override
   public GoFunctionDeclarationStub createStub(@NotNull GoFunctionDeclaration psi, StubElement parentStub) {
-    return new GoFunctionDeclarationStub(parentStub, this, psi.getName(), psi.isPublic());
+    return new GoFunctionDeclarationStub(parentStub, this, psi.getName(), psi.isPublic(),
+                                         GoDocumentationUtil.getStubDocComment(psi), GoDocumentationUtil.getStubSignatureText(psi));
   }
 
   @Override
   public void serialize(@NotNull GoFunctionDeclarationStub stub, @NotNull StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
+    writeDocumentation(stub, dataStream);
   }
 
   @NotNull
   @Override
   public GoFunctionDeclarationStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoFunctionDeclarationStub(parentStub, this, dataStream.readName(), dataStream.readBoolean());
+    return new GoFunctionDeclarationStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(),
+                                         StringUtil.nullize(dataStream.readUTFFast()), StringUtil.nullize(dataStream.readUTFFast()));
   }
 
   @NotNull
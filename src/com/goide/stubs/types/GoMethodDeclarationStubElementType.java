@@ -18,10 +18,12 @@ package com.goide.stubs.types;
 
 import com.goide.psi.GoMethodDeclaration;
 import com.goide.psi.GoTypeReferenceExpression;
+import com.goide.psi.impl.GoDocumentationUtil;
 import com.goide.psi.impl.GoMethodDeclarationImpl;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.GoMethodDeclarationStub;
+import com.goide.stubs.index.GoMethodDeclarationFingerprintIndex;
 import com.goide.stubs.index.GoMethodIndex;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.stubs.IndexSink;
@@ -58,7 +60,9 @@ public class GoMethodDeclarationStubElementType extends GoNamedStubElementType<G
   @Nullable
   @Override
   public GoMethodDeclarationStub createStub(@NotNull GoMethodDeclaration psi, StubElement parentStub) {
-    return new GoMethodDeclarationStub(parentStub, this, psi.getName(), psi.isPublic(), calcTypeText(psi));
+    return new GoMethodDeclarationStub(parentStub, this, psi.getName(), psi.isPublic(), calcTypeText(psi),
+                                       GoPsiImplUtil.getArity(psi.getSignature()), GoDocumentationUtil.getStubDocComment(psi),
+                                       GoDocumentationUtil.getStubSignatureText(psi));
   }
 
   @Override
@@ -66,12 +70,16 @@ public class GoMethodDeclarationStubElementType extends GoNamedStubElementType<G
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
     dataStream.writeName(stub.getTypeName());
+    dataStream.writeVarInt(stub.getArity());
+    writeDocumentation(stub, dataStream);
   }
 
   @NotNull
   @Override
   public GoMethodDeclarationStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoMethodDeclarationStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readName());
+    return new GoMethodDeclarationStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readName(),
+                                       dataStream.readVarInt(), StringUtil.nullize(dataStream.readUTFFast()),
+                                       StringUtil.nullize(dataStream.readUTFFast()));
   }
 
   @Override
@@ -86,6 +94,11 @@ public class GoMethodDeclarationStubElementType extends GoNamedStubElementType<G
           sink.occurrence(GoMethodIndex.KEY, packageName + "." + typeName);
         }
       }
+      String name = stub.getName();
+      int arity = stub.getArity();
+      if (name != null && arity >= 0) {
+        sink.occurrence(GoMethodDeclarationFingerprintIndex.KEY, name + "/" + arity);
+      }
     }
   }
 
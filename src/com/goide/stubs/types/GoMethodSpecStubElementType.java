@@ -17,9 +17,11 @@
 package com.goide.stubs.types;
 
 import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoTypeReferenceExpression;
 import com.goide.psi.impl.GoMethodSpecImpl;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.stubs.GoMethodSpecStub;
+import com.goide.stubs.index.GoEmbeddedInterfaceIndex;
 import com.goide.stubs.index.GoMethodFingerprintIndex;
 import com.intellij.psi.stubs.IndexSink;
 import com.intellij.psi.stubs.StubElement;
@@ -42,6 +44,10 @@ public class GoMethodSpecStubElementType extends GoNamedStubElementType<GoMethod
     if (name != null && arity >= 0) {
       sink.occurrence(GoMethodFingerprintIndex.KEY, name + "/" + arity);
     }
+    String embeddedTypeName = stub.getEmbeddedTypeName();
+    if (embeddedTypeName != null) {
+      sink.occurrence(GoEmbeddedInterfaceIndex.KEY, embeddedTypeName);
+    }
   }
 
   @NotNull
@@ -54,7 +60,9 @@ public class GoMethodSpecStubElementType extends GoNamedStubElementType<GoMethod
   @Override
   public GoMethodSpecStub createStub(@NotNull GoMethodSpec psi, StubElement parentStub) {
     int arity = GoPsiImplUtil.getArity(psi.getSignature());
-    return new GoMethodSpecStub(parentStub, this, psi.getName(), psi.isPublic(), arity);
+    GoTypeReferenceExpression reference = psi.getIdentifier() == null ? psi.getTypeReferenceExpression() : null;
+    String embeddedTypeName = reference != null ? reference.getIdentifier().getText() : null;
+    return new GoMethodSpecStub(parentStub, this, psi.getName(), psi.isPublic(), arity, embeddedTypeName);
   }
 
   @Override
@@ -62,11 +70,13 @@ public class GoMethodSpecStubElementType extends GoNamedStubElementType<GoMethod
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
     dataStream.writeVarInt(stub.getArity());
+    dataStream.writeName(stub.getEmbeddedTypeName());
   }
 
   @NotNull
   @Override
   public GoMethodSpecStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoMethodSpecStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readVarInt());
+    return new GoMethodSpecStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readVarInt(),
+                                dataStream.readName());
   }
 }
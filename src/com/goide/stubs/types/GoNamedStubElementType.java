@@ -17,6 +17,7 @@
 package com.goide.stubs.types;
 
 import com.goide.psi.GoNamedElement;
+import com.goide.stubs.GoDocumentedStub;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.GoNamedStub;
 import com.goide.stubs.index.GoAllPrivateNamesIndex;
@@ -27,9 +28,11 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.stubs.IndexSink;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.psi.stubs.StubOutputStream;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -44,6 +47,11 @@ public abstract class GoNamedStubElementType<S extends GoNamedStub<T>, T extends
     return super.shouldCreateStub(node) && psi instanceof GoNamedElement && StringUtil.isNotEmpty(((GoNamedElement)psi).getName());
   }
 
+  protected static void writeDocumentation(@NotNull GoDocumentedStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+    dataStream.writeUTFFast(StringUtil.notNullize(stub.getDocComment()));
+    dataStream.writeUTFFast(StringUtil.notNullize(stub.getSignatureText()));
+  }
+
   public void indexStub(@NotNull S stub, @NotNull IndexSink sink) {
     String name = stub.getName();
     if (shouldIndex() && StringUtil.isNotEmpty(name)) {
@@ -18,9 +18,11 @@ package com.goide.stubs.types;
 
 import com.goide.psi.GoNamedElement;
 import com.goide.psi.GoTypeSpec;
+import com.goide.psi.impl.GoDocumentationUtil;
 import com.goide.psi.impl.GoTypeSpecImpl;
 import com.goide.stubs.GoTypeSpecStub;
 import com.goide.stubs.index.GoTypesIndex;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubIndexKey;
 import com.intellij.psi.stubs.StubInputStream;
@@ -56,19 +58,22 @@ public class GoTypeSpecStubElementType extends GoNamedStubElementType<GoTypeSpec
   @NotNull
   @Override
   public GoTypeSpecStub createStub(@NotNull GoTypeSpec psi, StubElement parentStub) {
-    return new GoTypeSpecStub(parentStub, this, psi.getName(), psi.isPublic());
+    return new GoTypeSpecStub(parentStub, this, psi.getName(), psi.isPublic(),
+                              GoDocumentationUtil.getStubDocComment(psi), GoDocumentationUtil.getStubSignatureText(psi));
   }
 
   @Override
   public void serialize(@NotNull GoTypeSpecStub stub, @NotNull StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
+    writeDocumentation(stub, dataStream);
   }
 
   @NotNull
   @Override
   public GoTypeSpecStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoTypeSpecStub(parentStub, this, dataStream.readName(), dataStream.readBoolean());
+    return new GoTypeSpecStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(),
+                              StringUtil.nullize(dataStream.readUTFFast()), StringUtil.nullize(dataStream.readUTFFast()));
   }
 
   @NotNull
@@ -18,9 +18,11 @@ package com.goide.stubs.types;
 
 import com.goide.psi.GoFunctionOrMethodDeclaration;
 import com.goide.psi.GoVarDefinition;
+import com.goide.psi.impl.GoDocumentationUtil;
 import com.goide.psi.impl.GoVarDefinitionImpl;
 import com.goide.stubs.GoVarDefinitionStub;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.StubOutputStream;
@@ -54,19 +56,22 @@ public class GoVarDefinitionStubElementType extends GoNamedStubElementType<GoVar
   @NotNull
   @Override
   public GoVarDefinitionStub createStub(@NotNull GoVarDefinition psi, StubElement parentStub) {
-    return new GoVarDefinitionStub(parentStub, this, psi.getName(), psi.isPublic());
+    return new GoVarDefinitionStub(parentStub, this, psi.getName(), psi.isPublic(),
+                                   GoDocumentationUtil.getStubDocComment(psi), GoDocumentationUtil.getStubSignatureText(psi));
   }
 
   @Override
   public void serialize(@NotNull GoVarDefinitionStub stub, @NotNull StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
+    writeDocumentation(stub, dataStream);
   }
 
   @NotNull
   @Override
   public GoVarDefinitionStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoVarDefinitionStub(parentStub, this, dataStream.readName(), dataStream.readBoolean());
+    return new GoVarDefinitionStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(),
+                                   StringUtil.nullize(dataStream.readUTFFast()), StringUtil.nullize(dataStream.readUTFFast()));
   }
 
   @Override
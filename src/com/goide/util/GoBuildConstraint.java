@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Pre-parsed form of the {@code // +build} lines of a file, so matching against a target doesn't re-split the flags every time.
+ * Lines are joined with AND, space-separated options with OR, comma-separated terms with AND.
+ *
+ * @see GoBuildMatcher
+ */
+public abstract class GoBuildConstraint {
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+  public static final GoBuildConstraint TRUE = new Constant(true);
+  public static final GoBuildConstraint FALSE = new Constant(false);
+
+  public abstract boolean matches(@NotNull GoBuildMatcher matcher);
+
+  /**
+   * @param buildFlags lines of build flags joined with '|', as stored by {@link com.goide.psi.GoFile#getBuildFlags()}
+   */
+  @NotNull
+  public static GoBuildConstraint parse(@Nullable String buildFlags) {
+    if (buildFlags == null) return TRUE;
+    List<GoBuildConstraint> lines = ContainerUtil.newArrayList();
+    for (String line : StringUtil.split(buildFlags, "|")) {
+      lines.add(parseLine(line));
+    }
+    return and(lines);
+  }
+
+  @NotNull
+  private static GoBuildConstraint parseLine(@NotNull String line) {
+    List<GoBuildConstraint> options = ContainerUtil.newArrayList();
+    for (String option : WHITESPACES.split(line)) {
+      options.add(parseTag(option));
+    }
+    return options.size() == 1 ? options.get(0) : new Or(options);
+  }
+
+  @NotNull
+  public static GoBuildConstraint parseTag(@NotNull String name) {
+    if (name.isEmpty()) return FALSE;
+
+    if (StringUtil.containsChar(name, ',')) { // comma separated list
+      List<GoBuildConstraint> terms = ContainerUtil.newArrayList();
+      for (String term : StringUtil.split(name, ",")) {
+        terms.add(parseTag(term));
+      }
+      return and(terms);
+    }
+
+    // bad syntax, reject always
+    if (name.startsWith("!!")) return FALSE;
+
+    // negation
+    if (name.startsWith("!")) return new Not(parseTag(name.substring(1)));
+
+    return new Tag(name);
+  }
+
+  @NotNull
+  private static GoBuildConstraint and(@NotNull List<GoBuildConstraint> terms) {
+    if (terms.isEmpty()) return TRUE;
+    return terms.size() == 1 ? terms.get(0) : new And(terms);
+  }
+
+  private static class Constant extends GoBuildConstraint {
+    private final boolean myValue;
+
+    private Constant(boolean value) {
+      myValue = value;
+    }
+
+    @Override
+    public boolean matches(@NotNull GoBuildMatcher matcher) {
+      return myValue;
+    }
+  }
+
+  private static class Tag extends GoBuildConstraint {
+    @NotNull private final String myName;
+
+    private Tag(@NotNull String name) {
+      myName = name;
+    }
+
+    @Override
+    public boolean matches(@NotNull GoBuildMatcher matcher) {
+      return matcher.matchTag(myName);
+    }
+  }
+
+  private static class Not extends GoBuildConstraint {
+    @NotNull private final GoBuildConstraint myOperand;
+
+    private Not(@NotNull GoBuildConstraint operand) {
+      myOperand = operand;
+    }
+
+    @Override
+    public boolean matches(@NotNull GoBuildMatcher matcher) {
+      return !myOperand.matches(matcher);
+    }
+  }
+
+  private static class And extends GoBuildConstraint {
+    @NotNull private final GoBuildConstraint[] myOperands;
+
+    private And(@NotNull List<GoBuildConstraint> operands) {
+      myOperands = operands.toArray(new GoBuildConstraint[operands.size()]);
+    }
+
+    @Override
+    public boolean matches(@NotNull GoBuildMatcher matcher) {
+      for (GoBuildConstraint operand : myOperands) {
+        if (!operand.matches(matcher)) return false;
+      }
+      return true;
+    }
+  }
+
+  private static class Or extends GoBuildConstraint {
+    @NotNull private final GoBuildConstraint[] myOperands;
+
+    private Or(@NotNull List<GoBuildConstraint> operands) {
+      myOperands = operands.toArray(new GoBuildConstraint[operands.size()]);
+    }
+
+    @Override
+    public boolean matches(@NotNull GoBuildMatcher matcher) {
+      for (GoBuildConstraint operand : myOperands) {
+        if (operand.matches(matcher)) return true;
+      }
+      return false;
+    }
+  }
+}
@@ -27,14 +27,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * @see "$GOROOT/src/go/build/build.go" and relevant functions
  */
 public class GoBuildMatcher {
-  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
-
   @NotNull private final GoTargetSystem myTarget;
 
   public GoBuildMatcher(@NotNull GoTargetSystem target) {
@@ -55,45 +52,24 @@ public class GoBuildMatcher {
     }
     if (((GoFile)file).hasCPathImport() && myTarget.cgoEnabled != ThreeState.YES) return false;
 
-    return match(file.getName(), ((GoFile)file).getBuildFlags(), checkBuildFlags);
+    String fileName = file.getName();
+    if (GoUtil.directoryToIgnore(fileName) || !matchFileName(fileName)) return false;
+    return !checkBuildFlags || ((GoFile)file).getBuildConstraint().matches(this);
   }
 
   public boolean match(@NotNull String fileName, @Nullable String buildFlags, boolean checkBuildFlags) {
     if (GoUtil.directoryToIgnore(fileName) || !matchFileName(fileName)) return false;
-
-    if (!checkBuildFlags || buildFlags == null) return true;
-    for (String line : StringUtil.split(buildFlags, "|")) {
-      if (!matchBuildFlagsLine(line)) return false;
-    }
-
-    return true;
-  }
-
-  private boolean matchBuildFlagsLine(@NotNull String line) {
-    for (String tag : WHITESPACES.split(line)) {
-      if (matchBuildFlag(tag)) return true;
-    }
-    return false;
+    return !checkBuildFlags || GoBuildConstraint.parse(buildFlags).matches(this);
   }
 
   public boolean matchBuildFlag(@NotNull String name) {
-    if (name.isEmpty()) return false;
-
-    if (StringUtil.containsChar(name, ',')) { // comma separated list
-      for (String tag : StringUtil.split(name, ",")) {
-        if (!matchBuildFlag(tag)) {
-          return false;
-        }
-      }
-      return true;
-    }
-
-    // bad syntax, reject always
-    if (name.startsWith("!!")) return false;
-
-    // negation
-    if (name.startsWith("!")) return !matchBuildFlag(name.substring(1));
+    return GoBuildConstraint.parseTag(name).matches(this);
+  }
 
+  /**
+   * Matches a single tag without operators, see {@link GoBuildConstraint} for handling of negations and lists
+   */
+  boolean matchTag(@NotNull String name) {
     if (matchOS(name)) return true;
     if (GoConstants.KNOWN_COMPILERS.contains(name)) {
       return myTarget.compiler == null || name.equals(myTarget.compiler);
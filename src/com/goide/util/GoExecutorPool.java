@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.ConcurrencyUtil;
+import com.intellij.util.Consumer;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs a bunch of {@link GoExecutor}s within a single progress, at most {@link #getParallelism()} processes at a time.
+ * Files touched by the tools are refreshed once, after all of them have finished.
+ */
+public class GoExecutorPool {
+  private static final int MAX_FILES_PER_INVOCATION = 100;
+  private static final int MAX_COMMAND_LINE_LENGTH = 8000;
+
+  private GoExecutorPool() {}
+
+  public static int getParallelism() {
+    return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Splits file paths into chunks short enough to be passed to a single tool invocation
+   */
+  @NotNull
+  public static List<List<String>> partition(@NotNull Collection<String> paths) {
+    List<List<String>> result = ContainerUtil.newArrayList();
+    List<String> current = ContainerUtil.newArrayList();
+    int length = 0;
+    for (String path : paths) {
+      if (!current.isEmpty() && (current.size() >= MAX_FILES_PER_INVOCATION || length + path.length() > MAX_COMMAND_LINE_LENGTH)) {
+        result.add(current);
+        current = ContainerUtil.newArrayList();
+        length = 0;
+      }
+      current.add(path);
+      length += path.length() + 1;
+    }
+    if (!current.isEmpty()) {
+      result.add(current);
+    }
+    return result;
+  }
+
+  /**
+   * @param consumer receives {@code true} if every executor has succeeded
+   */
+  public static void executeWithProgress(@NotNull final Project project,
+                                         @NotNull String title,
+                                         @NotNull final List<GoExecutor> executors,
+                                         @NotNull final Collection<VirtualFile> filesToRefresh,
+                                         final boolean modal,
+                                         @NotNull final Consumer<Boolean> consumer) {
+    ProgressManager.getInstance().run(new Task.Backgroundable(project, title, true) {
+      @Override
+      public boolean shouldStartInBackground() {
+        return !modal;
+      }
+
+      @Override
+      public boolean isConditionalModal() {
+        return modal;
+      }
+
+      @Override
+      public void run(@NotNull ProgressIndicator indicator) {
+        boolean result = false;
+        try {
+          result = !project.isDisposed() && execute(executors, indicator);
+        }
+        finally {
+          if (!filesToRefresh.isEmpty()) {
+            VfsUtil.markDirtyAndRefresh(true, true, true, VfsUtil.toVirtualFileArray(filesToRefresh));
+          }
+          consumer.consume(result);
+        }
+      }
+    });
+  }
+
+  private static boolean execute(@NotNull List<GoExecutor> executors, @NotNull ProgressIndicator indicator) {
+    ExecutorService pool = Executors.newFixedThreadPool(Math.min(getParallelism(), Math.max(1, executors.size())),
+                                                        ConcurrencyUtil.newNamedThreadFactory("Go tools"));
+    try {
+      List<Future<Boolean>> futures = ContainerUtil.newArrayList();
+      for (final GoExecutor executor : executors) {
+        futures.add(pool.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() {
+            return executor.execute();
+          }
+        }));
+      }
+
+      boolean result = true;
+      indicator.setIndeterminate(false);
+      for (int i = 0; i < futures.size(); i++) {
+        indicator.setFraction((double)i / futures.size());
+        result &= waitFor(futures.get(i), indicator);
+      }
+      return result;
+    }
+    catch (ProcessCanceledException e) {
+      pool.shutdownNow();
+      for (GoExecutor executor : executors) {
+        ProcessHandler handler = executor.getProcessHandler();
+        if (handler != null) {
+          handler.destroyProcess();
+        }
+      }
+      throw e;
+    }
+    finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static boolean waitFor(@NotNull Future<Boolean> future, @NotNull ProgressIndicator indicator) {
+    while (true) {
+      indicator.checkCanceled();
+      try {
+        return Boolean.TRUE.equals(future.get(100, TimeUnit.MILLISECONDS));
+      }
+      catch (TimeoutException ignore) {
+      }
+      catch (InterruptedException e) {
+        throw new ProcessCanceledException(e);
+      }
+      catch (ExecutionException e) {
+        return false;
+      }
+    }
+  }
+}
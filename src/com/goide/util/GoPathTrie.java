@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Set of slash-separated paths that answers "is any of them an ancestor of this path" in time proportional
+ * to the depth of the path rather than to the number of paths in the set.
+ * <p/>
+ * Not thread-safe for modification, build it once and publish.
+ */
+public class GoPathTrie {
+  private final Node myRoot = new Node();
+  private final boolean myCaseSensitive;
+  private int mySize;
+
+  public GoPathTrie() {
+    this(SystemInfo.isFileSystemCaseSensitive);
+  }
+
+  public GoPathTrie(boolean caseSensitive) {
+    myCaseSensitive = caseSensitive;
+  }
+
+  @NotNull
+  public static GoPathTrie create(@NotNull Collection<String> paths, boolean caseSensitive) {
+    GoPathTrie trie = new GoPathTrie(caseSensitive);
+    for (String path : paths) {
+      trie.add(path);
+    }
+    return trie;
+  }
+
+  public void add(@NotNull String path) {
+    Node node = myRoot;
+    String normalized = normalize(path);
+    int start = 0;
+    while (start < normalized.length()) {
+      int end = segmentEnd(normalized, start);
+      if (end > start) {
+        String segment = normalized.substring(start, end);
+        Node child = node.myChildren != null ? node.myChildren.get(segment) : null;
+        if (child == null) {
+          if (node.myChildren == null) node.myChildren = ContainerUtil.newHashMap();
+          child = new Node();
+          node.myChildren.put(segment, child);
+        }
+        node = child;
+      }
+      start = end + 1;
+    }
+    if (!node.myTerminal) {
+      node.myTerminal = true;
+      mySize++;
+    }
+  }
+
+  public boolean isEmpty() {
+    return mySize == 0;
+  }
+
+  public int size() {
+    return mySize;
+  }
+
+  /**
+   * @param strict if {@code true}, the path itself doesn't count as its own ancestor
+   */
+  public boolean containsAncestorOf(@NotNull String path, boolean strict) {
+    if (mySize == 0) return false;
+    Node node = myRoot;
+    if (node.myTerminal && (!strict || !isRoot(path))) return true;
+    String normalized = normalize(path);
+    int start = 0;
+    while (start < normalized.length()) {
+      int end = segmentEnd(normalized, start);
+      if (end > start) {
+        if (node.myChildren == null) return false;
+        node = node.myChildren.get(normalized.substring(start, end));
+        if (node == null) return false;
+        if (node.myTerminal && (!strict || hasMoreSegments(normalized, end))) return true;
+      }
+      start = end + 1;
+    }
+    return false;
+  }
+
+  @NotNull
+  private String normalize(@NotNull String path) {
+    String independent = FileUtil.toSystemIndependentName(path);
+    return myCaseSensitive ? independent : StringUtil.toLowerCase(independent);
+  }
+
+  private static int segmentEnd(@NotNull String path, int start) {
+    int end = path.indexOf('/', start);
+    return end < 0 ? path.length() : end;
+  }
+
+  private static boolean hasMoreSegments(@NotNull String path, int end) {
+    for (int i = end; i < path.length(); i++) {
+      if (path.charAt(i) != '/') return true;
+    }
+    return false;
+  }
+
+  private static boolean isRoot(@NotNull String path) {
+    return !hasMoreSegments(FileUtil.toSystemIndependentName(path), 0);
+  }
+
+  private static class Node {
+    private Map<String, Node> myChildren;
+    private boolean myTerminal;
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.google.gson.GsonBuilder;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.PathUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Opt-in statistics of resolve and type inference per file. Disabled by default,
+ * can be enabled with {@code -Dgo.resolve.metrics=true} or with the internal toggle action.
+ * <p/>
+ * Usage pattern:
+ * <pre>
+ * long start = GoResolveMetrics.start();
+ * try { ... } finally { GoResolveMetrics.finish(Operation.REFERENCE_RESOLVE, element, start); }
+ * </pre>
+ * Times are inclusive, i.e. a reference resolve contains all nested resolves and type inference.
+ */
+public class GoResolveMetrics {
+  private static final int HISTOGRAM_BUCKETS = 22; // 2^i microseconds, the last one is for everything above ~1 sec
+
+  private static final int REQUESTS = 0;
+  private static final int MISSES = 1;
+  private static final int RECURSION_GUARDS = 2;
+  private static final int TOTAL_NANOS = 3;
+  private static final int MAX_NANOS = 4;
+  private static final int HISTOGRAM_START = 5;
+  private static final int SLOTS = HISTOGRAM_START + HISTOGRAM_BUCKETS;
+
+  public enum Operation {
+    REFERENCE_RESOLVE, TYPE_REFERENCE_RESOLVE, EXPRESSION_TYPE, BUILTIN_FILE
+  }
+
+  private static volatile boolean ourEnabled = Boolean.getBoolean("go.resolve.metrics");
+  private static final ConcurrentMap<String, AtomicLongArray[]> ourStatistics = ContainerUtil.newConcurrentMap();
+
+  private GoResolveMetrics() {
+  }
+
+  public static boolean isEnabled() {
+    return ourEnabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    ourEnabled = enabled;
+  }
+
+  public static void reset() {
+    ourStatistics.clear();
+  }
+
+  /**
+   * @return a start mark for {@link #finish}, or -1 if metrics are disabled
+   */
+  public static long start() {
+    return ourEnabled ? System.nanoTime() : -1;
+  }
+
+  /**
+   * Records a computation that wasn't served from a cache
+   */
+  public static void finish(@NotNull Operation operation, @Nullable PsiElement context, long start) {
+    if (start < 0 || !ourEnabled) return;
+    long duration = System.nanoTime() - start;
+    AtomicLongArray stats = getStatistics(operation, context);
+    stats.incrementAndGet(MISSES);
+    stats.addAndGet(TOTAL_NANOS, duration);
+    long max;
+    do {
+      max = stats.get(MAX_NANOS);
+    }
+    while (duration > max && !stats.compareAndSet(MAX_NANOS, max, duration));
+    stats.incrementAndGet(HISTOGRAM_START + bucket(duration));
+  }
+
+  /**
+   * Records a request to a cached computation, requests without a following {@link #finish} are counted as cache hits
+   */
+  public static void request(@NotNull Operation operation, @Nullable PsiElement context) {
+    if (!ourEnabled) return;
+    getStatistics(operation, context).incrementAndGet(REQUESTS);
+  }
+
+  public static void recursionGuard(@NotNull Operation operation, @Nullable PsiElement context) {
+    if (!ourEnabled) return;
+    getStatistics(operation, context).incrementAndGet(RECURSION_GUARDS);
+  }
+
+  private static int bucket(long nanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    int bucket = 0;
+    while (micros > 1 && bucket < HISTOGRAM_BUCKETS - 1) {
+      micros >>= 1;
+      bucket++;
+    }
+    return bucket;
+  }
+
+  @NotNull
+  private static AtomicLongArray getStatistics(@NotNull Operation operation, @Nullable PsiElement context) {
+    String path = getPath(context);
+    AtomicLongArray[] fileStatistics = ourStatistics.get(path);
+    if (fileStatistics == null) {
+      AtomicLongArray[] newStatistics = new AtomicLongArray[Operation.values().length];
+      for (int i = 0; i < newStatistics.length; i++) {
+        newStatistics[i] = new AtomicLongArray(SLOTS);
+      }
+      AtomicLongArray[] existing = ourStatistics.putIfAbsent(path, newStatistics);
+      fileStatistics = existing != null ? existing : newStatistics;
+    }
+    return fileStatistics[operation.ordinal()];
+  }
+
+  @NotNull
+  private static String getPath(@Nullable PsiElement context) {
+    PsiFile file = context != null && context.isValid() ? context.getContainingFile() : null;
+    if (file == null) return "<unknown>";
+    VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+    return virtualFile != null ? virtualFile.getPath() : file.getName();
+  }
+
+  @NotNull
+  public static Snapshot snapshot() {
+    Snapshot snapshot = new Snapshot();
+    Map<String, PackageEntry> packages = ContainerUtil.newHashMap();
+    for (Map.Entry<String, AtomicLongArray[]> entry : ourStatistics.entrySet()) {
+      String path = entry.getKey();
+      String packagePath = PathUtil.getParentPath(path);
+      PackageEntry packageEntry = packages.get(packagePath);
+      if (packageEntry == null) {
+        packageEntry = new PackageEntry(packagePath);
+        packages.put(packagePath, packageEntry);
+      }
+      FileEntry fileEntry = new FileEntry(path);
+      for (Operation operation : Operation.values()) {
+        OperationEntry operationEntry = new OperationEntry(operation, entry.getValue()[operation.ordinal()]);
+        if (operationEntry.requests > 0 || operationEntry.misses > 0 || operationEntry.recursionGuards > 0) {
+          fileEntry.operations.add(operationEntry);
+          fileEntry.totalMillis += operationEntry.totalMillis;
+        }
+      }
+      packageEntry.files.add(fileEntry);
+      packageEntry.totalMillis += fileEntry.totalMillis;
+    }
+    snapshot.packages.addAll(packages.values());
+    Collections.sort(snapshot.packages, new Comparator<PackageEntry>() {
+      @Override
+      public int compare(@NotNull PackageEntry o1, @NotNull PackageEntry o2) {
+        return Double.compare(o2.totalMillis, o1.totalMillis);
+      }
+    });
+    for (PackageEntry entry : snapshot.packages) {
+      Collections.sort(entry.files, new Comparator<FileEntry>() {
+        @Override
+        public int compare(@NotNull FileEntry o1, @NotNull FileEntry o2) {
+          return Double.compare(o2.totalMillis, o1.totalMillis);
+        }
+      });
+    }
+    return snapshot;
+  }
+
+  @NotNull
+  public static String toJson(@NotNull Snapshot snapshot) {
+    return new GsonBuilder().setPrettyPrinting().create().toJson(snapshot);
+  }
+
+  @SuppressWarnings("unused")
+  public static class Snapshot {
+    public final long timestamp = System.currentTimeMillis();
+    public final List<PackageEntry> packages = ContainerUtil.newArrayList();
+  }
+
+  @SuppressWarnings("unused")
+  public static class PackageEntry {
+    public final String path;
+    public double totalMillis;
+    public final List<FileEntry> files = ContainerUtil.newArrayList();
+
+    private PackageEntry(@NotNull String path) {
+      this.path = path;
+    }
+  }
+
+  @SuppressWarnings("unused")
+  public static class FileEntry {
+    public final String path;
+    public double totalMillis;
+    public final List<OperationEntry> operations = ContainerUtil.newArrayList();
+
+    private FileEntry(@NotNull String path) {
+      this.path = path;
+    }
+  }
+
+  @SuppressWarnings("unused")
+  public static class OperationEntry {
+    public final String operation;
+    public final long requests;
+    public final long cacheHits;
+    public final long misses;
+    public final long recursionGuards;
+    public final double totalMillis;
+    public final double maxMillis;
+    /**
+     * Number of computations which took up to 2^i microseconds
+     */
+    public final long[] histogram = new long[HISTOGRAM_BUCKETS];
+
+    private OperationEntry(@NotNull Operation operation, @NotNull AtomicLongArray stats) {
+      this.operation = operation.name();
+      requests = stats.get(REQUESTS);
+      misses = stats.get(MISSES);
+      cacheHits = Math.max(0, requests - misses);
+      recursionGuards = stats.get(RECURSION_GUARDS);
+      totalMillis = stats.get(TOTAL_NANOS) / 1e6;
+      maxMillis = stats.get(MAX_NANOS) / 1e6;
+      for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+        histogram[i] = stats.get(HISTOGRAM_START + i);
+      }
+    }
+  }
+}
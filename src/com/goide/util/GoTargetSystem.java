@@ -16,6 +16,7 @@
 
 package com.goide.util;
 
+import com.intellij.openapi.util.Comparing;
 import com.intellij.util.ThreeState;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
@@ -46,4 +47,29 @@ public class GoTargetSystem {
   public boolean supportsFlag(@NotNull String flag) {
     return customFlags.contains(flag);
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof GoTargetSystem)) return false;
+
+    GoTargetSystem system = (GoTargetSystem)o;
+    return os.equals(system.os) &&
+           arch.equals(system.arch) &&
+           Comparing.equal(goVersion, system.goVersion) &&
+           Comparing.equal(compiler, system.compiler) &&
+           cgoEnabled == system.cgoEnabled &&
+           customFlags.equals(system.customFlags);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = os.hashCode();
+    result = 31 * result + arch.hashCode();
+    result = 31 * result + Comparing.hashcode(goVersion);
+    result = 31 * result + Comparing.hashcode(compiler);
+    result = 31 * result + cgoEnabled.hashCode();
+    result = 31 * result + customFlags.hashCode();
+    return result;
+  }
 }
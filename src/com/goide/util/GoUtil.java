@@ -50,6 +50,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 public class GoUtil {
   public static final Function<VirtualFile, String> RETRIEVE_FILE_PATH_FUNCTION = new Function<VirtualFile, String>() {
@@ -69,9 +70,22 @@ public class GoUtil {
   private static final Key<CachedValue<Collection<String>>> PACKAGES_CACHE = Key.create("packages_cache");
   private static final Key<CachedValue<Collection<String>>> PACKAGES_TEST_TRIMMED_CACHE = Key.create("packages_test_trimmed_cache");
 
-  public static boolean allowed(@NotNull PsiFile file) {
+  public static boolean allowed(@NotNull final PsiFile file) {
     GoBuildTargetSettings targetSettings = GoBuildTargetSettings.getInstance(file.getProject());
-    return new GoBuildMatcher(targetSettings.getTargetSystemDescriptor(ModuleUtilCore.findModuleForPsiElement(file))).matchFile(file);
+    GoTargetSystem target = targetSettings.getTargetSystemDescriptor(ModuleUtilCore.findModuleForPsiElement(file));
+    Map<GoTargetSystem, Boolean> verdicts = CachedValuesManager.getCachedValue(file, new CachedValueProvider<Map<GoTargetSystem, Boolean>>() {
+      @Nullable
+      @Override
+      public Result<Map<GoTargetSystem, Boolean>> compute() {
+        return Result.create(ContainerUtil.<GoTargetSystem, Boolean>newConcurrentMap(), file);
+      }
+    });
+    Boolean verdict = verdicts.get(target);
+    if (verdict == null) {
+      verdict = new GoBuildMatcher(target).matchFile(file);
+      verdicts.put(target, verdict);
+    }
+    return verdict;
   }
 
   public static boolean isExcludedFile(@NotNull final GoFile file) {
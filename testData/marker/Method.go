@@ -0,0 +1,12 @@
+package main
+
+type Tree struct {
+	left *Tree
+}
+
+func (t *Tree) Depth() int {
+	if t == nil {
+		return 0
+	}
+	return 1 + t.left.Depth()<caret>
+}
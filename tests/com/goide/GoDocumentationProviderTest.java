@@ -16,6 +16,8 @@
 
 package com.goide;
 
+import com.goide.psi.GoFunctionDeclaration;
+import com.goide.stubs.GoFunctionDeclarationStub;
 import com.intellij.codeInsight.documentation.DocumentationManager;
 import com.intellij.lang.documentation.DocumentationProvider;
 import com.intellij.openapi.editor.Editor;
@@ -23,6 +25,7 @@ import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.source.PsiFileImpl;
 import com.intellij.testFramework.LightProjectDescriptor;
 import org.jetbrains.annotations.NotNull;
 
@@ -60,6 +63,19 @@ public class GoDocumentationProviderTest extends GoCodeInsightFixtureTestCase {
   public void testVarShortDefinition()                { doTest(); }
   public void testSpecType()                          { doTest(); }
 
+  public void testQuickNavigateInfoFromStub() {
+    myFixture.configureByText("a.go", "package a; import \"fmt\"; func foo() {fmt.Printl<caret>n}");
+    PsiElement element = myFixture.getElementAtCaret();
+    assertInstanceOf(element, GoFunctionDeclaration.class);
+    PsiFileImpl file = (PsiFileImpl)element.getContainingFile();
+    GoFunctionDeclarationStub stub = ((GoFunctionDeclaration)element).getStub();
+    assertNotNull(stub);
+    assertEquals("func Println(a ...interface{}) (n int, err error)", stub.getSignatureText());
+    assertTrue(StringUtil.notNullize(stub.getDocComment()).startsWith("Println formats using the default formats for its operands"));
+    assertEquals("func Println(a ...interface{}) (n int, err error)", new GoDocumentationProvider().getQuickNavigateInfo(element, null));
+    assertNull(file.getTreeElement());
+  }
+
   public void testMultiBlockDoc()                     { doConverterTest(); }
   public void testIndentedBlock()                     { doConverterTest(); }
   public void testCommentEndsWithIndentedBlock()      { doConverterTest(); }
@@ -20,13 +20,21 @@ import com.goide.GoCodeInsightFixtureTestCase;
 import com.goide.runconfig.testing.coverage.GoCoverageAnnotator;
 import com.goide.runconfig.testing.coverage.GoCoverageProjectData;
 import com.goide.runconfig.testing.coverage.GoCoverageRunner;
+import com.goide.runconfig.testing.coverage.GoCoverageSuite;
+import com.intellij.coverage.CoverageDataManager;
+import com.intellij.coverage.CoverageRunner;
+import com.intellij.coverage.CoverageSuitesBundle;
+import com.intellij.coverage.DefaultCoverageFileProvider;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.CharsetToolkit;
 import com.intellij.openapi.vfs.VirtualFile;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
   public void testCoverage() throws IOException {
@@ -73,6 +81,35 @@ public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
     assertEquals("80% statements", mergeAnnotator.getFileCoverageInformationString(file));
   }
 
+  public void testCrlfAndMalformedLines() throws IOException {
+    VirtualFile file = myFixture.getTempDirFixture().createFile("coverage.go");
+    String profile = "mode: count\r\ncoverage.go:20.56,21.14 1 1\r\ncoverage.go:21.14 1\r\ncoverage.go:24.2,24.50 3 0";
+    InputStream stream = new ByteArrayInputStream(profile.getBytes(CharsetToolkit.UTF8_CHARSET));
+    GoCoverageProjectData data = GoCoverageRunner.parseCoverage(stream, myFixture.getProject(), myModule);
+    assertNotNull(data);
+    assertEquals("25% statements", annotate(data).getFileCoverageInformationString(file));
+  }
+
+  public void testRerunWithSameCoverageFile() throws IOException {
+    VirtualFile file = myFixture.getTempDirFixture().createFile("coverage.go");
+    File coverageFile = FileUtil.createTempFile("coverage", ".out");
+    GoCoverageAnnotator annotator = new GoCoverageAnnotator(myFixture.getProject());
+
+    FileUtil.writeToFile(coverageFile, "mode: count\ncoverage.go:20.56,21.14 1 1\ncoverage.go:24.2,24.50 3 0");
+    annotator.renew(new CoverageSuitesBundle(createSuite(coverageFile, 1)), CoverageDataManager.getInstance(myFixture.getProject()));
+    assertEquals("25% statements", annotator.getFileCoverageInformationString(file));
+
+    FileUtil.writeToFile(coverageFile, "mode: count\ncoverage.go:20.56,21.14 1 1\ncoverage.go:24.2,24.50 3 1");
+    annotator.renew(new CoverageSuitesBundle(createSuite(coverageFile, 2)), CoverageDataManager.getInstance(myFixture.getProject()));
+    assertEquals("100% statements", annotator.getFileCoverageInformationString(file));
+  }
+
+  @NotNull
+  private GoCoverageSuite createSuite(@NotNull File coverageFile, long timeStamp) {
+    return new GoCoverageSuite("coverage", new DefaultCoverageFileProvider(coverageFile), timeStamp,
+                               CoverageRunner.getInstance(GoCoverageRunner.class), myFixture.getProject());
+  }
+
   private GoCoverageAnnotator annotate() throws IOException {
     return annotate(file());
   }
@@ -95,15 +132,15 @@ public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
 
   @NotNull
   private GoCoverageProjectData parseData(@NotNull String coverageSource) throws IOException {
-    BufferedReader reader = new BufferedReader(new FileReader(new File(getTestDataPath(), coverageSource)));
+    InputStream stream = new FileInputStream(new File(getTestDataPath(), coverageSource));
     try {
-      GoCoverageProjectData data = GoCoverageRunner.parseCoverage(reader, myFixture.getProject(), myModule);
+      GoCoverageProjectData data = GoCoverageRunner.parseCoverage(stream, myFixture.getProject(), myModule);
       assertNotNull(data);
       return data;
     }
     finally {
       //noinspection ThrowFromFinallyBlock
-      reader.close();
+      stream.close();
     }
   }
 
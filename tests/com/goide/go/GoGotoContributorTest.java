@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.go;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoNamedElement;
+import com.goide.stubs.index.GoAllPrivateNamesIndex;
+import com.goide.stubs.index.GoAllPublicNamesIndex;
+import com.intellij.navigation.NavigationItem;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.FindSymbolParameters;
+
+import java.util.Collection;
+
+public class GoGotoContributorTest extends GoCodeInsightFixtureTestCase {
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    setUpProjectSdk();
+  }
+
+  public void testSymbolNames() {
+    myFixture.configureByText("a.go", "package a\nfunc Foo() {}\ntype bar struct {}\nvar Baz int");
+    Collection<String> names = processNames(new GoSymbolContributor(), true);
+    assertContainsElements(names, "a.Foo", "a.bar", "a.Baz");
+    assertDoesntContain(names, "a.Qux");
+    assertSize(1, processElements(new GoSymbolContributor(), "a.Foo"));
+    assertEmpty(processElements(new GoSymbolContributor(), "a.Qux"));
+  }
+
+  public void testTypeNames() {
+    myFixture.configureByText("a.go", "package a\nfunc Foo() {}\ntype bar struct {}");
+    Collection<String> names = processNames(new GoTypeContributor(), true);
+    assertContainsElements(names, "bar");
+    assertDoesntContain(names, "Foo");
+  }
+
+  public void testNamesOfChangedFile() {
+    myFixture.configureByText("a.go", "package a\nfunc Foo() {}");
+    assertContainsElements(processNames(new GoSymbolContributor(), true), "a.Foo");
+    final Document document = myFixture.getEditor().getDocument();
+    WriteCommandAction.runWriteCommandAction(getProject(), new Runnable() {
+      @Override
+      public void run() {
+        document.setText("package a\nfunc Qux() {}");
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+      }
+    });
+    Collection<String> names = processNames(new GoSymbolContributor(), true);
+    assertContainsElements(names, "a.Qux");
+    assertDoesntContain(names, "a.Foo");
+    assertSize(1, processElements(new GoSymbolContributor(), "a.Qux"));
+  }
+
+  public void testProjectNames() {
+    myFixture.configureByText("a.go", "package a\nfunc Foo() {}");
+    assertContainsElements(processNames(new GoSymbolContributor(), true), "a.Foo", "fmt.Println");
+
+    FindSymbolParameters parameters = FindSymbolParameters.wrap("", getProject(), false);
+    CommonProcessors.CollectProcessor<String> processor = new CommonProcessors.CollectProcessor<String>();
+    StubIndex.getInstance().processAllKeys(GoAllPublicNamesIndex.ALL_PUBLIC_NAMES, processor, parameters.getSearchScope(),
+                                           parameters.getIdFilter());
+    StubIndex.getInstance().processAllKeys(GoAllPrivateNamesIndex.ALL_PRIVATE_NAMES, processor, parameters.getSearchScope(),
+                                           parameters.getIdFilter());
+    assertSameElements(processNames(new GoSymbolContributor(), false), ContainerUtil.newHashSet(processor.getResults()));
+  }
+
+  public void testProjectElementsGoFirst() {
+    myFixture.addFileToProject("fmt/print.go", "package fmt\nfunc Println() {}");
+    Collection<NavigationItem> elements = processElements(new GoSymbolContributor(), "fmt.Println");
+    assertSize(2, elements);
+    NavigationItem first = ContainerUtil.getFirstItem(elements);
+    assertInstanceOf(first, GoNamedElement.class);
+    VirtualFile file = ((GoNamedElement)first).getContainingFile().getVirtualFile();
+    assertTrue(ProjectRootManager.getInstance(getProject()).getFileIndex().isInContent(file));
+  }
+
+  private Collection<String> processNames(GoGotoContributorBase<?> contributor, boolean searchInLibraries) {
+    FindSymbolParameters parameters = FindSymbolParameters.wrap("", getProject(), searchInLibraries);
+    CommonProcessors.CollectProcessor<String> processor = new CommonProcessors.CollectProcessor<String>();
+    contributor.processNames(processor, parameters.getSearchScope(), parameters.getIdFilter());
+    Collection<String> result = processor.getResults();
+    assertEquals(result.size(), ContainerUtil.newHashSet(result).size());
+    return result;
+  }
+
+  private Collection<NavigationItem> processElements(GoGotoContributorBase<?> contributor, String name) {
+    CommonProcessors.CollectProcessor<NavigationItem> processor = new CommonProcessors.CollectProcessor<NavigationItem>();
+    contributor.processElementsWithName(name, processor, FindSymbolParameters.wrap("", getProject(), true));
+    return processor.getResults();
+  }
+
+  @Override
+  protected LightProjectDescriptor getProjectDescriptor() {
+    return createMockProjectDescriptor();
+  }
+}
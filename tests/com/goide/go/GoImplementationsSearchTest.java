@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.go;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoNamedElement;
+import com.goide.psi.GoTypeSpec;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.searches.DefinitionsScopedSearch;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.containers.ContainerUtil;
+
+import java.util.Collection;
+import java.util.List;
+
+public class GoImplementationsSearchTest extends GoCodeInsightFixtureTestCase {
+  public void testTypeImplementations() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type Rea<caret>der interface { Closer; Read(p []byte) (n int, err error) }\n" +
+                                      "type Closer interface { Close() error }\n" +
+                                      "type File struct {}\n" +
+                                      "func (f *File) Read(b []byte) (int, error) { return 0, nil }\n" +
+                                      "func (f *File) Close() error { return nil }\n" +
+                                      "type NoClose struct {}\n" +
+                                      "func (n NoClose) Read(b []byte) (int, error) { return 0, nil }\n" +
+                                      "type WrongRead struct {}\n" +
+                                      "func (w WrongRead) Read(b string) (int, error) { return 0, nil }\n" +
+                                      "func (w WrongRead) Close() error { return nil }");
+    assertSameElements(search(), "File");
+  }
+
+  public void testMethodImplementations() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type Closer interface { Cl<caret>ose() error }\n" +
+                                      "type File struct {}\n" +
+                                      "func (f File) Close() error { return nil }\n" +
+                                      "type Conn struct {}\n" +
+                                      "func (c *Conn) Close() error { return nil }\n" +
+                                      "func Close() error { return nil }");
+    assertSameElements(search(), "Close", "Close");
+  }
+
+  public void testSuperInterfaces() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type Closer interface { Close() error }\n" +
+                                      "type Flusher interface { Flush() }\n" +
+                                      "type Empty interface {}\n" +
+                                      "type Fi<caret>le struct {}\n" +
+                                      "func (f File) Close() error { return nil }");
+    assertSameElements(superInterfaces(), "Closer");
+  }
+
+  public void testEmbeddingSuperInterfaces() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type Reader interface { Read(p []byte) (n int, err error) }\n" +
+                                      "type Closer interface { Close() error }\n" +
+                                      "type ReadCloser interface { Reader; Closer }\n" +
+                                      "type ReadCloseFlusher interface { ReadCloser; Flush() }\n" +
+                                      "type ReadSeeker interface { Reader; Seek(offset int64) int64 }\n" +
+                                      "type Fi<caret>le struct {}\n" +
+                                      "func (f File) Read(b []byte) (int, error) { return 0, nil }\n" +
+                                      "func (f File) Close() error { return nil }");
+    assertSameElements(superInterfaces(), "Reader", "Closer", "ReadCloser");
+  }
+
+  public void testPointerReceiverSuperInterfaces() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type Closer interface { Close() error }\n" +
+                                      "type Reader interface { Read(p []byte) (n int, err error) }\n" +
+                                      "type Fi<caret>le struct {}\n" +
+                                      "func (f *File) Close() error { return nil }\n" +
+                                      "func (f File) Read(b []byte) (int, error) { return 0, nil }");
+    assertSameElements(superInterfaces(), "Reader");
+  }
+
+  private List<String> superInterfaces() {
+    GoTypeSpec type = PsiTreeUtil.getParentOfType(myFixture.getElementAtCaret(), GoTypeSpec.class, false);
+    assertNotNull(type);
+    List<GoTypeSpec> interfaces = ContainerUtil.newArrayList();
+    GoImplementationsSearch.processSuperInterfaces(type, myFixture.getFile().getResolveScope(),
+                                                   new CommonProcessors.CollectProcessor<GoTypeSpec>(interfaces));
+    List<String> names = ContainerUtil.newArrayList();
+    for (GoTypeSpec spec : interfaces) {
+      names.add(spec.getName());
+    }
+    return names;
+  }
+
+  private List<String> search() {
+    Collection<PsiElement> elements = DefinitionsScopedSearch.search(myFixture.getElementAtCaret()).findAll();
+    List<String> names = ContainerUtil.newArrayList();
+    for (PsiElement element : elements) {
+      names.add(((GoNamedElement)element).getName());
+    }
+    return names;
+  }
+
+  @Override
+  protected boolean isWriteActionRequired() {
+    return false;
+  }
+}
@@ -17,6 +17,8 @@
 package com.goide.psi;
 
 import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
 
 public class GoFileTest extends GoCodeInsightFixtureTestCase {
   public void testRetrieveBuildFlags() {
@@ -62,4 +64,30 @@ public class GoFileTest extends GoCodeInsightFixtureTestCase {
     myFixture.configureByText("foo.go", "package foo_test");
     assertEquals("foo_test", ((GoFile)myFixture.getFile()).getPackageName());
   }
+
+  public void testFunctionBodyIsLazyAndReparsedAlone() {
+    myFixture.configureByText("a.go", "package main\nfunc foo() {\n  a := 1<caret>\n}\nfunc bar() {\n  b := 2\n}\n");
+    GoFile file = (GoFile)myFixture.getFile();
+    GoBlock fooBody = file.getFunctions().get(0).getBlock();
+    GoBlock barBody = file.getFunctions().get(1).getBlock();
+    assertNotNull(fooBody);
+    assertNotNull(barBody);
+    assertInstanceOf(fooBody.getNode(), LazyParseableElement.class);
+
+    myFixture.type("2");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertTrue(barBody.isValid());
+    assertSame(barBody, file.getFunctions().get(1).getBlock());
+    GoBlock newFooBody = file.getFunctions().get(0).getBlock();
+    assertNotNull(newFooBody);
+    assertEquals("{\n  a := 12\n}", newFooBody.getText());
+    assertSize(1, newFooBody.getStatementList());
+  }
+
+  public void testUnbalancedFunctionBodyIsParsedEagerly() {
+    myFixture.configureByText("a.go", "package main\nfunc foo() {\n  a := 1\n");
+    GoBlock body = ((GoFile)myFixture.getFile()).getFunctions().get(0).getBlock();
+    assertNotNull(body);
+    assertFalse(body.getNode() instanceof LazyParseableElement);
+  }
 }
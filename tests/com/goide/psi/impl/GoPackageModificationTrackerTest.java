@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoType;
+import com.goide.psi.GoVarDefinition;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+public class GoPackageModificationTrackerTest extends GoCodeInsightFixtureTestCase {
+  public void testChangesInsideFunctionBodies() {
+    PsiFile other = myFixture.addFileToProject("b/b.go", "package b\nvar B = 1\n");
+    PsiFile file = myFixture.addFileToProject("a/a.go", "package a\nfunc foo() {\n  a := 1\n}\n");
+    myFixture.configureFromExistingVirtualFile(file.getVirtualFile());
+    ModificationTracker own = getTracker(file);
+    ModificationTracker foreign = getTracker(other);
+
+    long ownCount = own.getModificationCount();
+    long foreignCount = foreign.getModificationCount();
+    myFixture.getEditor().getCaretModel().moveToOffset(myFixture.getEditor().getDocument().getText().indexOf("1"));
+    myFixture.type("2");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertEquals(ownCount, own.getModificationCount());
+    assertEquals(foreignCount, foreign.getModificationCount());
+
+    myFixture.getEditor().getCaretModel().moveToOffset(myFixture.getEditor().getDocument().getTextLength());
+    myFixture.type("var C = 2\n");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertTrue(own.getModificationCount() > ownCount);
+    assertEquals(foreignCount, foreign.getModificationCount());
+  }
+
+  public void testTypeCacheSurvivesChangesInOtherPackages() {
+    PsiFile file = myFixture.addFileToProject("b/b.go", "package b\nvar B int\n");
+    myFixture.configureByText("a.go", "package a\nfunc foo() {\n  <caret>\n}\n");
+    GoVarDefinition var = PsiTreeUtil.findChildOfType(file, GoVarDefinition.class);
+    assertNotNull(var);
+    GoType type = var.getGoType(null);
+    assertNotNull(type);
+
+    myFixture.type("b := 1");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertSame(type, var.getGoType(null));
+  }
+
+  public void testTypeRecomputedAfterDeclarationInOtherPackage() {
+    PsiFile other = myFixture.addFileToProject("b/b.go", "package b\n");
+    PsiFile file = myFixture.addFileToProject("a/a.go", "package a\nimport \"b\"\nvar x = b.New()\n");
+    GoVarDefinition var = PsiTreeUtil.findChildOfType(file, GoVarDefinition.class);
+    assertNotNull(var);
+    assertNull(var.getGoType(null));
+
+    final Document document = PsiDocumentManager.getInstance(getProject()).getDocument(other);
+    assertNotNull(document);
+    WriteCommandAction.runWriteCommandAction(getProject(), new Runnable() {
+      @Override
+      public void run() {
+        document.insertString(document.getTextLength(), "type T int\nfunc New() T { return 0 }\n");
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+      }
+    });
+    GoType type = var.getGoType(null);
+    assertNotNull(type);
+    assertEquals("T", type.getText());
+  }
+
+  @NotNull
+  private ModificationTracker getTracker(@NotNull PsiFile file) {
+    PsiDirectory directory = ((GoFile)file).getParent();
+    assertNotNull(directory);
+    return GoPackageModificationTracker.getInstance(getProject()).getTracker(directory);
+  }
+}
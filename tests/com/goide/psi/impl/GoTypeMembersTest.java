@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.*;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public class GoTypeMembersTest extends GoCodeInsightFixtureTestCase {
+  public void testShallowestMemberWins() {
+    GoTypeMembers members = getMembers("package a\n" +
+                                       "type Inner struct { Name string; Deep int }\n" +
+                                       "type Middle struct { Inner; Name int }\n" +
+                                       "type Outer struct { *Middle }\n" +
+                                       "func (m Middle) Method() {}\n", "Outer");
+    List<GoNamedElement> name = members.findMembers("Name");
+    assertSize(1, name);
+    GoTypeSpec owner = PsiTreeUtil.getParentOfType(name.get(0), GoTypeSpec.class);
+    assertNotNull(owner);
+    assertEquals("Middle", owner.getName());
+    assertSize(1, members.findMembers("Deep"));
+    assertSize(1, members.findMembers("Method"));
+    assertSize(1, members.findMembers("Middle"));
+    assertEmpty(members.findMembers("Missing"));
+  }
+
+  public void testEmbeddedInterfaces() {
+    GoTypeMembers members = getMembers("package a\n" +
+                                       "type Reader interface { Read() }\n" +
+                                       "type Closer interface { Close() }\n" +
+                                       "type ReadCloser interface { Reader; Closer }\n", "ReadCloser");
+    assertInstanceOf(members.findMembers("Read").get(0), GoMethodSpec.class);
+    assertInstanceOf(members.findMembers("Close").get(0), GoMethodSpec.class);
+  }
+
+  public void testRecursiveEmbedding() {
+    GoTypeMembers members = getMembers("package a\n" +
+                                       "type A struct { *B; X int }\n" +
+                                       "type B struct { *A; Y int }\n", "A");
+    assertSize(1, members.findMembers("X"));
+    assertSize(1, members.findMembers("Y"));
+  }
+
+  @NotNull
+  private GoTypeMembers getMembers(@NotNull String text, @NotNull String typeName) {
+    PsiFile file = myFixture.configureByText("a.go", text);
+    for (GoTypeSpec spec : ((GoFile)file).getTypes()) {
+      if (typeName.equals(spec.getName())) return GoTypeMembers.getMembers(spec);
+    }
+    throw new AssertionError("Type not found: " + typeName);
+  }
+}
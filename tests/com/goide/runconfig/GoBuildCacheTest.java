@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.util.GoTargetSystem;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.ThreeState;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+public class GoBuildCacheTest extends GoCodeInsightFixtureTestCase {
+  private static final GoTargetSystem LINUX = new GoTargetSystem("linux", "amd64", "1.6", "gc", ThreeState.UNSURE);
+
+  public void testFingerprint() throws IOException {
+    VirtualFile source = myFixture.addFileToProject("a/a.go", "package main\nfunc main() {}").getVirtualFile();
+    Collection<VirtualFile> sources = Collections.singletonList(source);
+    GoBuildCache cache = GoBuildCache.getInstance();
+    String fingerprint = cache.fingerprint(createCommandLine("a"), LINUX, sources);
+    assertNotNull(fingerprint);
+    assertEquals(fingerprint, cache.fingerprint(createCommandLine("a"), LINUX, sources));
+    assertFalse(fingerprint.equals(cache.fingerprint(createCommandLine("b"), LINUX, sources)));
+    assertFalse(fingerprint.equals(cache.fingerprint(createCommandLine("a"), new GoTargetSystem("darwin", "amd64", "1.6", "gc",
+                                                                                                ThreeState.UNSURE), sources)));
+    assertFalse(fingerprint.equals(cache.fingerprint(createCommandLine("a"), LINUX, Collections.<VirtualFile>emptyList())));
+
+    saveText(source, "package main\nfunc main() { println() }");
+    assertFalse(fingerprint.equals(cache.fingerprint(createCommandLine("a"), LINUX, sources)));
+  }
+
+  public void testUpToDate() throws IOException {
+    GoBuildCache cache = GoBuildCache.getInstance();
+    File outputFile = createOutputFile("0123456789abcdef0123456789abcdef01234567", "up-to-date");
+    assertFalse(cache.isUpToDate(outputFile, "fingerprint"));
+
+    cache.buildFinished("up-to-date@a", outputFile, "fingerprint");
+    assertTrue(cache.isUpToDate(outputFile, "fingerprint"));
+    assertFalse(cache.isUpToDate(outputFile, "other"));
+
+    FileUtil.writeToFile(outputFile, "modified binary");
+    assertFalse(cache.isUpToDate(outputFile, "fingerprint"));
+
+    cache.buildFinished("up-to-date@a", outputFile, "fingerprint");
+    cache.buildFailed(outputFile);
+    assertFalse(cache.isUpToDate(outputFile, "fingerprint"));
+  }
+
+  public void testBuildFinishedRemovesPreviousBinary() throws IOException {
+    GoBuildCache cache = GoBuildCache.getInstance();
+    File first = createOutputFile("1111111111111111111111111111111111111111", "previous");
+    File second = createOutputFile("2222222222222222222222222222222222222222", "previous");
+    cache.buildFinished("previous@a", first, "1111111111111111111111111111111111111111");
+    cache.buildFinished("previous@a", second, "2222222222222222222222222222222222222222");
+    assertFalse(first.exists());
+    assertFalse(cache.isUpToDate(first, "1111111111111111111111111111111111111111"));
+    assertTrue(cache.isUpToDate(second, "2222222222222222222222222222222222222222"));
+  }
+
+  @NotNull
+  private static File createOutputFile(@NotNull String fingerprint, @NotNull String binaryName) throws IOException {
+    File file = GoBuildCache.getInstance().getCachedOutputFile(fingerprint, binaryName);
+    FileUtil.writeToFile(file, "binary");
+    return file;
+  }
+
+  @NotNull
+  private static GeneralCommandLine createCommandLine(@NotNull String target) {
+    GeneralCommandLine commandLine = new GeneralCommandLine("go", "build", target);
+    commandLine.setPassParentEnvironment(false);
+    return commandLine;
+  }
+
+  private static void saveText(@NotNull final VirtualFile file, @NotNull final String text) throws IOException {
+    ApplicationManager.getApplication().runWriteAction(new ThrowableComputable<Void, IOException>() {
+      @Override
+      public Void compute() throws IOException {
+        VfsUtil.saveText(file, text);
+        return null;
+      }
+    });
+  }
+}
@@ -91,6 +91,24 @@ public class GoConsoleFilterTest extends GoCodeInsightFixtureTestCase {
     doGoGetTest("\tgo get golang.org/x/tools/cmd/cover", 1, 36, "golang.org/x/tools/cmd/cover");
   }
 
+  public void testLinesWithoutReferences() {
+    assertNull(myFilter.applyFilter("ok  \tgithub.com/user/project\t0.042s", 35));
+    assertNull(myFilter.applyFilter("goroutine 1 [running]:", 22));
+  }
+
+  public void testUnresolvedFileIsFoundAfterCreation() throws IOException {
+    String line = "src/created.go:3: error";
+    assertNull(myFilter.applyFilter(line, line.length()));
+    ApplicationManager.getApplication().runWriteAction(new ThrowableComputable<VirtualFile, IOException>() {
+      @Override
+      public VirtualFile compute() throws IOException {
+        VirtualFile src = myFixture.getTempDirFixture().findOrCreateDir("workingDirectory/src");
+        return src.createChildData(this, "created.go");
+      }
+    });
+    doFileLineTest(line, 0, 16, "/src/workingDirectory/src/created.go", 3, 1);
+  }
+
   private void doGoGetTest(@NotNull String line, int startOffset, int endOffset, @NotNull String packageName) {
     Filter.Result result = myFilter.applyFilter(line, line.length());
     assertNotNull(result);
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.categories.Performance;
+import com.goide.runconfig.testing.frameworks.gocheck.GocheckFramework;
+import com.goide.runconfig.testing.frameworks.gotest.GotestFramework;
+import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.CharsetToolkit;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.util.ThrowableRunnable;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the recorded outputs from {@code testData/testing} until there are about a million lines of them
+ */
+@Category(Performance.class)
+public class GoEventsConverterPerformanceTest extends GoCodeInsightFixtureTestCase {
+  private static final int LINES_COUNT = 1000000;
+
+  public void testGotestThroughput() throws IOException {
+    doTest(GotestFramework.INSTANCE, "gotest", TimeUnit.SECONDS.toMillis(10));
+  }
+
+  public void testGocheckThroughput() throws IOException {
+    doTest(GocheckFramework.INSTANCE, "gocheck", TimeUnit.SECONDS.toMillis(10));
+  }
+
+  private void doTest(@NotNull final GoTestFramework framework, @NotNull String directory, long expectation) throws IOException {
+    final List<String> lines = loadRecordedOutput(new File(getTestDataPath(), directory));
+    assertNotEmpty(lines);
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)expectation, new ThrowableRunnable() {
+      @Override
+      public void run() throws Throwable {
+        GoTestEventsConverterBase converter = GoEventsConverterTestCase.createConverter(myFixture.getProject(), framework);
+        LoggingServiceMessageVisitor visitor = new LoggingServiceMessageVisitor();
+        for (String line : lines) {
+          converter.processServiceMessages(line, ProcessOutputTypes.STDOUT, visitor);
+        }
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  @NotNull
+  private static List<String> loadRecordedOutput(@NotNull File directory) throws IOException {
+    List<String> recorded = ContainerUtil.newArrayList();
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.getName().endsWith(".txt") && !file.getName().endsWith("-expected.txt")) {
+          for (String line : FileUtil.loadLines(file, CharsetToolkit.UTF8)) {
+            recorded.add(line + "\n");
+          }
+        }
+      }
+    }
+    List<String> result = ContainerUtil.newArrayListWithCapacity(LINES_COUNT);
+    while (!recorded.isEmpty() && result.size() < LINES_COUNT) {
+      result.addAll(recorded);
+    }
+    return result;
+  }
+
+  @NotNull
+  @Override
+  protected String getBasePath() {
+    return "testing";
+  }
+
+  @Override
+  protected boolean isWriteActionRequired() {
+    return false;
+  }
+}
@@ -20,6 +20,7 @@ import com.goide.GoCodeInsightFixtureTestCase;
 import com.intellij.execution.Executor;
 import com.intellij.execution.executors.DefaultRunExecutor;
 import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.CharsetToolkit;
 import org.jetbrains.annotations.NotNull;
@@ -28,13 +29,7 @@ import java.io.File;
 
 public abstract class GoEventsConverterTestCase extends GoCodeInsightFixtureTestCase {
   protected void doTest() throws Exception {
-    Executor executor = new DefaultRunExecutor();
-    GoTestRunConfiguration runConfig = new GoTestRunConfiguration(myFixture.getProject(), "", GoTestRunConfigurationType.getInstance());
-    runConfig.setTestFramework(getTestFramework());
-    GoTestConsoleProperties consoleProperties = new GoTestConsoleProperties(runConfig, executor);
-    GoTestEventsConverterBase converter =
-      (GoTestEventsConverterBase)consoleProperties.createTestEventsConverter("gotest", consoleProperties);
-
+    GoTestEventsConverterBase converter = createConverter(myFixture.getProject(), getTestFramework());
     LoggingServiceMessageVisitor serviceMessageVisitor = new LoggingServiceMessageVisitor();
     for (String line : FileUtil.loadLines(new File(getTestDataPath(), getTestName(true) + ".txt"), CharsetToolkit.UTF8)) {
       converter.processServiceMessages(line + "\n", ProcessOutputTypes.STDOUT, serviceMessageVisitor);
@@ -42,6 +37,15 @@ public abstract class GoEventsConverterTestCase extends GoCodeInsightFixtureTest
     assertSameLinesWithFile(getTestDataPath() + "/" + getTestName(true) + "-expected.txt", serviceMessageVisitor.getLog());
   }
 
+  @NotNull
+  static GoTestEventsConverterBase createConverter(@NotNull Project project, @NotNull GoTestFramework framework) {
+    Executor executor = new DefaultRunExecutor();
+    GoTestRunConfiguration runConfig = new GoTestRunConfiguration(project, "", GoTestRunConfigurationType.getInstance());
+    runConfig.setTestFramework(framework);
+    GoTestConsoleProperties consoleProperties = new GoTestConsoleProperties(runConfig, executor);
+    return (GoTestEventsConverterBase)consoleProperties.createTestEventsConverter("gotest", consoleProperties);
+  }
+
   @NotNull
   protected abstract GoTestFramework getTestFramework();
 }
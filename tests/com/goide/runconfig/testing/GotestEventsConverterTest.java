@@ -52,6 +52,10 @@ public class GotestEventsConverterTest extends GoEventsConverterTestCase {
     doTest();
   }
 
+  public void testJsonEvents() throws Exception {
+    doTest();
+  }
+
   @NotNull
   @Override
   protected String getBasePath() {
@@ -165,6 +165,29 @@ public class GoPathLibraryTest extends GoCodeInsightFixtureTestCase {
     assertLibrary(Collections.singletonList(subdir.getUrl()), "temp:///src", newDirectory.getUrl());
   }
 
+  /**
+   * src <content root>
+   * goPath <gopath>
+   * - src
+   * -- subdir
+   * --- testdata
+   * --- other -> testdata
+   */
+  public void testUpdateExclusionsOnDeletingAndRenaming() throws IOException {
+    VirtualFile file = VfsUtil.findFileByIoFile(FileUtil.createTempDirectory("go", "test"), true);
+    VirtualFile subdir = file.createChildDirectory(this, "src").createChildDirectory(this, "subdir");
+    VirtualFile testData = subdir.createChildDirectory(this, "testdata");
+    VirtualFile other = subdir.createChildDirectory(this, "other");
+    GoApplicationLibrariesService.getInstance().setLibraryRootUrls(file.getUrl());
+    assertLibrary(Collections.singletonList(subdir.getUrl()), "temp:///src", testData.getUrl());
+
+    testData.delete(this);
+    assertLibrary(Collections.singletonList(subdir.getUrl()), "temp:///src");
+
+    other.rename(this, "testdata");
+    assertLibrary(Collections.singletonList(subdir.getUrl()), "temp:///src", other.getUrl());
+  }
+
   private void addContentRoot(@NotNull VirtualFile contentRoot) {
     ModifiableRootModel model = ModuleRootManager.getInstance(myModule).getModifiableModel();
     try {
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.GoFileElementType;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.util.indexing.IndexingDataKeys;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+public class GoSdkStubSnapshotTest extends GoCodeInsightFixtureTestCase {
+  private static final String TEXT = "// Package fmt formats.\npackage fmt\n\nimport \"io\"\n\n" +
+                                     "// Println prints.\nfunc Println(a ...interface{}) (n int, err error) { return 0, nil }\n\n" +
+                                     "type Stringer interface { String() string }\n\ntype pp struct { buf []byte; io.Writer }\n\n" +
+                                     "func (p *pp) Write(b []byte) (int, error) { return 0, nil }\n\nconst (\n  a = iota\n  b\n)\n\nvar x, y = 1, 2";
+
+  public void testWriteAndFindStub() throws IOException {
+    PsiFile file = myFixture.addFileToProject("src/fmt/print.go", TEXT);
+    StubElement stub = GoFileElementType.INSTANCE.getBuilder().buildStubTree(file);
+    file.putUserData(IndexingDataKeys.VIRTUAL_FILE, file.getVirtualFile());
+    StubElement found = GoSdkStubSnapshot.findStub(file, writeSnapshot(TEXT, stub));
+    assertNotNull(found);
+    assertEquals(DebugUtil.stubTreeToString(stub), DebugUtil.stubTreeToString(found));
+  }
+
+  public void testChangedContent() throws IOException {
+    PsiFile file = myFixture.addFileToProject("src/fmt/print.go", TEXT + "\nvar z = 3");
+    StubElement stub = GoFileElementType.INSTANCE.getBuilder().buildStubTree(file);
+    file.putUserData(IndexingDataKeys.VIRTUAL_FILE, file.getVirtualFile());
+    assertNull(GoSdkStubSnapshot.findStub(file, writeSnapshot(TEXT, stub)));
+  }
+
+  @NotNull
+  private static File writeSnapshot(@NotNull String text, @NotNull StubElement stub) throws IOException {
+    File snapshot = new File(FileUtil.createTempDirectory("go-sdk-stubs", null), "go1.5." + GoSdkStubSnapshot.EXTENSION);
+    Map<String, CharSequence> contents = Collections.<String, CharSequence>singletonMap("src/fmt/print.go", text);
+    GoSdkStubSnapshot.write(snapshot, "1.5", contents, Collections.singletonMap("src/fmt/print.go", stub));
+    return snapshot;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class GoImportPathIndexTest extends GoCodeInsightFixtureTestCase {
+  public void testImportPathCandidates() {
+    assertEquals(Arrays.asList("github.com/user/src/foo", "foo"),
+                 GoImportPathIndex.getImportPathCandidates("/home/user/go/src/github.com/user/src/foo"));
+    assertEquals(Arrays.asList("pkg/fmt", "fmt"), GoImportPathIndex.getImportPathCandidates("/usr/local/go/src/pkg/fmt"));
+    assertEmpty(GoImportPathIndex.getImportPathCandidates("/home/user/go/src"));
+    assertEmpty(GoImportPathIndex.getImportPathCandidates("/home/user/project/foo"));
+  }
+
+  public void testDirectories() {
+    VirtualFile file = myFixture.addFileToProject("foo/bar/a.go", "package baz").getVirtualFile();
+    myFixture.addFileToProject("foo/bar/a_test.go", "package baz_test");
+    GlobalSearchScope scope = GlobalSearchScope.allScope(getProject());
+    assertSameElements(GoImportPathIndex.getDirectories("foo/bar", scope), file.getParent());
+    assertEmpty(GoImportPathIndex.getDirectories("foo", scope));
+  }
+
+  public void testRenamedAncestor() throws IOException {
+    final VirtualFile file = myFixture.addFileToProject("foo/bar/a.go", "package baz").getVirtualFile();
+    ApplicationManager.getApplication().runWriteAction(new ThrowableComputable<Void, IOException>() {
+      @Override
+      public Void compute() throws IOException {
+        file.getParent().getParent().rename(this, "qux");
+        return null;
+      }
+    });
+    GlobalSearchScope scope = GlobalSearchScope.allScope(getProject());
+    assertSameElements(GoImportPathIndex.getDirectories("qux/bar", scope), file.getParent());
+    assertEmpty(GoImportPathIndex.getDirectories("foo/bar", scope));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static com.goide.stubs.index.GoAllPublicNamesIndex.ALL_PUBLIC_NAMES;
+
+public class GoNamesTableTest extends GoCodeInsightFixtureTestCase {
+  public void testCandidates() {
+    myFixture.configureByText("a.go", "package a\nfunc FooBar() {}\nfunc Baz() {}\nfunc qux() {}");
+    GoNamesTable table = GoNamesTable.getInstance(getProject());
+    assertContainsElements(table.getAllNames(ALL_PUBLIC_NAMES), "a.FooBar", "a.Baz");
+    assertDoesntContain(table.getAllNames(ALL_PUBLIC_NAMES), "a.qux");
+    assertContainsElements(table.getCandidates(ALL_PUBLIC_NAMES, "B", Collections.<String>emptyList()), "a.FooBar", "a.Baz");
+    assertDoesntContain(table.getCandidates(ALL_PUBLIC_NAMES, "F", Collections.<String>emptyList()), "a.Baz");
+    assertContainsElements(table.getCandidates(ALL_PUBLIC_NAMES, "F", Collections.singletonList("a")), "a.Baz");
+  }
+
+  public void testChangesAfterEditing() {
+    myFixture.configureByText("a.go", "package a\nfunc Foo() {}");
+    assertContainsElements(GoNamesTable.getInstance(getProject()).getAllNames(ALL_PUBLIC_NAMES), "a.Foo");
+    final Document document = myFixture.getEditor().getDocument();
+    WriteCommandAction.runWriteCommandAction(getProject(), new Runnable() {
+      @Override
+      public void run() {
+        document.setText("package a\nfunc Bar() {}");
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+      }
+    });
+    GoNamesTable table = GoNamesTable.getInstance(getProject());
+    assertContainsElements(table.getAllNames(ALL_PUBLIC_NAMES), "a.Bar");
+    assertContainsElements(table.getCandidates(ALL_PUBLIC_NAMES, "B", Collections.<String>emptyList()), "a.Bar");
+  }
+
+  public void testChangesOnDisk() throws IOException {
+    final VirtualFile file = myFixture.addFileToProject("b/b.go", "package b\nfunc Foo() {}").getVirtualFile();
+    assertContainsElements(GoNamesTable.getInstance(getProject()).getAllNames(ALL_PUBLIC_NAMES), "b.Foo");
+    ApplicationManager.getApplication().runWriteAction(new ThrowableComputable<Void, IOException>() {
+      @Override
+      public Void compute() throws IOException {
+        VfsUtil.saveText(file, "package b\nfunc Bar() {}");
+        return null;
+      }
+    });
+    assertContainsElements(GoNamesTable.getInstance(getProject()).getAllNames(ALL_PUBLIC_NAMES), "b.Bar");
+  }
+
+  public void testCreatedFile() {
+    assertDoesntContain(GoNamesTable.getInstance(getProject()).getAllNames(ALL_PUBLIC_NAMES), "c.Qux");
+    myFixture.addFileToProject("c/c.go", "package c\nfunc Qux() {}");
+    assertContainsElements(GoNamesTable.getInstance(getProject()).getAllNames(ALL_PUBLIC_NAMES), "c.Qux");
+  }
+}
@@ -119,6 +119,17 @@ public class GoBuildMatcherTest extends GoCodeInsightFixtureTestCase {
     assertFalse(matcher.matchBuildFlag("linux,amd64,bar"));
   }
 
+  public void testMatchBuildConstraint() {
+    GoBuildMatcher matcher = new GoBuildMatcher(new GoTargetSystem("linux", "amd64", "1.4", null, ThreeState.UNSURE));
+    assertTrue(GoBuildConstraint.parse(null).matches(matcher));
+    assertTrue(GoBuildConstraint.parse("linux darwin").matches(matcher));
+    assertTrue(GoBuildConstraint.parse("linux darwin|amd64").matches(matcher));
+    assertFalse(GoBuildConstraint.parse("linux darwin|386").matches(matcher));
+    assertFalse(GoBuildConstraint.parse("windows,amd64 darwin").matches(matcher));
+    assertTrue(GoBuildConstraint.parse("!windows,amd64 darwin").matches(matcher));
+    assertFalse(GoBuildConstraint.parse("!!linux").matches(matcher));
+  }
+
   private void checkMatchFile(@NotNull GoBuildMatcher matcher, boolean expected, @NotNull String fileName, @NotNull String text) {
     myFixture.configureByText(fileName, text + "\n\n package main\n\n func main() {}");
     assertEquals(fileName + ":" + text, expected, matcher.matchFile(myFixture.getFile()));
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.testFramework.UsefulTestCase;
+import com.intellij.util.containers.ContainerUtil;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class GoExecutorPoolTest extends UsefulTestCase {
+  public void testPartitionByCount() {
+    List<String> paths = ContainerUtil.newArrayList();
+    for (int i = 0; i < 250; i++) {
+      paths.add("a" + i + ".go");
+    }
+    List<List<String>> partition = GoExecutorPool.partition(paths);
+    assertSize(3, partition);
+    assertSize(100, partition.get(0));
+    assertSize(50, partition.get(2));
+    assertEquals(paths, ContainerUtil.concat(partition));
+  }
+
+  public void testPartitionByLength() {
+    String longPath = StringUtil.repeat("a", 5000);
+    assertEquals(Arrays.asList(Collections.singletonList(longPath), Arrays.asList(longPath, "b.go")),
+                 GoExecutorPool.partition(Arrays.asList(longPath, longPath, "b.go")));
+  }
+
+  public void testPartitionEmpty() {
+    assertEmpty(GoExecutorPool.partition(Collections.<String>emptyList()));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.intellij.testFramework.UsefulTestCase;
+
+import java.util.Arrays;
+
+public class GoPathTrieTest extends UsefulTestCase {
+  public void testEmpty() {
+    GoPathTrie trie = new GoPathTrie(true);
+    assertTrue(trie.isEmpty());
+    assertFalse(trie.containsAncestorOf("a/b", false));
+  }
+
+  public void testAncestor() {
+    GoPathTrie trie = GoPathTrie.create(Arrays.asList("github.com/foo", "golang.org/x/tools/"), true);
+    assertEquals(2, trie.size());
+    assertTrue(trie.containsAncestorOf("github.com/foo", false));
+    assertTrue(trie.containsAncestorOf("github.com/foo/bar", false));
+    assertTrue(trie.containsAncestorOf("golang.org/x/tools/go/types", false));
+    assertFalse(trie.containsAncestorOf("github.com/foobar", false));
+    assertFalse(trie.containsAncestorOf("github.com", false));
+    assertFalse(trie.containsAncestorOf("golang.org/x", false));
+  }
+
+  public void testStrict() {
+    GoPathTrie trie = GoPathTrie.create(Arrays.asList("/home/user/go/src"), true);
+    assertFalse(trie.containsAncestorOf("/home/user/go/src", true));
+    assertFalse(trie.containsAncestorOf("/home/user/go/src/", true));
+    assertTrue(trie.containsAncestorOf("/home/user/go/src/pkg", true));
+    assertTrue(trie.containsAncestorOf("/home/user/go/src", false));
+  }
+
+  public void testSeparatorsAndCase() {
+    GoPathTrie insensitive = GoPathTrie.create(Arrays.asList("C:\\Go\\Src"), false);
+    assertTrue(insensitive.containsAncestorOf("c:/go/src/fmt", false));
+    GoPathTrie sensitive = GoPathTrie.create(Arrays.asList("C:\\Go\\Src"), true);
+    assertTrue(sensitive.containsAncestorOf("C:/Go/Src/fmt", false));
+    assertFalse(sensitive.containsAncestorOf("c:/go/src/fmt", false));
+  }
+}